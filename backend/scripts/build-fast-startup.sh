@@ -0,0 +1,36 @@
+#!/bin/bash
+
+# Builds the startup-optimized artifacts into target/fast-startup:
+#   - an AOT-processed jar (Spring AOT, fast-startup profile baked in)
+#   - the jar extracted into an exploded layout, which CDS requires
+#   - a class-data-sharing archive produced by a training run
+#
+# Usage: scripts/build-fast-startup.sh
+
+set -e
+
+BACKEND_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+OUT_DIR="$BACKEND_DIR/target/fast-startup"
+
+cd "$BACKEND_DIR"
+
+echo "Building AOT-processed jar..."
+./mvnw -B -q -Pfast-startup -DskipTests package
+
+JAR=$(ls target/inventory-service-demo-*.jar | grep -v plain | head -n 1)
+
+echo "Extracting $JAR..."
+rm -rf "$OUT_DIR"
+java -Djarmode=tools -jar "$JAR" extract --destination "$OUT_DIR"
+
+echo "Training run to create the CDS archive..."
+(cd "$OUT_DIR" && java \
+    -XX:ArchiveClassesAtExit=application.jsa \
+    -Dspring.aot.enabled=true \
+    -Dspring.context.exit=onRefresh \
+    -jar "$(basename "$JAR")" \
+    --spring.profiles.active=fast-startup \
+    --server.port=0 > training.log 2>&1)
+
+echo "Done. Start with:"
+echo "  cd $OUT_DIR && java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar $(basename "$JAR") --spring.profiles.active=fast-startup"
@@ -0,0 +1,61 @@
+#!/bin/bash
+
+# Measures time-to-first-request: the wall-clock time from launching the JVM
+# until GET /api/products returns 200.
+#
+# Usage: scripts/measure-startup.sh [baseline|fast] [runs]
+#   baseline - the regular jar with the default profile
+#   fast     - the artifacts from scripts/build-fast-startup.sh
+
+set -e
+
+MODE="${1:-fast}"
+RUNS="${2:-5}"
+PORT="${PORT:-18080}"
+
+BACKEND_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+cd "$BACKEND_DIR"
+
+JAR=$(ls target/inventory-service-demo-*.jar 2>/dev/null | grep -v plain | head -n 1)
+if [ -z "$JAR" ]; then
+    echo "No jar found in target/. Run ./mvnw package or scripts/build-fast-startup.sh first."
+    exit 1
+fi
+
+if [ "$MODE" = "fast" ]; then
+    WORK_DIR="target/fast-startup"
+    if [ ! -f "$WORK_DIR/application.jsa" ]; then
+        echo "No CDS archive found. Run scripts/build-fast-startup.sh first."
+        exit 1
+    fi
+    CMD=(java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
+         -jar "$(basename "$JAR")" --spring.profiles.active=fast-startup --server.port="$PORT")
+else
+    WORK_DIR="target"
+    CMD=(java -jar "$(basename "$JAR")" --server.port="$PORT")
+fi
+
+TOTAL=0
+for run in $(seq 1 "$RUNS"); do
+    START=$(date +%s%N)
+    (cd "$WORK_DIR" && exec "${CMD[@]}") > /dev/null 2>&1 &
+    PID=$!
+
+    until curl -sf -o /dev/null "http://localhost:$PORT/api/products"; do
+        if ! kill -0 "$PID" 2>/dev/null; then
+            echo "Application exited before serving a request"
+            exit 1
+        fi
+        sleep 0.02
+    done
+    END=$(date +%s%N)
+
+    kill "$PID"
+    wait "$PID" 2>/dev/null || true
+
+    ELAPSED=$(( (END - START) / 1000000 ))
+    TOTAL=$(( TOTAL + ELAPSED ))
+    echo "Run $run: ${ELAPSED} ms to first request"
+done
+
+echo "Mode: $MODE, average over $RUNS runs: $(( TOTAL / RUNS )) ms"
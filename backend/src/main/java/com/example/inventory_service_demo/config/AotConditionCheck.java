@@ -0,0 +1,119 @@
+package com.example.inventory_service_demo.config;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * Fails startup of an AOT-processed build when a flag that decides which beans
+ * exist differs from the value the build was processed with.
+ * <p>
+ * Spring AOT evaluates {@code @ConditionalOnProperty} and
+ * {@code @ConditionalOnExpression} once, during {@code process-aot}, and the
+ * generated bean definitions no longer look at them. Without this check, turning
+ * on e.g. {@code app.sharding.enabled} for the {@code fast-startup} jar would
+ * silently keep the unsharded beans. {@link Recorder} writes the build-time values
+ * into the jar; at runtime they are compared with the environment.
+ */
+@Component
+public class AotConditionCheck {
+
+    static final String RESOURCE = "META-INF/inventory-service/aot-conditions.properties";
+
+    // Every property a bean condition in this application reads, with the value it defaults to
+    static final Map<String, String> FLAGS = Map.of(
+            "app.sharding.enabled", "false",
+            "app.hot-products.enabled", "false",
+            "app.datasource.read-replica.enabled", "false",
+            "app.order-archive.enabled", "false",
+            "app.order-outbox.enabled", "false",
+            "app.order-outbox.relay", "true",
+            "app.cache-invalidation.enabled", "false",
+            "app.slow-query.enabled", "false",
+            "app.snapshot.enabled", "false",
+            "spring.jpa.properties.hibernate.cache.use_second_level_cache", "false");
+
+    public AotConditionCheck(Environment environment) {
+        if (AotDetector.useGeneratedArtifacts()) {
+            verify(load(), environment);
+        }
+    }
+
+    /**
+     * The effective value of every flag in {@code environment}.
+     */
+    static Properties capture(PropertyResolver environment) {
+        Properties values = new Properties();
+        FLAGS.forEach((name, defaultValue) -> values.setProperty(name, value(environment, name)));
+        return values;
+    }
+
+    /**
+     * @throws IllegalStateException When a flag in {@code environment} differs from {@code built}
+     */
+    static void verify(Properties built, PropertyResolver environment) {
+        List<String> changed = new ArrayList<>();
+        for (String name : FLAGS.keySet().stream().sorted().toList()) {
+            String expected = built.getProperty(name, FLAGS.get(name));
+            String actual = value(environment, name);
+            if (!Objects.equals(expected, actual)) {
+                changed.add(name + "=" + actual + " (built with " + expected + ")");
+            }
+        }
+        if (!changed.isEmpty()) {
+            throw new IllegalStateException("This build was AOT-processed with different bean conditions, "
+                    + "rebuild it with the new values or start it without -Dspring.aot.enabled: "
+                    + String.join(", ", changed));
+        }
+    }
+
+    private static String value(PropertyResolver environment, String name) {
+        return environment.getProperty(name, FLAGS.get(name)).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Properties load() {
+        ClassPathResource resource = new ClassPathResource(RESOURCE);
+        if (!resource.exists()) {
+            throw new IllegalStateException("AOT-processed build without " + RESOURCE);
+        }
+        Properties built = new Properties();
+        try (InputStream in = resource.getInputStream()) {
+            built.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return built;
+    }
+
+    /**
+     * Writes the flag values seen by {@code process-aot} into the build
+     * (registered in {@code META-INF/spring/aot.factories}).
+     */
+    static class Recorder implements BeanFactoryInitializationAotProcessor {
+
+        @Override
+        public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+            Properties values = capture(beanFactory.getBean(Environment.class));
+            String content = values.stringPropertyNames().stream().sorted()
+                    .map(name -> name + "=" + values.getProperty(name))
+                    .collect(Collectors.joining("\n", "", "\n"));
+            return (generationContext, code) -> generationContext.getGeneratedFiles().addResourceFile(RESOURCE, content);
+        }
+    }
+}
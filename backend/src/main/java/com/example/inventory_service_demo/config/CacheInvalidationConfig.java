@@ -0,0 +1,37 @@
+package com.example.inventory_service_demo.config;
+
+import com.example.inventory_service_demo.repository.CacheChangeRepository;
+import com.example.inventory_service_demo.service.CacheChangeLog;
+import com.example.inventory_service_demo.service.CacheChangePoller;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Keeps in-memory product and stock data coherent when several nodes share one
+ * database: product and inventory writes are logged to {@code cache_change} and
+ * every node polls the log for the other nodes' writes. No message broker needed.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheInvalidationProperties.class)
+@ConditionalOnProperty(name = "app.cache-invalidation.enabled", havingValue = "true")
+public class CacheInvalidationConfig {
+
+    @Bean
+    public CacheChangeLog cacheChangeLog(CacheChangeRepository cacheChangeRepository) {
+        return new CacheChangeLog(cacheChangeRepository);
+    }
+
+    @Bean
+    public CacheChangePoller cacheChangePoller(CacheChangeRepository cacheChangeRepository,
+                                               ApplicationEventPublisher eventPublisher,
+                                               CacheInvalidationProperties properties,
+                                               CacheChangeLog cacheChangeLog,
+                                               MeterRegistry meterRegistry) {
+        return new CacheChangePoller(cacheChangeRepository, eventPublisher, properties,
+                cacheChangeLog.getNodeId(), meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.inventory_service_demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for keeping in-memory product and stock data coherent across nodes
+ * through the {@code cache_change} table.
+ *
+ * @param enabled whether writes are logged and the log is polled
+ * @param pollInterval how often each node reads new changes
+ * @param batchSize maximum changes read per poll
+ * @param gapTimeout how long a missing log id is waited for before it is taken as rolled back
+ * @param maxStaleness how long the log may be unreadable before all cached data is dropped
+ * @param retention how long changes are kept in the log
+ */
+@ConfigurationProperties(prefix = "app.cache-invalidation")
+public record CacheInvalidationProperties(
+        boolean enabled,
+        @DefaultValue("1s") Duration pollInterval,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("10s") Duration gapTimeout,
+        @DefaultValue("30s") Duration maxStaleness,
+        @DefaultValue("1h") Duration retention) {
+}
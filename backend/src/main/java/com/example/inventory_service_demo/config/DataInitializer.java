@@ -3,18 +3,30 @@ package com.example.inventory_service_demo.config;
 import com.example.inventory_service_demo.model.OrderItem;
 import com.example.inventory_service_demo.model.Product;
 import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.ProductRepository;
 import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
 import com.example.inventory_service_demo.service.InventoryService;
 import com.example.inventory_service_demo.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Component to initialize sample data for the application.
+ * <p>
+ * The loading strategy is selected with {@code app.sample-data.mode}:
+ * <ul>
+ *     <li>{@code services} (default) - creates every record through the service layer</li>
+ *     <li>{@code bulk} - saves all records inside a single transaction</li>
+ *     <li>{@code none} - skips sample data entirely</li>
+ * </ul>
  */
 @Component
 public class DataInitializer implements CommandLineRunner {
@@ -22,26 +34,54 @@ public class DataInitializer implements CommandLineRunner {
     private final ProductService productService;
     private final InventoryService inventoryService;
     private final PurchaseOrderRepository purchaseOrderRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String sampleDataMode;
 
     @Autowired
     public DataInitializer(
             ProductService productService, 
             InventoryService inventoryService,
-            PurchaseOrderRepository purchaseOrderRepository) {
+            PurchaseOrderRepository purchaseOrderRepository,
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.sample-data.mode:services}") String sampleDataMode) {
         this.productService = productService;
         this.inventoryService = inventoryService;
         this.purchaseOrderRepository = purchaseOrderRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sampleDataMode = sampleDataMode;
     }
 
     @Override
     public void run(String... args) {
+        if ("none".equalsIgnoreCase(sampleDataMode)) {
+            return;
+        }
         // Only initialize if no products exist
-        if (productService.getAllProducts().isEmpty()) {
+        if (productRepository.count() > 0) {
+            return;
+        }
+        if ("bulk".equalsIgnoreCase(sampleDataMode)) {
+            transactionTemplate.executeWithoutResult(status -> loadSampleDataInBulk());
+        } else {
             loadSampleData();
         }
     }
 
-    private void loadSampleData() {
+    private void loadSampleDataInBulk() {
+        List<Product> products = productRepository.saveAll(sampleProducts());
+        int[] quantities = {15, 25, 50, 20, 30};
+        for (int i = 0; i < products.size(); i++) {
+            // Through the service so the configured inventory store receives the stock
+            inventoryService.createOrUpdateInventory(products.get(i).getId(), quantities[i]);
+        }
+        purchaseOrderRepository.saveAll(sampleOrders(
+                products.get(0), products.get(1), products.get(2), products.get(3), products.get(4)));
+    }
+
+    private List<Product> sampleProducts() {
         // Create sample products
         Product laptop = new Product(
                 "Laptop Pro X1",
@@ -78,12 +118,18 @@ public class DataInitializer implements CommandLineRunner {
                 new BigDecimal("199.99")
         );
 
+        return List.of(laptop, smartphone, headphones, tablet, smartwatch);
+    }
+
+    private void loadSampleData() {
+        List<Product> products = sampleProducts();
+
         // Save products
-        Product savedLaptop = productService.createProduct(laptop);
-        Product savedSmartphone = productService.createProduct(smartphone);
-        Product savedHeadphones = productService.createProduct(headphones);
-        Product savedTablet = productService.createProduct(tablet);
-        Product savedSmartwatch = productService.createProduct(smartwatch);
+        Product savedLaptop = productService.createProduct(products.get(0));
+        Product savedSmartphone = productService.createProduct(products.get(1));
+        Product savedHeadphones = productService.createProduct(products.get(2));
+        Product savedTablet = productService.createProduct(products.get(3));
+        Product savedSmartwatch = productService.createProduct(products.get(4));
 
         // Initialize inventory
         inventoryService.createOrUpdateInventory(savedLaptop.getId(), 15);
@@ -92,6 +138,16 @@ public class DataInitializer implements CommandLineRunner {
         inventoryService.createOrUpdateInventory(savedTablet.getId(), 20);
         inventoryService.createOrUpdateInventory(savedSmartwatch.getId(), 30);
 
+        purchaseOrderRepository.saveAll(sampleOrders(
+                savedLaptop, savedSmartphone, savedHeadphones, savedTablet, savedSmartwatch));
+    }
+
+    private List<PurchaseOrder> sampleOrders(
+            Product savedLaptop,
+            Product savedSmartphone,
+            Product savedHeadphones,
+            Product savedTablet,
+            Product savedSmartwatch) {
         // Create sample purchase orders
         
         // Order 1: Completed order with multiple items
@@ -104,7 +160,6 @@ public class DataInitializer implements CommandLineRunner {
         
         order1.addItem(order1Item1);
         order1.addItem(order1Item2);
-        purchaseOrderRepository.save(order1);
         
         // Order 2: Processing order
         PurchaseOrder order2 = new PurchaseOrder("Jane Smith", "jane.smith@example.com");
@@ -116,7 +171,6 @@ public class DataInitializer implements CommandLineRunner {
         
         order2.addItem(order2Item1);
         order2.addItem(order2Item2);
-        purchaseOrderRepository.save(order2);
         
         // Order 3: Recently created order
         PurchaseOrder order3 = new PurchaseOrder("Bob Johnson", "bob.johnson@example.com");
@@ -126,7 +180,6 @@ public class DataInitializer implements CommandLineRunner {
         OrderItem order3Item1 = new OrderItem(savedTablet, 2);
         
         order3.addItem(order3Item1);
-        purchaseOrderRepository.save(order3);
         
         // Order 4: Cancelled order
         PurchaseOrder order4 = new PurchaseOrder("Alice Brown", "alice.brown@example.com");
@@ -138,6 +191,7 @@ public class DataInitializer implements CommandLineRunner {
         
         order4.addItem(order4Item1);
         order4.addItem(order4Item2);
-        purchaseOrderRepository.save(order4);
+
+        return List.of(order1, order2, order3, order4);
     }
 }
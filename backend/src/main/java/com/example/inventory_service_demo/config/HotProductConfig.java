@@ -0,0 +1,37 @@
+package com.example.inventory_service_demo.config;
+
+import com.example.inventory_service_demo.repository.HotProductCounters;
+import com.example.inventory_service_demo.repository.InventoryRepository;
+import com.example.inventory_service_demo.repository.InventorySlotRepository;
+import com.example.inventory_service_demo.service.HotProductDetector;
+import com.example.inventory_service_demo.service.InventoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Splits the stock of contended products into {@code inventory_slot} rows so
+ * concurrent orders update different rows. Applies to the default
+ * {@code inventory} table storage only, not to sharded stock.
+ */
+@Configuration
+@EnableConfigurationProperties(HotProductProperties.class)
+@ConditionalOnExpression("${app.hot-products.enabled:false} and !${app.sharding.enabled:false}")
+public class HotProductConfig {
+
+    @Bean
+    public HotProductCounters hotProductCounters(InventoryRepository inventoryRepository,
+                                                 InventorySlotRepository inventorySlotRepository,
+                                                 MeterRegistry meterRegistry) {
+        return new HotProductCounters(inventoryRepository, inventorySlotRepository, meterRegistry);
+    }
+
+    @Bean
+    public HotProductDetector hotProductDetector(HotProductCounters hotProductCounters,
+                                                 InventoryService inventoryService,
+                                                 HotProductProperties properties) {
+        return new HotProductDetector(hotProductCounters, inventoryService, properties);
+    }
+}
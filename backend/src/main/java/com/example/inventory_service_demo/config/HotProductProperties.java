@@ -0,0 +1,24 @@
+package com.example.inventory_service_demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for splitting the stock of heavily written products over several slot rows.
+ *
+ * @param enabled whether hot products are detected and split
+ * @param slots number of slots a product is split into when promoted
+ * @param promoteThreshold stock adjustments per second at which a product is promoted
+ * @param demoteThreshold stock adjustments per second below which a hot product is folded back
+ * @param evaluationInterval how often adjustment rates are evaluated
+ */
+@ConfigurationProperties(prefix = "app.hot-products")
+public record HotProductProperties(
+        boolean enabled,
+        @DefaultValue("8") int slots,
+        @DefaultValue("50") double promoteThreshold,
+        @DefaultValue("5") double demoteThreshold,
+        @DefaultValue("10s") Duration evaluationInterval) {
+}
@@ -0,0 +1,18 @@
+package com.example.inventory_service_demo.config;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers Blackbird with the application's {@code ObjectMapper}, which replaces
+ * reflective getter calls and constructor invocations with generated lambdas.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.inventory_service_demo.config;
+
+import com.example.inventory_service_demo.repository.OrderSummaryRepository;
+import com.example.inventory_service_demo.repository.ProductRepository;
+import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
+import com.example.inventory_service_demo.repository.archive.OrderArchive;
+import com.example.inventory_service_demo.service.OrderArchiver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Moves completed and cancelled orders older than {@code app.order-archive.min-age}
+ * from {@code purchase_orders}/{@code order_items} into segment files under
+ * {@code app.order-archive.directory}.
+ */
+@Configuration
+@EnableConfigurationProperties(OrderArchiveProperties.class)
+@ConditionalOnProperty(name = "app.order-archive.enabled", havingValue = "true")
+public class OrderArchiveConfig {
+
+    @Bean
+    public OrderArchive orderArchive(OrderArchiveProperties properties, ProductRepository productRepository) {
+        return new OrderArchive(properties.directory(), productRepository);
+    }
+
+    @Bean
+    public OrderArchiver orderArchiver(OrderArchive orderArchive,
+                                       PurchaseOrderRepository purchaseOrderRepository,
+                                       OrderSummaryRepository orderSummaryRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       ApplicationEventPublisher eventPublisher,
+                                       OrderArchiveProperties properties,
+                                       MeterRegistry meterRegistry) {
+        return new OrderArchiver(orderArchive, purchaseOrderRepository, orderSummaryRepository,
+                transactionManager, eventPublisher, properties, meterRegistry);
+    }
+}
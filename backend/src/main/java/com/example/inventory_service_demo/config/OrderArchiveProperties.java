@@ -0,0 +1,25 @@
+package com.example.inventory_service_demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for moving closed orders out of the database into segment files.
+ *
+ * @param enabled whether closed orders are archived
+ * @param directory where the date-partitioned segment files are kept
+ * @param minAge how old a completed or cancelled order must be before it is archived
+ * @param interval how often the archiver runs
+ * @param batchSize orders moved per transaction
+ */
+@ConfigurationProperties(prefix = "app.order-archive")
+public record OrderArchiveProperties(
+        boolean enabled,
+        @DefaultValue("data/order-archive") Path directory,
+        @DefaultValue("90d") Duration minAge,
+        @DefaultValue("1h") Duration interval,
+        @DefaultValue("1000") int batchSize) {
+}
@@ -0,0 +1,50 @@
+package com.example.inventory_service_demo.config;
+
+import com.example.inventory_service_demo.repository.OrderOutboxRepository;
+import com.example.inventory_service_demo.service.FileOrderEventSink;
+import com.example.inventory_service_demo.service.OrderEventSink;
+import com.example.inventory_service_demo.service.OrderOutbox;
+import com.example.inventory_service_demo.service.OrderOutboxRelay;
+import com.example.inventory_service_demo.service.QueueOrderEventSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes purchase order events through a transactional outbox: order changes
+ * write their events to {@code order_outbox} in the same transaction and a relay
+ * pushes them to an event sink, so downstream systems no longer poll the order
+ * tables for changes.
+ */
+@Configuration
+@EnableConfigurationProperties(OrderOutboxProperties.class)
+@ConditionalOnProperty(name = "app.order-outbox.enabled", havingValue = "true")
+public class OrderOutboxConfig {
+
+    @Bean
+    public OrderOutbox orderOutbox(OrderOutboxRepository orderOutboxRepository, ObjectMapper objectMapper) {
+        return new OrderOutbox(orderOutboxRepository, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(OrderEventSink.class)
+    public OrderEventSink orderEventSink(OrderOutboxProperties properties, ObjectMapper objectMapper) {
+        return switch (properties.sink()) {
+            case FILE -> new FileOrderEventSink(properties.file(), objectMapper);
+            case QUEUE -> new QueueOrderEventSink(properties.queueCapacity());
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.order-outbox.relay", havingValue = "true", matchIfMissing = true)
+    public OrderOutboxRelay orderOutboxRelay(OrderOutboxRepository orderOutboxRepository,
+                                             OrderEventSink orderEventSink,
+                                             OrderOutboxProperties properties,
+                                             MeterRegistry meterRegistry) {
+        return new OrderOutboxRelay(orderOutboxRepository, orderEventSink, properties, meterRegistry);
+    }
+}
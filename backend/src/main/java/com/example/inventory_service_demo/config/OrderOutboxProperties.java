@@ -0,0 +1,41 @@
+package com.example.inventory_service_demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the purchase order event outbox and its relay.
+ *
+ * @param enabled whether order changes write events to the outbox
+ * @param relay whether this node delivers outbox events; enable it on one node only
+ * @param sink where events are delivered when no {@code OrderEventSink} bean is declared
+ * @param file the file the {@code file} sink appends to
+ * @param queueCapacity events the {@code queue} sink holds for in-process consumers
+ * @param relayInterval how often the relay looks for new events
+ * @param batchSize events delivered per batch
+ * @param retention how long delivered events are kept in the outbox
+ * @param cleanupInterval how often delivered events are deleted
+ */
+@ConfigurationProperties(prefix = "app.order-outbox")
+public record OrderOutboxProperties(
+        boolean enabled,
+        @DefaultValue("true") boolean relay,
+        @DefaultValue("file") Sink sink,
+        @DefaultValue("data/order-events.ndjson") Path file,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("500ms") Duration relayInterval,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("1d") Duration retention,
+        @DefaultValue("1h") Duration cleanupInterval) {
+
+    /**
+     * Built-in event sinks.
+     */
+    public enum Sink {
+        FILE,
+        QUEUE
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.inventory_service_demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for routing read-only transactions to a separate replica datasource.
+ * When {@code url} is not set the replica pool connects to the primary database,
+ * which still keeps read traffic out of the primary connection pool.
+ *
+ * @param enabled whether read-only transactions are routed to the replica
+ * @param url JDBC URL of the replica, defaults to the primary URL
+ * @param username replica user, defaults to the primary user
+ * @param password replica password, defaults to the primary password
+ * @param maximumPoolSize size of the replica connection pool
+ * @param maxLag replication lag above which reads fall back to the primary
+ * @param lagCheckInterval how often the replica lag is measured
+ */
+@ConfigurationProperties(prefix = "app.datasource.read-replica")
+public record ReadReplicaProperties(
+        boolean enabled,
+        String url,
+        String username,
+        String password,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("1s") Duration lagCheckInterval) {
+}
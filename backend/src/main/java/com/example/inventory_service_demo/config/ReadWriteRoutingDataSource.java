@@ -0,0 +1,69 @@
+package com.example.inventory_service_demo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes connections of read-only transactions to the replica pool and everything
+ * else to the primary pool. Reads fall back to the primary while the replica lags
+ * behind by more than the configured maximum.
+ * <p>
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the route is chosen on first statement, after the transaction's read-only
+ * flag has been published.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    private ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.primaryRoutes = routeCounter(meterRegistry, PRIMARY);
+        this.replicaRoutes = routeCounter(meterRegistry, REPLICA);
+        this.fallbackRoutes = routeCounter(meterRegistry, "fallback");
+    }
+
+    /**
+     * Create a routing datasource that is ready to hand out connections.
+     */
+    public static ReadWriteRoutingDataSource create(DataSource primary, DataSource replica,
+                                                    ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(lagMonitor, meterRegistry);
+        dataSource.setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        dataSource.setDefaultTargetDataSource(primary);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            fallbackRoutes.increment();
+            return PRIMARY;
+        }
+        replicaRoutes.increment();
+        return REPLICA;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Connections handed out by the read/write routing datasource")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.inventory_service_demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Measures replication lag with a heartbeat row: each check writes the current
+ * time to the primary and reads it back from the replica. The difference is the
+ * lag; an unreachable replica or missing heartbeat counts as unusable.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private volatile long lagMillis = Long.MAX_VALUE;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * Writes a heartbeat to the primary and compares it with the replica's copy.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.read-replica.lag-check-interval:1s}")
+    public void checkLag() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("update replica_heartbeat set beat_at = ? where id = 1", now) == 0) {
+                primary.update("insert into replica_heartbeat (id, beat_at) values (1, ?)", now);
+            }
+            Long replicaBeat = replica.queryForObject("select beat_at from replica_heartbeat where id = 1", Long.class);
+            lagMillis = replicaBeat == null ? Long.MAX_VALUE : Math.max(0, now - replicaBeat);
+        } catch (DataAccessException e) {
+            if (lagMillis != Long.MAX_VALUE) {
+                log.warn("Replica lag check failed, routing reads to primary: {}", e.getMessage());
+            }
+            lagMillis = Long.MAX_VALUE;
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return lagMillis <= maxLag.toMillis();
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.inventory_service_demo.config;
+
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.repository.ProductRepository;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for products and the SKU lookup, held in Ehcache
+ * through JCache. Regions are sized by {@code app.second-level-cache.*}.
+ * <p>
+ * JCache hands out one cache manager per URI and JVM, so each application context
+ * builds a manager of its own: contexts sharing a JVM, such as test contexts on
+ * different databases or the nodes of a cluster test, must not see each other's
+ * cached rows.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        org.ehcache.config.Configuration regions = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(Product.CACHE_REGION, region(properties.productEntries()))
+                .withCache(ProductRepository.SKU_QUERY_REGION, region(properties.skuQueryEntries()))
+                .withCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                        region(properties.queryEntries()))
+                .withCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                        region(properties.timestampEntries()))
+                .build();
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:hibernate-l2:" + UUID.randomUUID()), regions);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CacheConfigurationBuilder<Object, Object> region(long entries) {
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(entries));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.inventory_service_demo.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/secondlevelcache}: hits, misses and hit ratio of every Hibernate
+ * second-level cache region and of the query cache, from Hibernate statistics
+ * ({@code hibernate.generate_statistics}). The raw counters are also published as
+ * {@code hibernate.second.level.cache.requests} and {@code hibernate.cache.query.requests}
+ * metrics.
+ */
+@Component
+@Endpoint(id = "secondlevelcache")
+public class SecondLevelCacheEndpoint {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public CacheReport report() {
+        Map<String, RegionReport> regions = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            regions.put(region, new RegionReport(regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                    regionStatistics.getPutCount(), regionStatistics.getElementCountInMemory()));
+        }
+        RegionReport queries = new RegionReport(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(), -1);
+        return new CacheReport(statistics.isStatisticsEnabled(), regions, queries,
+                statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * @param statisticsEnabled whether Hibernate collects statistics; all counters are zero otherwise
+     * @param regions the entity regions by name
+     * @param queryCache all cached queries together
+     * @param statements JDBC statements prepared since startup
+     */
+    public record CacheReport(boolean statisticsEnabled, Map<String, RegionReport> regions,
+                              RegionReport queryCache, long statements) {
+    }
+
+    /**
+     * @param hits lookups answered by the cache
+     * @param misses lookups that went to the database
+     * @param puts entries added
+     * @param entries entries held in memory, or -1 if unknown
+     */
+    public record RegionReport(long hits, long misses, long puts, long entries) {
+
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+}
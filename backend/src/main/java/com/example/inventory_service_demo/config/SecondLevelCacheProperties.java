@@ -0,0 +1,20 @@
+package com.example.inventory_service_demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Sizes of the Hibernate second-level cache regions, in entries held on the heap.
+ *
+ * @param productEntries products ({@code Product.CACHE_REGION})
+ * @param skuQueryEntries product ids per SKU ({@code ProductRepository.SKU_QUERY_REGION})
+ * @param queryEntries results of other cacheable queries
+ * @param timestampEntries last write per table, used to tell stale query results
+ */
+@ConfigurationProperties(prefix = "app.second-level-cache")
+public record SecondLevelCacheProperties(
+        @DefaultValue("10000") long productEntries,
+        @DefaultValue("10000") long skuQueryEntries,
+        @DefaultValue("1000") long queryEntries,
+        @DefaultValue("1000") long timestampEntries) {
+}
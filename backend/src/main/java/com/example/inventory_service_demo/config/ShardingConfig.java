@@ -0,0 +1,64 @@
+package com.example.inventory_service_demo.config;
+
+import com.example.inventory_service_demo.repository.ProductRepository;
+import com.example.inventory_service_demo.repository.shard.InventoryShards;
+import com.example.inventory_service_demo.repository.shard.ShardRebalancer;
+import com.example.inventory_service_demo.repository.shard.ShardedInventoryStore;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spreads inventory stock over the databases listed in {@code app.sharding.shards}
+ * by product id hash. Each shard gets its own Hikari pool
+ * ({@code inventory-shard-N}) and the {@code inventory_stock} table on startup.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public InventoryShards inventoryShards(ShardingProperties properties, MeterRegistry meterRegistry) {
+        if (properties.shards() == null || properties.shards().isEmpty()) {
+            throw new IllegalStateException("app.sharding.enabled is set but no app.sharding.shards are configured");
+        }
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(
+                new ClassPathResource("db/inventory-shard-schema.sql"));
+
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < properties.shards().size(); i++) {
+            ShardingProperties.Shard shard = properties.shards().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("inventory-shard-" + i);
+            dataSource.setJdbcUrl(shard.url());
+            dataSource.setUsername(shard.username());
+            dataSource.setPassword(shard.password());
+            dataSource.setMaximumPoolSize(shard.maximumPoolSize());
+            dataSource.setMetricRegistry(meterRegistry);
+            schema.execute(dataSource);
+            dataSources.add(dataSource);
+        }
+        return new InventoryShards(dataSources);
+    }
+
+    @Bean
+    public ShardedInventoryStore shardedInventoryStore(InventoryShards inventoryShards,
+                                                       ProductRepository productRepository,
+                                                       MeterRegistry meterRegistry) {
+        return new ShardedInventoryStore(inventoryShards, productRepository, meterRegistry);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(InventoryShards inventoryShards) {
+        return new ShardRebalancer(inventoryShards);
+    }
+}
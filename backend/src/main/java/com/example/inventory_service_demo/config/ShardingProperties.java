@@ -0,0 +1,25 @@
+package com.example.inventory_service_demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Settings for spreading inventory stock over several databases by product id.
+ *
+ * @param enabled whether stock is sharded; otherwise it stays in the {@code inventory} table
+ * @param shards the shard databases, in a fixed order (a product's shard depends on the count)
+ */
+@ConfigurationProperties(prefix = "app.sharding")
+public record ShardingProperties(boolean enabled, List<Shard> shards) {
+
+    /**
+     * @param url JDBC URL of the shard
+     * @param username shard user
+     * @param password shard password
+     * @param maximumPoolSize size of the shard connection pool
+     */
+    public record Shard(String url, String username, String password, @DefaultValue("10") int maximumPoolSize) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.inventory_service_demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+
+/**
+ * Times the statements of the primary {@code dataSource} bean with a
+ * {@link SlowQueryDetector}, so expensive queries can be found without
+ * {@code spring.jpa.show-sql}. The inventory shard pools are not wrapped.
+ */
+@Configuration
+@EnableConfigurationProperties(SlowQueryProperties.class)
+@ConditionalOnProperty(name = "app.slow-query.enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+    private static final String DATA_SOURCE = "dataSource";
+
+    @Bean
+    public SlowQueryDetector slowQueryDetector(SlowQueryProperties properties, MeterRegistry meterRegistry) {
+        return new SlowQueryDetector(properties, meterRegistry);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryDetector slowQueryDetector, SlowQueryProperties properties) {
+        return new SlowQueryEndpoint(slowQueryDetector, properties.topQueries());
+    }
+
+    /**
+     * Wraps the primary datasource in a datasource-proxy that reports to the detector.
+     */
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourceProxy(ObjectProvider<SlowQueryDetector> slowQueryDetector,
+                                                             ObjectProvider<SlowQueryProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATA_SOURCE.equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                SlowQueryDetector detector = slowQueryDetector.getObject();
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                        .name(DATA_SOURCE)
+                        .listener(detector);
+                if (properties.getObject().countRows()) {
+                    builder.proxyResultSet(detector);
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    /**
+     * Lets the detector attribute statements to the repository method that ran them.
+     */
+    @Bean
+    public static BeanPostProcessor slowQueryRepositoryCaller() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(
+                                    SlowQueryDetector.repositoryCaller(repository.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,406 @@
+package com.example.inventory_service_demo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogic;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Times every statement of the primary datasource (through datasource-proxy) and
+ * attributes it to a caller: the repository method that ran it, or else the
+ * first application frame on the stack, such as the service method whose
+ * transaction flushed it.
+ * <p>
+ * Per caller and statement type it publishes a {@code db.statement} timer with
+ * a percentile histogram and a {@code db.statement.rows} summary of rows read or
+ * updated. Per caller and query shape (the SQL with literals and {@code in}
+ * lists collapsed) it keeps count, total, maximum and rows for
+ * {@code /actuator/slowqueries}. Statements slower than
+ * {@code app.slow-query.threshold} are logged with their bind parameters and
+ * call site; nothing else is logged.
+ */
+public class SlowQueryDetector implements QueryExecutionListener, ResultSetProxyLogicFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryDetector.class);
+
+    private static final String APPLICATION_PACKAGE = "com.example.inventory_service_demo.";
+    private static final String OTHER = "other";
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final ThreadLocal<String> repositoryMethod = new ThreadLocal<>();
+    private static final ThreadLocal<RowCounter> openedResultSet = new ThreadLocal<>();
+    // Timed here: datasource-proxy's elapsed time is in whole milliseconds, most statements take less
+    private static final ThreadLocal<long[]> statementStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final MeterRegistry meterRegistry;
+    private final long thresholdNanos;
+    private final int maxShapes;
+    private final Map<String, String> shapes = new ConcurrentHashMap<>();
+    private final Map<ShapeKey, ShapeStats> stats = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Meters> meters = new ConcurrentHashMap<>();
+    private final StackWalker stackWalker = StackWalker.getInstance();
+
+    public SlowQueryDetector(SlowQueryProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.thresholdNanos = properties.threshold().toNanos();
+        this.maxShapes = properties.maxShapes();
+    }
+
+    /**
+     * Advice for a repository proxy that names the repository method as the caller
+     * of the statements it runs.
+     *
+     * @param repositoryInterface The repository interface
+     */
+    public static MethodInterceptor repositoryCaller(Class<?> repositoryInterface) {
+        String prefix = repositoryInterface.getSimpleName() + ".";
+        Map<Method, String> names = new ConcurrentHashMap<>();
+        return invocation -> {
+            String previous = repositoryMethod.get();
+            repositoryMethod.set(names.computeIfAbsent(invocation.getMethod(), method -> prefix + method.getName()));
+            try {
+                return invocation.proceed();
+            } finally {
+                repositoryMethod.set(previous);
+            }
+        };
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        openedResultSet.remove();
+        statementStart.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedNanos = System.nanoTime() - statementStart.get()[0];
+        String sql = queryInfoList.size() == 1 ? queryInfoList.get(0).getQuery() : batchSql(queryInfoList);
+        String caller = caller();
+        String shape = shape(sql);
+        StatementType type = StatementType.of(shape);
+
+        ShapeStats shapeStats = stats(caller, shape, type);
+        Meters callerMeters = meters.computeIfAbsent(new MeterKey(shapeStats.caller, type), this::meters);
+        shapeStats.record(elapsedNanos);
+        callerMeters.timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        RowCounter rowCounter = openedResultSet.get();
+        if (rowCounter != null) {
+            openedResultSet.remove();
+            rowCounter.attach(shapeStats, callerMeters.rows);
+        } else if (execInfo.getResult() instanceof Integer updated) {
+            shapeStats.recordRows(updated);
+            callerMeters.rows.record(updated);
+        } else if (execInfo.getResult() instanceof int[] updated) {
+            long total = 0;
+            for (int count : updated) {
+                total += Math.max(count, 0);
+            }
+            shapeStats.recordRows(total);
+            callerMeters.rows.record(total);
+        }
+
+        if (elapsedNanos >= thresholdNanos) {
+            log.warn("Slow query: {} ms, caller {}, call site {}: {} {}", elapsedNanos / 1_000_000, caller,
+                    callSite().orElse("unknown"), sql, parameters(queryInfoList));
+        }
+    }
+
+    // Called when a statement returns a result set, before afterQuery of the same statement
+    @Override
+    public ResultSetProxyLogic create(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+        RowCounter counter = new RowCounter(resultSet, connectionInfo, proxyConfig);
+        openedResultSet.set(counter);
+        return counter;
+    }
+
+    /**
+     * Get the query shapes with the highest mean, maximum or total time.
+     *
+     * @param order How to rank the shapes
+     * @param limit The number of shapes to return
+     */
+    public List<QueryShape> top(Order order, int limit) {
+        Comparator<QueryShape> ranking = switch (order) {
+            case MEAN -> Comparator.comparingDouble(QueryShape::meanMillis);
+            case MAX -> Comparator.comparingDouble(QueryShape::maxMillis);
+            case TOTAL -> Comparator.comparingDouble(QueryShape::totalMillis);
+        };
+        List<QueryShape> shapes = new ArrayList<>(stats.size());
+        stats.forEach((key, value) -> shapes.add(value.snapshot(key.shape())));
+        shapes.sort(ranking.reversed());
+        return shapes.subList(0, Math.min(limit, shapes.size()));
+    }
+
+    /**
+     * Forget the collected query shapes. Meters are not affected.
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    private ShapeStats stats(String caller, String shape, StatementType type) {
+        ShapeStats existing = stats.get(new ShapeKey(caller, shape));
+        if (existing != null) {
+            return existing;
+        }
+        if (stats.size() >= maxShapes) {
+            return stats.computeIfAbsent(new ShapeKey(OTHER, OTHER), key -> new ShapeStats(OTHER, type));
+        }
+        return stats.computeIfAbsent(new ShapeKey(caller, shape), key -> new ShapeStats(caller, type));
+    }
+
+    private Meters meters(MeterKey key) {
+        Timer timer = Timer.builder("db.statement")
+                .description("SQL statement execution time")
+                .tag("caller", key.caller())
+                .tag("type", key.type().tag)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+        DistributionSummary rows = DistributionSummary.builder("db.statement.rows")
+                .description("Rows read or updated per SQL statement")
+                .tag("caller", key.caller())
+                .tag("type", key.type().tag)
+                .register(meterRegistry);
+        return new Meters(timer, rows);
+    }
+
+    private String caller() {
+        String method = repositoryMethod.get();
+        return method != null ? method : callSite().map(SlowQueryDetector::stripLine).orElse(OTHER);
+    }
+
+    // First application frame outside this class, e.g. "PurchaseOrderService.createOrder(PurchaseOrderService.java:120)"
+    private Optional<String> callSite() {
+        return stackWalker.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().equals(SlowQueryDetector.class.getName())
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName()
+                        + "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")"));
+    }
+
+    private String shape(String sql) {
+        String shape = shapes.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        shape = WHITESPACE.matcher(PARAMETER_LIST.matcher(NUMBER_LITERAL.matcher(
+                STRING_LITERAL.matcher(sql).replaceAll("?")).replaceAll("?")).replaceAll("(?...)"))
+                .replaceAll(" ").trim();
+        if (shapes.size() < maxShapes * 4) {
+            shapes.put(sql, shape);
+        }
+        return shape;
+    }
+
+    private static String batchSql(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream().map(QueryInfo::getQuery).distinct()
+                .reduce((first, second) -> first + "; " + second).orElse("");
+    }
+
+    private static String parameters(List<QueryInfo> queryInfoList) {
+        List<List<String>> statements = new ArrayList<>();
+        for (QueryInfo queryInfo : queryInfoList) {
+            for (List<ParameterSetOperation> operations : queryInfo.getParametersList()) {
+                // In the order they were set, which is the parameter order for Hibernate and JdbcTemplate
+                List<String> values = new ArrayList<>(operations.size());
+                for (ParameterSetOperation operation : operations) {
+                    Object[] args = operation.getArgs();
+                    values.add(args != null && args.length > 1 ? abbreviate(args[1]) : "null");
+                }
+                statements.add(values);
+            }
+        }
+        return statements.size() == 1 ? statements.get(0).toString() : statements.toString();
+    }
+
+    private static String abbreviate(Object value) {
+        String text = String.valueOf(value);
+        return text.length() <= MAX_PARAMETER_LENGTH ? text : text.substring(0, MAX_PARAMETER_LENGTH) + "...";
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static String stripLine(String callSite) {
+        return callSite.substring(0, callSite.indexOf('('));
+    }
+
+    /**
+     * How {@link #top(Order, int)} ranks query shapes.
+     */
+    public enum Order {
+        MEAN,
+        MAX,
+        TOTAL
+    }
+
+    /**
+     * Timings of one query shape run by one caller.
+     *
+     * @param caller the repository method or application frame
+     * @param type the statement type
+     * @param sql the query shape
+     * @param count executions
+     * @param meanMillis mean execution time
+     * @param maxMillis longest execution time
+     * @param totalMillis total execution time
+     * @param meanRows mean rows read or updated, of the executions whose rows were counted
+     */
+    public record QueryShape(String caller, String type, String sql, long count, double meanMillis,
+                             double maxMillis, double totalMillis, double meanRows) {
+    }
+
+    enum StatementType {
+        SELECT("select"),
+        INSERT("insert"),
+        UPDATE("update"),
+        DELETE("delete"),
+        MERGE("merge"),
+        OTHER("other");
+
+        private final String tag;
+
+        StatementType(String tag) {
+            this.tag = tag;
+        }
+
+        static StatementType of(String sql) {
+            String start = sql.length() > 10 ? sql.substring(0, 10) : sql;
+            start = start.stripLeading().toLowerCase(Locale.ROOT);
+            for (StatementType type : values()) {
+                if (start.startsWith(type.tag)) {
+                    return type;
+                }
+            }
+            return start.startsWith("with") ? SELECT : OTHER;
+        }
+    }
+
+    private record ShapeKey(String caller, String shape) {
+    }
+
+    private record MeterKey(String caller, StatementType type) {
+    }
+
+    private record Meters(Timer timer, DistributionSummary rows) {
+    }
+
+    private static final class ShapeStats {
+
+        private final String caller;
+        private final StatementType type;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder rowCounts = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+
+        ShapeStats(String caller, StatementType type) {
+            this.caller = caller;
+            this.type = type;
+        }
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        void recordRows(long rowCount) {
+            rowCounts.increment();
+            rows.add(rowCount);
+        }
+
+        QueryShape snapshot(String sql) {
+            long executions = count.sum();
+            double totalMillis = totalNanos.sum() / 1e6;
+            long counted = rowCounts.sum();
+            return new QueryShape(caller, type.tag, sql, executions,
+                    executions == 0 ? 0 : totalMillis / executions, maxNanos.get() / 1e6, totalMillis,
+                    counted == 0 ? 0 : (double) rows.sum() / counted);
+        }
+    }
+
+    /**
+     * Counts the rows a caller reads from a result set and records them once the
+     * result set is exhausted or closed.
+     */
+    private static final class RowCounter extends SimpleResultSetProxyLogic {
+
+        private long rows;
+        private boolean recorded;
+        private ShapeStats shapeStats;
+        private DistributionSummary summary;
+
+        RowCounter(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+            super(resultSet, connectionInfo, proxyConfig);
+        }
+
+        void attach(ShapeStats shapeStats, DistributionSummary summary) {
+            this.shapeStats = shapeStats;
+            this.summary = summary;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = super.invoke(proxy, method, args);
+            String name = method.getName();
+            if (name.equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                } else {
+                    record();
+                }
+            } else if (name.equals("close")) {
+                record();
+            }
+            return result;
+        }
+
+        private void record() {
+            if (recorded || shapeStats == null) {
+                return;
+            }
+            recorded = true;
+            shapeStats.recordRows(rows);
+            summary.record(rows);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.inventory_service_demo.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/slowqueries}: the query shapes with the highest mean time, or
+ * with {@code ?orderBy=max} or {@code total} the highest maximum or total time,
+ * each with the repository method or application frame that ran it. A
+ * {@code DELETE} forgets the shapes collected so far.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryDetector slowQueryDetector;
+    private final int topQueries;
+
+    public SlowQueryEndpoint(SlowQueryDetector slowQueryDetector, int topQueries) {
+        this.slowQueryDetector = slowQueryDetector;
+        this.topQueries = topQueries;
+    }
+
+    @ReadOperation
+    public List<SlowQueryDetector.QueryShape> topQueries(@Nullable SlowQueryDetector.Order orderBy,
+                                                         @Nullable Integer limit) {
+        return slowQueryDetector.top(orderBy != null ? orderBy : SlowQueryDetector.Order.MEAN,
+                limit != null ? limit : topQueries);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueryDetector.reset();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.inventory_service_demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the SQL statement timing layer.
+ *
+ * @param enabled whether statements of the primary datasource are timed
+ * @param threshold statements taking at least this long are logged with their parameters and call site
+ * @param countRows whether rows read from result sets are counted, which proxies every result set call
+ * @param topQueries query shapes listed by {@code /actuator/slowqueries}
+ * @param maxShapes distinct caller and query shape pairs tracked; further ones are counted as {@code other}
+ */
+@ConfigurationProperties(prefix = "app.slow-query")
+public record SlowQueryProperties(
+        boolean enabled,
+        @DefaultValue("100ms") Duration threshold,
+        @DefaultValue("true") boolean countRows,
+        @DefaultValue("20") int topQueries,
+        @DefaultValue("1000") int maxShapes) {
+}
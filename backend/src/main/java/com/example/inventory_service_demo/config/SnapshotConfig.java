@@ -0,0 +1,64 @@
+package com.example.inventory_service_demo.config;
+
+import com.example.inventory_service_demo.repository.snapshot.SnapshotStore;
+import com.example.inventory_service_demo.service.SnapshotService;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Snapshots products, inventory and orders to {@code app.snapshot.directory}
+ * every {@code app.snapshot.interval} and on shutdown, and restores the newest
+ * valid snapshot into an empty database on startup.
+ * <p>
+ * Snapshots copy the tables of the primary database only, so they cannot be
+ * combined with {@code app.sharding.enabled}, which keeps stock in the shards.
+ */
+@Configuration
+@EnableConfigurationProperties(SnapshotProperties.class)
+@ConditionalOnProperty(name = "app.snapshot.enabled", havingValue = "true")
+public class SnapshotConfig {
+
+    public SnapshotConfig(@Value("${app.sharding.enabled:false}") boolean sharding) {
+        if (sharding) {
+            throw new IllegalStateException("app.snapshot.enabled cannot be combined with app.sharding.enabled: "
+                    + "snapshots would hold no stock, which lives in the inventory shards");
+        }
+    }
+
+    @Bean
+    public SnapshotStore snapshotStore(SnapshotProperties properties) {
+        return new SnapshotStore(properties.directory(), properties.retain());
+    }
+
+    @Bean
+    public SnapshotService snapshotService(SnapshotStore snapshotStore,
+                                           JdbcTemplate jdbcTemplate,
+                                           PlatformTransactionManager transactionManager,
+                                           DataSource dataSource,
+                                           SnapshotProperties properties) {
+        // Restored blocks bypass the slow query detector, which would record every row of every batch
+        DataSource loadDataSource = dataSource instanceof ProxyDataSource proxy ? proxy.getDataSource() : dataSource;
+        return new SnapshotService(snapshotStore, jdbcTemplate, transactionManager, loadDataSource, properties);
+    }
+
+    /**
+     * Restores before {@link DataInitializer} looks for existing products, and before
+     * the application reports readiness and the ready listeners build their indexes.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CommandLineRunner snapshotRestore(SnapshotService snapshotService) {
+        return args -> snapshotService.restoreLatest();
+    }
+}
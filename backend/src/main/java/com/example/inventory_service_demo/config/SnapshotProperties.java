@@ -0,0 +1,29 @@
+package com.example.inventory_service_demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for binary snapshots of products, inventory and orders.
+ *
+ * @param enabled whether snapshots are taken and restored
+ * @param directory where snapshot files are kept
+ * @param interval how often a snapshot is taken
+ * @param onShutdown whether a snapshot is taken when the application stops
+ * @param retain how many snapshots are kept
+ * @param blockRows rows per compressed block; blocks are the unit of parallel restore
+ * @param restoreThreads threads loading blocks on startup
+ */
+@ConfigurationProperties(prefix = "app.snapshot")
+public record SnapshotProperties(
+        boolean enabled,
+        @DefaultValue("data/snapshots") Path directory,
+        @DefaultValue("15m") Duration interval,
+        @DefaultValue("true") boolean onShutdown,
+        @DefaultValue("3") int retain,
+        @DefaultValue("10000") int blockRows,
+        @DefaultValue("4") int restoreThreads) {
+}
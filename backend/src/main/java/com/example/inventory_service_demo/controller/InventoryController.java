@@ -1,8 +1,16 @@
 package com.example.inventory_service_demo.controller;
 
+import com.example.inventory_service_demo.dto.FieldSelection;
+import com.example.inventory_service_demo.dto.InventoryView;
+import com.example.inventory_service_demo.dto.ReorderSuggestion;
 import com.example.inventory_service_demo.model.Inventory;
+import com.example.inventory_service_demo.service.ConsumptionForecast;
 import com.example.inventory_service_demo.service.InventoryService;
+import com.example.inventory_service_demo.service.ProjectionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,28 +21,72 @@ import java.util.Map;
 @RequestMapping("/api/inventory")
 public class InventoryController {
 
+    private static final int MAX_AVAILABILITY_IDS = 1000;
+
     private final InventoryService inventoryService;
+    private final ProjectionService projectionService;
+    private final ConsumptionForecast consumptionForecast;
 
     @Autowired
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(InventoryService inventoryService, ProjectionService projectionService,
+                               ConsumptionForecast consumptionForecast) {
         this.inventoryService = inventoryService;
+        this.projectionService = projectionService;
+        this.consumptionForecast = consumptionForecast;
     }
 
+    /**
+     * List stock levels. With {@code fields} or {@code embed} (e.g.
+     * {@code embed=product&fields=quantity,product.sku}) rows are keyed by
+     * {@code productId} and only the requested columns are read, see {@link FieldSelection}.
+     */
     @GetMapping
-    public ResponseEntity<List<Inventory>> getAllInventory() {
+    public ResponseEntity<?> getAllInventory(@RequestParam(required = false) String fields,
+                                             @RequestParam(required = false) String embed) {
+        FieldSelection selection = FieldSelection.parse(fields, embed);
+        if (selection != null) {
+            try {
+                return ResponseEntity.ok(projectionService.getInventory(selection));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
         List<Inventory> inventoryList = inventoryService.getAllInventory();
-        return ResponseEntity.ok(inventoryList);
+        return ResponseEntity.ok(inventoryList.stream().map(InventoryView::of).toList());
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<Map<Long, Integer>> getAvailability(@RequestParam long[] ids) {
+        if (ids.length > MAX_AVAILABILITY_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(inventoryService.getAvailability(ids));
+    }
+
+    /**
+     * Days of cover and reorder quantities from the consumption estimates, see
+     * {@link ConsumptionForecast}. Lowest days of cover first unless {@code sort} is given.
+     */
+    @GetMapping("/reorder-suggestions")
+    public ResponseEntity<PagedModel<ReorderSuggestion>> getReorderSuggestions(
+            @PageableDefault(size = 50) Pageable pageable) {
+        try {
+            return ResponseEntity.ok(new PagedModel<>(consumptionForecast.getSuggestions(pageable)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{productId}")
-    public ResponseEntity<Inventory> getInventoryByProductId(@PathVariable Long productId) {
+    public ResponseEntity<InventoryView> getInventoryByProductId(@PathVariable Long productId) {
         return inventoryService.getInventoryByProductId(productId)
+                .map(InventoryView::of)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{productId}")
-    public ResponseEntity<Inventory> updateInventory(
+    public ResponseEntity<InventoryView> updateInventory(
             @PathVariable Long productId,
             @RequestBody Map<String, Integer> request) {
         
@@ -45,14 +97,14 @@ public class InventoryController {
         
         try {
             Inventory updatedInventory = inventoryService.createOrUpdateInventory(productId, quantity);
-            return ResponseEntity.ok(updatedInventory);
+            return ResponseEntity.ok(InventoryView.of(updatedInventory));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @PatchMapping("/{productId}/adjust")
-    public ResponseEntity<Inventory> adjustInventory(
+    public ResponseEntity<InventoryView> adjustInventory(
             @PathVariable Long productId,
             @RequestBody Map<String, Integer> request) {
         
@@ -63,7 +115,38 @@ public class InventoryController {
         
         try {
             Inventory updatedInventory = inventoryService.adjustInventory(productId, quantityChange);
-            return ResponseEntity.ok(updatedInventory);
+            return ResponseEntity.ok(InventoryView.of(updatedInventory));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/hot")
+    public ResponseEntity<Map<Long, Integer>> getHotProducts() {
+        try {
+            return ResponseEntity.ok(inventoryService.getHotProducts());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/{productId}/hot")
+    public ResponseEntity<Void> promoteHotProduct(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "8") int slots) {
+        try {
+            inventoryService.promoteHotProduct(productId, slots);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{productId}/hot")
+    public ResponseEntity<Void> demoteHotProduct(@PathVariable Long productId) {
+        try {
+            inventoryService.demoteHotProduct(productId);
+            return ResponseEntity.noContent().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
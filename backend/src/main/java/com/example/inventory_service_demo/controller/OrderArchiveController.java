@@ -0,0 +1,54 @@
+package com.example.inventory_service_demo.controller;
+
+import com.example.inventory_service_demo.repository.archive.OrderArchive;
+import com.example.inventory_service_demo.service.OrderArchiver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin endpoints for the order archive, available when {@code app.order-archive.enabled=true}.
+ */
+@RestController
+@RequestMapping("/api/admin/order-archive")
+@ConditionalOnProperty(name = "app.order-archive.enabled", havingValue = "true")
+public class OrderArchiveController {
+
+    private final OrderArchive orderArchive;
+    private final OrderArchiver orderArchiver;
+
+    @Autowired
+    public OrderArchiveController(OrderArchive orderArchive, OrderArchiver orderArchiver) {
+        this.orderArchive = orderArchive;
+        this.orderArchiver = orderArchiver;
+    }
+
+    /**
+     * Segment files in the archive, oldest day first.
+     */
+    @GetMapping("/segments")
+    public ResponseEntity<List<Map<String, Object>>> getSegments() {
+        return ResponseEntity.ok(orderArchive.getSegments().stream()
+                .map(segment -> Map.<String, Object>of(
+                        "day", segment.day(),
+                        "minId", segment.minId(),
+                        "maxId", segment.maxId(),
+                        "file", segment.path().getFileName().toString()))
+                .toList());
+    }
+
+    /**
+     * Archive closed orders placed before the given date now, instead of waiting for the schedule.
+     */
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Integer>> archive(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before) {
+        return ResponseEntity.ok(Map.of("archived", orderArchiver.archive(before)));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.inventory_service_demo.controller;
+
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.OrderSummary;
+import com.example.inventory_service_demo.service.OrderSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * REST controller for the order summary read model used by order list screens.
+ */
+@RestController
+@RequestMapping("/api/orders/summaries")
+public class OrderSummaryController {
+
+    private final OrderSummaryService orderSummaryService;
+
+    @Autowired
+    public OrderSummaryController(OrderSummaryService orderSummaryService) {
+        this.orderSummaryService = orderSummaryService;
+    }
+
+    /**
+     * List order summaries, optionally filtered.
+     *
+     * @param status Optional order status
+     * @param email Optional customer email
+     * @param startDate Optional earliest order date
+     * @param endDate Optional latest order date
+     * @param pageable Paging and sorting, newest orders first by default
+     * @return Page of order summaries
+     */
+    @GetMapping
+    public ResponseEntity<PagedModel<OrderSummary>> getSummaries(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @PageableDefault(size = 50, sort = "orderDate", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(
+                orderSummaryService.findSummaries(status, email, startDate, endDate, pageable)));
+    }
+
+    /**
+     * Regenerate all order summaries from the order tables.
+     *
+     * @return Number of summaries written
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuild() {
+        return ResponseEntity.ok(Map.of("rebuilt", orderSummaryService.rebuild()));
+    }
+}
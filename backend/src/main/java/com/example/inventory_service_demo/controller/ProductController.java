@@ -1,13 +1,21 @@
 package com.example.inventory_service_demo.controller;
 
+import com.example.inventory_service_demo.dto.FieldSelection;
+import com.example.inventory_service_demo.dto.ProductView;
 import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.service.ProductImportJob;
+import com.example.inventory_service_demo.service.ProductImportService;
 import com.example.inventory_service_demo.service.ProductService;
+import com.example.inventory_service_demo.service.ProductViewCache;
+import com.example.inventory_service_demo.service.ProjectionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.io.File;
 import java.io.IOException;
@@ -17,50 +25,100 @@ import java.nio.file.Files;
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductViewCache productViewCache;
+    private final ProjectionService projectionService;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductImportService productImportService,
+                             ProductViewCache productViewCache, ProjectionService projectionService) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productViewCache = productViewCache;
+        this.projectionService = projectionService;
     }
 
-    @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    // The product reads below return ProductView JSON cached by ProductViewCache
+
+    /**
+     * List products. With {@code fields} (e.g. {@code fields=sku,price}) only those
+     * columns are read and returned, see {@link FieldSelection}.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) String fields,
+                                            @RequestParam(required = false) String embed) {
+        FieldSelection selection = FieldSelection.parse(fields, embed);
+        if (selection == null) {
+            return json(productViewCache.findAll());
+        }
+        try {
+            return ResponseEntity.ok(projectionService.getProducts(selection));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        return productService.getProductById(id)
-                .map(ResponseEntity::ok)
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long id) {
+        return productViewCache.findById(id)
+                .map(ProductController::json)
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @GetMapping("/sku/{sku}")
-    public ResponseEntity<Product> getProductBySku(@PathVariable String sku) {
-        return productService.getProductBySku(sku)
-                .map(ResponseEntity::ok)
+    @GetMapping(value = "/sku/{sku}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getProductBySku(@PathVariable String sku) {
+        return productViewCache.findBySku(sku)
+                .map(ProductController::json)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public ResponseEntity<Product> createProduct(@Valid @RequestBody Product product) {
+    public ResponseEntity<ProductView> createProduct(@Valid @RequestBody Product product) {
         try {
             Product createdProduct = productService.createProduct(product);
-            return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
+            return new ResponseEntity<>(ProductView.of(createdProduct), HttpStatus.CREATED);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Import products from a CSV (header: sku,name,description,price,quantity) or
+     * NDJSON body. Returns once the whole body is processed; progress of running
+     * imports is available from {@code GET /api/products/imports}.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", NDJSON})
+    public ResponseEntity<ProductImportJob> importProducts(
+            @RequestHeader("Content-Type") MediaType contentType,
+            InputStream body) {
+        ProductImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? ProductImportService.Format.NDJSON
+                : ProductImportService.Format.CSV;
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
+    @GetMapping("/imports")
+    public ResponseEntity<List<ProductImportJob>> getImports() {
+        return ResponseEntity.ok(productImportService.getJobs());
+    }
+
+    @GetMapping("/imports/{id}")
+    public ResponseEntity<ProductImportJob> getImport(@PathVariable String id) {
+        return productImportService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<Product> updateProduct(
+    public ResponseEntity<ProductView> updateProduct(
             @PathVariable Long id,
             @Valid @RequestBody Product product) {
         try {
             Product updatedProduct = productService.updateProduct(id, product);
-            return ResponseEntity.ok(updatedProduct);
+            return ResponseEntity.ok(ProductView.of(updatedProduct));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
@@ -78,9 +136,9 @@ public class ProductController {
     
     // INTENTIONAL VULNERABILITY: SQL Injection endpoint
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String query) {
+    public ResponseEntity<List<ProductView>> searchProducts(@RequestParam String query) {
         List<Product> products = productService.searchProducts(query);
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok(products.stream().map(ProductView::of).toList());
     }
     
     // INTENTIONAL VULNERABILITY #3: Path Traversal - Unsafe file access
@@ -101,4 +159,8 @@ public class ProductController {
                           "\nStack trace: " + e.getStackTrace()[0].toString());
         }
     }
+
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
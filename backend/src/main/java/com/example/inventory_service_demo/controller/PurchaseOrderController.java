@@ -1,19 +1,33 @@
 package com.example.inventory_service_demo.controller;
 
 import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.CustomerOrderSummary;
+import com.example.inventory_service_demo.dto.FieldSelection;
+import com.example.inventory_service_demo.dto.OrderView;
+import com.example.inventory_service_demo.dto.OrderWaveResult;
 import com.example.inventory_service_demo.model.OrderStatus;
 import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.service.CustomerOrderHistory;
+import com.example.inventory_service_demo.service.OrderIngestService;
+import com.example.inventory_service_demo.service.OrderWaveService;
+import com.example.inventory_service_demo.service.ProjectionService;
 import com.example.inventory_service_demo.service.PurchaseOrderService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for purchase order operations.
@@ -22,21 +36,49 @@ import java.util.List;
 @RequestMapping("/api/orders")
 public class PurchaseOrderController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String NDJSON = "application/x-ndjson";
+
     private final PurchaseOrderService purchaseOrderService;
+    private final CustomerOrderHistory customerOrderHistory;
+    private final OrderIngestService orderIngestService;
+    private final ProjectionService projectionService;
+    private final OrderWaveService orderWaveService;
 
     @Autowired
-    public PurchaseOrderController(PurchaseOrderService purchaseOrderService) {
+    public PurchaseOrderController(PurchaseOrderService purchaseOrderService,
+                                   CustomerOrderHistory customerOrderHistory,
+                                   OrderIngestService orderIngestService,
+                                   ProjectionService projectionService,
+                                   OrderWaveService orderWaveService) {
         this.purchaseOrderService = purchaseOrderService;
+        this.customerOrderHistory = customerOrderHistory;
+        this.orderIngestService = orderIngestService;
+        this.projectionService = projectionService;
+        this.orderWaveService = orderWaveService;
     }
 
     /**
-     * Get all purchase orders.
+     * Get all purchase orders. With {@code fields} or {@code embed} (e.g.
+     * {@code fields=status,totalAmount} or {@code embed=items,product}) only the
+     * requested columns and relations are read, see {@link FieldSelection}.
      *
+     * @param fields Optional comma-separated fields
+     * @param embed Optional comma-separated relations to include
      * @return List of all purchase orders
      */
     @GetMapping
-    public ResponseEntity<List<PurchaseOrder>> getAllOrders() {
-        return ResponseEntity.ok(purchaseOrderService.getAllOrders());
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false) String fields,
+                                          @RequestParam(required = false) String embed) {
+        FieldSelection selection = FieldSelection.parse(fields, embed);
+        if (selection == null) {
+            return ResponseEntity.ok(OrderView.of(purchaseOrderService.getAllOrders()));
+        }
+        try {
+            return ResponseEntity.ok(projectionService.getOrders(selection));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     /**
@@ -46,21 +88,48 @@ public class PurchaseOrderController {
      * @return The purchase order if found
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PurchaseOrder> getOrderById(@PathVariable Long id) {
+    public ResponseEntity<OrderView> getOrderById(@PathVariable Long id) {
         return purchaseOrderService.getOrderById(id)
+                .map(OrderView::of)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found with id: " + id));
     }
 
     /**
-     * Get purchase orders by status.
+     * Get purchase orders by status, oldest first. Without a page size all
+     * matching orders are returned.
      *
      * @param status The order status to filter by
+     * @param page Optional zero-based page number
+     * @param size Optional page size
      * @return List of purchase orders with the specified status
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<PurchaseOrder>> getOrdersByStatus(@PathVariable OrderStatus status) {
-        return ResponseEntity.ok(purchaseOrderService.getOrdersByStatus(status));
+    public ResponseEntity<List<OrderView>> getOrdersByStatus(
+            @PathVariable OrderStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        if (size == null) {
+            return ResponseEntity.ok(OrderView.of(purchaseOrderService.getOrdersByStatus(status)));
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Page must be at least 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        Page<PurchaseOrder> orders = purchaseOrderService.getOrdersByStatus(status, page, size);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", Long.toString(orders.getTotalElements()))
+                .body(OrderView.of(orders.getContent()));
+    }
+
+    /**
+     * Get the number of purchase orders per status.
+     *
+     * @return The count for every status
+     */
+    @GetMapping("/status/counts")
+    public ResponseEntity<Map<OrderStatus, Long>> getStatusCounts() {
+        return ResponseEntity.ok(purchaseOrderService.getStatusCounts());
     }
 
     /**
@@ -70,8 +139,28 @@ public class PurchaseOrderController {
      * @return List of purchase orders for the specified customer email
      */
     @GetMapping("/customer")
-    public ResponseEntity<List<PurchaseOrder>> getOrdersByCustomerEmail(@RequestParam String email) {
-        return ResponseEntity.ok(purchaseOrderService.getOrdersByCustomerEmail(email));
+    public ResponseEntity<List<OrderView>> getOrdersByCustomerEmail(@RequestParam String email) {
+        return ResponseEntity.ok(OrderView.of(purchaseOrderService.getOrdersByCustomerEmail(email)));
+    }
+
+    /**
+     * Get a page of a customer's order history, most recent first, as compact summaries.
+     *
+     * @param email The customer email
+     * @param page The zero-based page number
+     * @param size The page size
+     * @return Page of order summaries
+     */
+    @GetMapping("/customer/history")
+    public ResponseEntity<PagedModel<CustomerOrderSummary>> getCustomerHistory(
+            @RequestParam String email,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Page must be at least 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(new PagedModel<>(customerOrderHistory.getHistory(email, page, size)));
     }
 
     /**
@@ -81,15 +170,29 @@ public class PurchaseOrderController {
      * @return The created purchase order
      */
     @PostMapping
-    public ResponseEntity<PurchaseOrder> createOrder(@Valid @RequestBody CreatePurchaseOrderDto orderDto) {
+    public ResponseEntity<OrderView> createOrder(@Valid @RequestBody CreatePurchaseOrderDto orderDto) {
         try {
             PurchaseOrder createdOrder = purchaseOrderService.createOrder(orderDto);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+            return ResponseEntity.status(HttpStatus.CREATED).body(OrderView.of(createdOrder));
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
 
+    /**
+     * Create orders from a stream of NDJSON order events (one {@code OrderIngestEvent}
+     * per line). One NDJSON acknowledgment per event is streamed back as the events
+     * are committed; the response ends once every event has been acknowledged.
+     *
+     * @param body The order events
+     * @param response The response the acknowledgments are written to
+     */
+    @PostMapping(value = "/ingest", consumes = NDJSON, produces = NDJSON)
+    public void ingestOrders(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        orderIngestService.ingest(body, response.getOutputStream());
+    }
+
     /**
      * Process an order.
      *
@@ -97,10 +200,31 @@ public class PurchaseOrderController {
      * @return The updated purchase order
      */
     @PostMapping("/{id}/process")
-    public ResponseEntity<PurchaseOrder> processOrder(@PathVariable Long id) {
+    public ResponseEntity<OrderView> processOrder(@PathVariable Long id) {
         try {
             PurchaseOrder processedOrder = purchaseOrderService.processOrder(id);
-            return ResponseEntity.ok(processedOrder);
+            return ResponseEntity.ok(OrderView.of(processedOrder));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Process all pending orders in one wave, oldest first. Orders whose stock
+     * cannot be allocated stay {@code CREATED} and are listed with the reason.
+     *
+     * @param customerEmail Optional customer email to restrict the wave to
+     * @param placedBefore Optional cut-off; only orders placed before it are processed
+     * @param limit Optional maximum number of orders to consider
+     * @return The number of completed orders and the orders left pending
+     */
+    @PostMapping("/waves")
+    public ResponseEntity<OrderWaveResult> processWave(
+            @RequestParam(required = false) String customerEmail,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime placedBefore,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(orderWaveService.processWave(customerEmail, placedBefore, limit));
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
@@ -113,10 +237,10 @@ public class PurchaseOrderController {
      * @return The updated purchase order
      */
     @PostMapping("/{id}/cancel")
-    public ResponseEntity<PurchaseOrder> cancelOrder(@PathVariable Long id) {
+    public ResponseEntity<OrderView> cancelOrder(@PathVariable Long id) {
         try {
             PurchaseOrder cancelledOrder = purchaseOrderService.cancelOrder(id);
-            return ResponseEntity.ok(cancelledOrder);
+            return ResponseEntity.ok(OrderView.of(cancelledOrder));
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
@@ -130,9 +254,9 @@ public class PurchaseOrderController {
      * @return List of orders created between the specified dates
      */
     @GetMapping("/date-range")
-    public ResponseEntity<List<PurchaseOrder>> getOrdersBetweenDates(
+    public ResponseEntity<List<OrderView>> getOrdersBetweenDates(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return ResponseEntity.ok(purchaseOrderService.getOrdersBetweenDates(startDate, endDate));
+        return ResponseEntity.ok(OrderView.of(purchaseOrderService.getOrdersBetweenDates(startDate, endDate)));
     }
 }
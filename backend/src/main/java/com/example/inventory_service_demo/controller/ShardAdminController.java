@@ -0,0 +1,42 @@
+package com.example.inventory_service_demo.controller;
+
+import com.example.inventory_service_demo.repository.shard.ShardRebalancer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin endpoints for sharded inventory, available when {@code app.sharding.enabled=true}.
+ */
+@RestController
+@RequestMapping("/api/admin/inventory-shards")
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardAdminController {
+
+    private final ShardRebalancer shardRebalancer;
+
+    @Autowired
+    public ShardAdminController(ShardRebalancer shardRebalancer) {
+        this.shardRebalancer = shardRebalancer;
+    }
+
+    /**
+     * Number of stock rows on each shard.
+     */
+    @GetMapping
+    public ResponseEntity<List<Integer>> getRowCounts() {
+        return ResponseEntity.ok(shardRebalancer.rowCounts());
+    }
+
+    /**
+     * Move stock rows to the shards that own them under the current configuration.
+     */
+    @PostMapping("/rebalance")
+    public ResponseEntity<Map<String, Integer>> rebalance() {
+        return ResponseEntity.ok(shardRebalancer.rebalance());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.inventory_service_demo.controller;
+
+import com.example.inventory_service_demo.repository.snapshot.SnapshotStore;
+import com.example.inventory_service_demo.service.SnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin endpoints for database snapshots, available when {@code app.snapshot.enabled=true}.
+ */
+@RestController
+@RequestMapping("/api/admin/snapshots")
+@ConditionalOnProperty(name = "app.snapshot.enabled", havingValue = "true")
+public class SnapshotController {
+
+    private final SnapshotStore snapshotStore;
+    private final SnapshotService snapshotService;
+
+    @Autowired
+    public SnapshotController(SnapshotStore snapshotStore, SnapshotService snapshotService) {
+        this.snapshotStore = snapshotStore;
+        this.snapshotService = snapshotService;
+    }
+
+    /**
+     * Snapshot files, newest first.
+     */
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getSnapshots() {
+        return ResponseEntity.ok(snapshotStore.getSnapshots().stream()
+                .map(snapshot -> Map.<String, Object>of(
+                        "file", snapshot.path().getFileName().toString(),
+                        "bytes", snapshot.size()))
+                .toList());
+    }
+
+    /**
+     * Take a snapshot now, instead of waiting for the schedule.
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> takeSnapshot() {
+        SnapshotService.Result result = snapshotService.takeSnapshot();
+        return ResponseEntity.ok(Map.of(
+                "file", result.snapshot().path().getFileName().toString(),
+                "bytes", result.snapshot().size(),
+                "rows", result.rows(),
+                "durationMillis", result.durationMillis()));
+    }
+}
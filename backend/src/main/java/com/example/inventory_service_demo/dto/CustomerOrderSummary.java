@@ -0,0 +1,23 @@
+package com.example.inventory_service_demo.dto;
+
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compact entry of a customer's order history, without items or customer details.
+ */
+public record CustomerOrderSummary(Long orderId, LocalDateTime orderDate, OrderStatus status,
+                                   int itemCount, BigDecimal totalAmount) {
+
+    public static CustomerOrderSummary of(PurchaseOrder order) {
+        return new CustomerOrderSummary(order.getId(), order.getOrderDate(), order.getStatus(),
+                order.getItems().size(), order.getTotalAmount());
+    }
+
+    public CustomerOrderSummary withStatus(OrderStatus status) {
+        return new CustomerOrderSummary(orderId, orderDate, status, itemCount, totalAmount);
+    }
+}
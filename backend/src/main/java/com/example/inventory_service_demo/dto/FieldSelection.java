@@ -0,0 +1,61 @@
+package com.example.inventory_service_demo.dto;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code fields} and {@code embed} parameters of a list request.
+ * <p>
+ * {@code fields} names the fields of the listed resource, and fields of embedded
+ * resources prefixed with the relation name ({@code product.sku}). A resource
+ * without named fields returns all of its fields. {@code embed} names the related
+ * resources to include ({@code items,product}); the id is always included.
+ *
+ * @param fields the requested fields, possibly prefixed
+ * @param embeds the requested relations
+ */
+public record FieldSelection(Set<String> fields, Set<String> embeds) {
+
+    /**
+     * Parse the request parameters.
+     *
+     * @param fields comma-separated fields, or {@code null}
+     * @param embed comma-separated relations, or {@code null}
+     * @return The selection, or {@code null} if neither parameter was given
+     */
+    public static FieldSelection parse(String fields, String embed) {
+        if (fields == null && embed == null) {
+            return null;
+        }
+        return new FieldSelection(split(fields), split(embed));
+    }
+
+    /**
+     * Get the fields requested for a resource.
+     *
+     * @param relation The relation name, or {@code null} for the listed resource
+     * @return The field names without prefix; empty if the resource was not narrowed
+     */
+    public Set<String> fieldsOf(String relation) {
+        if (relation == null) {
+            return fields.stream().filter(field -> field.indexOf('.') < 0)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+        String prefix = relation + ".";
+        return fields.stream().filter(field -> field.startsWith(prefix))
+                .map(field -> field.substring(prefix.length()))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Set<String> split(String value) {
+        if (value == null) {
+            return Set.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.inventory_service_demo.dto;
+
+import com.example.inventory_service_demo.model.Inventory;
+import com.example.inventory_service_demo.model.Product;
+
+/**
+ * Stock level of a product with just enough of the product to list it; the
+ * description and price are available from the product endpoints.
+ */
+public record InventoryView(Long id, ProductRef product, int quantity) {
+
+    public static InventoryView of(Inventory inventory) {
+        return new InventoryView(inventory.getId(), ProductRef.of(inventory.getProduct()), inventory.getQuantity());
+    }
+
+    /**
+     * Identifying fields of a product.
+     */
+    public record ProductRef(Long id, String sku, String name) {
+
+        public static ProductRef of(Product product) {
+            return new ProductRef(product.getId(), product.getSku(), product.getName());
+        }
+    }
+}
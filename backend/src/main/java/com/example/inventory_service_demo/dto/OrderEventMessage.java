@@ -0,0 +1,15 @@
+package com.example.inventory_service_demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * An order event as delivered to an event sink. Delivery is at least once, so
+ * consumers drop messages whose {@code eventId} they have already seen; event
+ * ids of one order increase in the order its changes were made.
+ *
+ * @param eventId the outbox id of the event
+ * @param orderId the order the event belongs to
+ * @param event the {@link OrderEventPayload} as JSON
+ */
+public record OrderEventMessage(long eventId, long orderId, @JsonRawValue String event) {
+}
@@ -0,0 +1,60 @@
+package com.example.inventory_service_demo.dto;
+
+import com.example.inventory_service_demo.event.PurchaseOrderEvent;
+import com.example.inventory_service_demo.model.OrderItem;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Body of an order event as stored in the outbox and delivered to event sinks:
+ * the order as it was when the change committed.
+ *
+ * @param orderId the order id
+ * @param status the status the order reached
+ * @param previousStatus the status before the change, or {@code null} for a new order
+ * @param occurredAt when the change was made
+ * @param orderDate the order date
+ * @param customerName the customer name
+ * @param customerEmail the customer email
+ * @param totalAmount the order total
+ * @param items the ordered products
+ */
+public record OrderEventPayload(Long orderId,
+                                OrderStatus status,
+                                OrderStatus previousStatus,
+                                Instant occurredAt,
+                                LocalDateTime orderDate,
+                                String customerName,
+                                String customerEmail,
+                                BigDecimal totalAmount,
+                                List<Item> items) {
+
+    /**
+     * One ordered product.
+     *
+     * @param productId the product id
+     * @param quantity the ordered quantity
+     * @param unitPrice the price per unit
+     */
+    public record Item(Long productId, int quantity, BigDecimal unitPrice) {
+    }
+
+    public static OrderEventPayload of(PurchaseOrderEvent event, Instant occurredAt) {
+        PurchaseOrder order = event.order();
+        List<Item> items = order.getItems().stream()
+                .map(OrderEventPayload::item)
+                .toList();
+        return new OrderEventPayload(order.getId(), order.getStatus(), event.previousStatus(), occurredAt,
+                order.getOrderDate(), order.getCustomerName(), order.getCustomerEmail(),
+                order.getTotalAmount(), items);
+    }
+
+    private static Item item(OrderItem item) {
+        return new Item(item.getProduct().getId(), item.getQuantity(), item.getUnitPrice());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.inventory_service_demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Acknowledgment of one line of an order ingestion stream. Acknowledgments are
+ * streamed back as their batches complete, so they can arrive out of line order.
+ *
+ * @param line the line number in the request body
+ * @param eventId the upstream event id, if the line could be read
+ * @param status whether an order was created
+ * @param orderId the id of the created order
+ * @param error why the event was rejected
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OrderIngestAck(long line, String eventId, Status status, Long orderId, String error) {
+
+    public enum Status {
+        ACCEPTED, REJECTED
+    }
+
+    public static OrderIngestAck accepted(long line, String eventId, Long orderId) {
+        return new OrderIngestAck(line, eventId, Status.ACCEPTED, orderId, null);
+    }
+
+    public static OrderIngestAck rejected(long line, String eventId, String error) {
+        return new OrderIngestAck(line, eventId, Status.REJECTED, null, error);
+    }
+}
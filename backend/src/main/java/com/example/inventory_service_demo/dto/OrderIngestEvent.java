@@ -0,0 +1,31 @@
+package com.example.inventory_service_demo.dto;
+
+import java.util.List;
+
+/**
+ * One line of an order ingestion stream: an order placed on an upstream channel,
+ * with the id the channel uses for it.
+ */
+public class OrderIngestEvent extends CreatePurchaseOrderDto {
+
+    private String eventId;
+
+    // Default constructor
+    public OrderIngestEvent() {
+    }
+
+    // Constructor with fields
+    public OrderIngestEvent(String eventId, String customerName, String customerEmail, List<OrderItemDto> items) {
+        super(customerName, customerEmail, items);
+        this.eventId = eventId;
+    }
+
+    // Getters and Setters
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+}
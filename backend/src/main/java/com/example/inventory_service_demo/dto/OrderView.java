@@ -0,0 +1,52 @@
+package com.example.inventory_service_demo.dto;
+
+import com.example.inventory_service_demo.model.OrderItem;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Purchase order as returned by the order endpoints. Lines name their product
+ * by id, SKU and name instead of embedding the whole product.
+ */
+public record OrderView(Long id,
+                        LocalDateTime orderDate,
+                        OrderStatus status,
+                        String customerName,
+                        String customerEmail,
+                        BigDecimal totalAmount,
+                        List<Line> items) {
+
+    public static OrderView of(PurchaseOrder order) {
+        List<Line> items = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            items.add(Line.of(item));
+        }
+        return new OrderView(order.getId(), order.getOrderDate(), order.getStatus(), order.getCustomerName(),
+                order.getCustomerEmail(), order.getTotalAmount(), items);
+    }
+
+    public static List<OrderView> of(List<PurchaseOrder> orders) {
+        List<OrderView> views = new ArrayList<>(orders.size());
+        for (PurchaseOrder order : orders) {
+            views.add(of(order));
+        }
+        return views;
+    }
+
+    /**
+     * One order line.
+     */
+    public record Line(Long id, Long productId, String sku, String productName,
+                       int quantity, BigDecimal unitPrice, BigDecimal subtotal) {
+
+        public static Line of(OrderItem item) {
+            return new Line(item.getId(), item.getProduct().getId(), item.getProduct().getSku(),
+                    item.getProduct().getName(), item.getQuantity(), item.getUnitPrice(), item.getSubtotal());
+        }
+    }
+}
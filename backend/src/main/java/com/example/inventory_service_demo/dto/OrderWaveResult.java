@@ -0,0 +1,22 @@
+package com.example.inventory_service_demo.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a wave over pending orders.
+ *
+ * @param completed the number of orders that were filled and completed
+ * @param pending the orders that stay {@code CREATED}, oldest first
+ * @param durationMillis how long the wave took
+ */
+public record OrderWaveResult(int completed, List<PendingOrder> pending, long durationMillis) {
+
+    /**
+     * An order the wave could not fill.
+     *
+     * @param orderId the order id
+     * @param reason why it could not be filled
+     */
+    public record PendingOrder(Long orderId, String reason) {
+    }
+}
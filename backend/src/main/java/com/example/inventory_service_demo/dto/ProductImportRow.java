@@ -0,0 +1,23 @@
+package com.example.inventory_service_demo.dto;
+
+import com.example.inventory_service_demo.model.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of a product import file. {@code quantity} is the initial stock of a
+ * new product and may be left out.
+ */
+public record ProductImportRow(String sku, String name, String description, BigDecimal price, Integer quantity) {
+
+    /**
+     * Copy the product fields onto an existing or new product.
+     */
+    public Product applyTo(Product product) {
+        product.setSku(sku);
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(price);
+        return product;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.inventory_service_demo.dto;
+
+import com.example.inventory_service_demo.model.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Product as returned by the product endpoints.
+ */
+public record ProductView(Long id, String name, String description, String sku, BigDecimal price) {
+
+    public static ProductView of(Product product) {
+        return new ProductView(product.getId(), product.getName(), product.getDescription(),
+                product.getSku(), product.getPrice());
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.inventory_service_demo.dto;
+
+/**
+ * Stock of a product measured against its recent consumption.
+ *
+ * @param productId the product id
+ * @param quantity the units in stock
+ * @param dailyRate the estimated units sold per day
+ * @param daysOfCover how many days the stock lasts at the daily rate, or {@code null} if nothing is selling
+ * @param reorderPoint the stock at which to reorder: the units sold during the lead time
+ * @param suggestedQuantity the units to order now, zero while the stock is above the reorder point
+ */
+public record ReorderSuggestion(long productId, int quantity, double dailyRate, Double daysOfCover,
+                                int reorderPoint, int suggestedQuantity) {
+}
@@ -0,0 +1,28 @@
+package com.example.inventory_service_demo.event;
+
+import com.example.inventory_service_demo.model.CacheChange;
+
+/**
+ * Published by {@link com.example.inventory_service_demo.service.CacheChangePoller}
+ * when another node changed a product or its stock, so that in-memory copies can
+ * be evicted or refreshed. An event without a type means any cached product or
+ * stock data may be stale, for instance after the log could not be read for
+ * longer than the allowed staleness.
+ *
+ * @param type the kind of entity that changed, or {@code null} for everything
+ * @param entityId the product id, or {@code null} for everything
+ */
+public record CacheInvalidationEvent(CacheChange.Type type, Long entityId) {
+
+    public static CacheInvalidationEvent all() {
+        return new CacheInvalidationEvent(null, null);
+    }
+
+    public boolean isAll() {
+        return type == null;
+    }
+
+    public boolean concerns(CacheChange.Type changeType) {
+        return type == null || type == changeType;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.inventory_service_demo.event;
+
+import java.util.List;
+
+/**
+ * Published by {@link com.example.inventory_service_demo.service.OrderArchiver}
+ * for each batch of orders moved out of the database. Listeners run synchronously
+ * inside the transaction that deletes them.
+ *
+ * @param orderIds the ids of the archived orders
+ */
+public record OrdersArchivedEvent(List<Long> orderIds) {
+}
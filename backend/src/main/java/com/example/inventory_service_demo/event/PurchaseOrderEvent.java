@@ -0,0 +1,19 @@
+package com.example.inventory_service_demo.event;
+
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+
+/**
+ * Published by {@link com.example.inventory_service_demo.service.PurchaseOrderService}
+ * whenever an order is created or changes status. Listeners run synchronously
+ * inside the transaction that made the change.
+ *
+ * @param order the saved order
+ * @param previousStatus the status before the change, or {@code null} for a new order
+ */
+public record PurchaseOrderEvent(PurchaseOrder order, OrderStatus previousStatus) {
+
+    public boolean isCreation() {
+        return previousStatus == null;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.inventory_service_demo.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One row of the cache invalidation log: a product or its stock was written by
+ * the node named in {@code origin}. Other nodes read the log in id order and
+ * evict or refresh what they hold in memory for that entity.
+ */
+@Entity
+@Table(name = "cache_change")
+public class CacheChange {
+
+    /**
+     * Kind of entity a change refers to.
+     */
+    public enum Type {
+        PRODUCT,
+        INVENTORY
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    // Product id for both types
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false, length = 36)
+    private String origin;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    // Default constructor required by JPA
+    public CacheChange() {
+    }
+
+    public CacheChange(Type type, Long entityId, String origin, Instant changedAt) {
+        this.type = type;
+        this.entityId = entityId;
+        this.origin = origin;
+        this.changedAt = changedAt;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheChange{" +
+                "id=" + id +
+                ", type=" + type +
+                ", entityId=" + entityId +
+                ", origin='" + origin + '\'' +
+                ", changedAt=" + changedAt +
+                '}';
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.inventory_service_demo.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+
+/**
+ * One sub-counter of a hot product's stock. While a product is hot its
+ * available quantity is the {@link Inventory} quantity plus the sum of its
+ * slots, so concurrent writers can decrement different rows.
+ */
+@Entity
+@Table(name = "inventory_slot", uniqueConstraints =
+        @UniqueConstraint(name = "uk_inventory_slot_product_slot", columnNames = {"product_id", "slot"}))
+public class InventorySlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    private int slot;
+
+    @Min(value = 0, message = "Quantity cannot be negative")
+    private int quantity;
+
+    // Default constructor required by JPA
+    public InventorySlot() {
+    }
+
+    public InventorySlot(Long productId, int slot, int quantity) {
+        this.productId = productId;
+        this.slot = slot;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public String toString() {
+        return "InventorySlot{" +
+                "productId=" + productId +
+                ", slot=" + slot +
+                ", quantity=" + quantity +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.inventory_service_demo.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for monetary amounts held as {@code long} minor units (cents).
+ * <p>
+ * Entities keep prices and totals as primitive minor units so that order
+ * arithmetic does not allocate; {@link BigDecimal} is only created at the
+ * edges (JSON, JDBC) through {@link #toDecimal(long)} and {@link MoneyConverter}.
+ */
+public final class Money {
+
+    /** Number of decimal places of the minor unit. */
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Converts a decimal amount to minor units, rounding half-up to {@link #SCALE} places.
+     *
+     * @throws IllegalArgumentException if the amount does not fit into a {@code long}
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount out of range: " + amount, e);
+        }
+    }
+
+    /**
+     * Converts minor units to a decimal amount with {@link #SCALE} places.
+     */
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Multiplies a unit price by a quantity.
+     *
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long multiply(long unitPrice, int quantity) {
+        return Math.multiplyExact(unitPrice, (long) quantity);
+    }
+}
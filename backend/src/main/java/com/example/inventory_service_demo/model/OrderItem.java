@@ -1,6 +1,7 @@
 package com.example.inventory_service_demo.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -31,9 +32,12 @@ public class OrderItem {
     @Min(value = 1, message = "Quantity must be at least 1")
     private int quantity;
 
-    private BigDecimal unitPrice;
-    
-    private BigDecimal subtotal;
+    // Amounts are held in minor units, see Money
+    @Convert(converter = MoneyConverter.class)
+    private long unitPrice;
+
+    @Convert(converter = MoneyConverter.class)
+    private long subtotal;
 
     // Default constructor required by JPA
     public OrderItem() {
@@ -43,13 +47,17 @@ public class OrderItem {
     public OrderItem(Product product, int quantity) {
         this.product = product;
         this.quantity = quantity;
-        this.unitPrice = product.getPrice();
-        this.calculateSubtotal();
+        this.unitPrice = product.getPriceMinorUnits();
+        this.subtotal = Money.multiply(this.unitPrice, this.quantity);
     }
 
-    // Method to calculate the subtotal
+    // Method to calculate the subtotal; the owning order's total is adjusted by the difference
     public void calculateSubtotal() {
-        this.subtotal = this.unitPrice.multiply(BigDecimal.valueOf(this.quantity));
+        long previousSubtotal = this.subtotal;
+        this.subtotal = Money.multiply(this.unitPrice, this.quantity);
+        if (order != null) {
+            order.adjustTotalAmount(this.subtotal - previousSubtotal);
+        }
     }
 
     // Getters and Setters
@@ -76,7 +84,7 @@ public class OrderItem {
     public void setProduct(Product product) {
         this.product = product;
         if (product != null) {
-            this.unitPrice = product.getPrice();
+            this.unitPrice = product.getPriceMinorUnits();
             calculateSubtotal();
         }
     }
@@ -91,15 +99,20 @@ public class OrderItem {
     }
 
     public BigDecimal getUnitPrice() {
-        return unitPrice;
+        return Money.toDecimal(unitPrice);
     }
 
     public void setUnitPrice(BigDecimal unitPrice) {
-        this.unitPrice = unitPrice;
+        this.unitPrice = Money.toMinorUnits(unitPrice);
         calculateSubtotal();
     }
 
     public BigDecimal getSubtotal() {
+        return Money.toDecimal(subtotal);
+    }
+
+    @JsonIgnore
+    public long getSubtotalMinorUnits() {
         return subtotal;
     }
 
@@ -109,8 +122,8 @@ public class OrderItem {
                 "id=" + id +
                 ", product=" + (product != null ? product.getName() : "null") +
                 ", quantity=" + quantity +
-                ", unitPrice=" + unitPrice +
-                ", subtotal=" + subtotal +
+                ", unitPrice=" + getUnitPrice() +
+                ", subtotal=" + getSubtotal() +
                 '}';
     }
 }
@@ -0,0 +1,84 @@
+package com.example.inventory_service_demo.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One row of the purchase order outbox: an order event written in the same
+ * transaction as the order change, and relayed to the configured event sink
+ * afterwards. {@code publishedAt} stays {@code null} until the sink accepted it.
+ */
+@Entity
+@Table(name = "order_outbox", indexes = @Index(name = "idx_order_outbox_published", columnList = "published_at, id"))
+public class OrderOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    // JSON document handed to the sink as is, see OrderEventPayload
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    // Default constructor required by JPA
+    public OrderOutboxEvent() {
+    }
+
+    public OrderOutboxEvent(Long orderId, OrderStatus status, String payload, Instant createdAt) {
+        this.orderId = orderId;
+        this.status = status;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderOutboxEvent{" +
+                "id=" + id +
+                ", orderId=" + orderId +
+                ", status=" + status +
+                ", createdAt=" + createdAt +
+                ", publishedAt=" + publishedAt +
+                '}';
+    }
+}
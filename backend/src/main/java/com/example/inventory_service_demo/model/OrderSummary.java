@@ -0,0 +1,90 @@
+package com.example.inventory_service_demo.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized read model of a purchase order holding only what order list
+ * screens display. Maintained in the same transaction as the order itself.
+ */
+@Entity
+@Table(name = "order_summary", indexes = {
+        @Index(name = "idx_order_summary_status_date", columnList = "status, order_date"),
+        @Index(name = "idx_order_summary_email_date", columnList = "customer_email, order_date"),
+        @Index(name = "idx_order_summary_date", columnList = "order_date")
+})
+public class OrderSummary {
+
+    @Id
+    private Long orderId;
+
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private String customerName;
+
+    private String customerEmail;
+
+    private int itemCount;
+
+    private BigDecimal totalAmount;
+
+    // Default constructor required by JPA
+    public OrderSummary() {
+    }
+
+    public OrderSummary(PurchaseOrder order) {
+        this.orderId = order.getId();
+        this.orderDate = order.getOrderDate();
+        this.status = order.getStatus();
+        this.customerName = order.getCustomerName();
+        this.customerEmail = order.getCustomerEmail();
+        this.itemCount = order.getItems().size();
+        this.totalAmount = order.getTotalAmount();
+    }
+
+    // Getters
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderSummary{" +
+                "orderId=" + orderId +
+                ", orderDate=" + orderDate +
+                ", status=" + status +
+                ", customerEmail='" + customerEmail + '\'' +
+                ", itemCount=" + itemCount +
+                ", totalAmount=" + totalAmount +
+                '}';
+    }
+}
@@ -1,19 +1,33 @@
 package com.example.inventory_service_demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_sku", columnList = "sku", unique = true))
+@EntityListeners({ProductSkuListener.class, ProductViewListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
 public class Product {
 
+    /** Second-level cache region of products, sized by {@code app.second-level-cache.product-entries}. */
+    public static final String CACHE_REGION = "product";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -26,9 +40,11 @@ public class Product {
     @NotBlank(message = "SKU is required")
     private String sku;
 
+    // Held in minor units, exposed as a decimal amount
     @NotNull(message = "Price is required")
     @Positive(message = "Price must be positive")
-    private BigDecimal price;
+    @Convert(converter = MoneyConverter.class)
+    private Long price;
 
     // Default constructor required by JPA
     public Product() {
@@ -38,7 +54,7 @@ public class Product {
         this.name = name;
         this.description = description;
         this.sku = sku;
-        this.price = price;
+        this.price = price == null ? null : Money.toMinorUnits(price);
     }
 
     // Getters and Setters
@@ -75,11 +91,16 @@ public class Product {
     }
 
     public BigDecimal getPrice() {
-        return price;
+        return price == null ? null : Money.toDecimal(price);
     }
 
     public void setPrice(BigDecimal price) {
-        this.price = price;
+        this.price = price == null ? null : Money.toMinorUnits(price);
+    }
+
+    @JsonIgnore
+    public long getPriceMinorUnits() {
+        return price;
     }
 
     @Override
@@ -89,7 +110,7 @@ public class Product {
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", sku='" + sku + '\'' +
-                ", price=" + price +
+                ", price=" + getPrice() +
                 '}';
     }
 }
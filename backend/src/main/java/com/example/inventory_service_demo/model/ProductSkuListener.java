@@ -0,0 +1,34 @@
+package com.example.inventory_service_demo.model;
+
+import com.example.inventory_service_demo.service.SkuFilter;
+import com.example.inventory_service_demo.service.TransactionCallbacks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Keeps the {@link SkuFilter} in step with product writes. The SKU is added as
+ * soon as the row is written, so lookups later in the same transaction find it,
+ * and again after commit, so a concurrent filter rebuild that scanned the table
+ * before the commit cannot drop it. Created by Hibernate through Spring.
+ */
+public class ProductSkuListener {
+
+    private final ObjectProvider<SkuFilter> skuFilter;
+
+    public ProductSkuListener(ObjectProvider<SkuFilter> skuFilter) {
+        this.skuFilter = skuFilter;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void recordSku(Product product) {
+        SkuFilter filter = skuFilter.getIfAvailable();
+        if (filter == null) {
+            return;
+        }
+        String sku = product.getSku();
+        filter.add(sku);
+        TransactionCallbacks.afterCommit(() -> filter.add(sku));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.inventory_service_demo.model;
+
+import com.example.inventory_service_demo.service.ProductViewCache;
+import com.example.inventory_service_demo.service.TransactionCallbacks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Evicts written products from the {@link ProductViewCache}: as soon as the row
+ * is written, which stops loads that started earlier from being cached, and again
+ * after commit, which drops anything loaded from the old row in between.
+ * Created by Hibernate through Spring.
+ */
+public class ProductViewListener {
+
+    private final ObjectProvider<ProductViewCache> productViewCache;
+
+    public ProductViewListener(ObjectProvider<ProductViewCache> productViewCache) {
+        this.productViewCache = productViewCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(Product product) {
+        ProductViewCache cache = productViewCache.getIfAvailable();
+        if (cache == null) {
+            return;
+        }
+        Long id = product.getId();
+        cache.evict(id);
+        TransactionCallbacks.afterCommit(() -> cache.evict(id));
+    }
+}
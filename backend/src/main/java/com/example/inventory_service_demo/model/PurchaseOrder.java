@@ -36,13 +36,14 @@ public class PurchaseOrder {
     @JsonManagedReference
     private List<OrderItem> items = new ArrayList<>();
 
-    private BigDecimal totalAmount;
+    // Held in minor units and maintained incrementally as items change, see Money
+    @Convert(converter = MoneyConverter.class)
+    private long totalAmount;
 
     // Default constructor required by JPA
     public PurchaseOrder() {
         this.orderDate = LocalDateTime.now();
         this.status = OrderStatus.CREATED;
-        this.totalAmount = BigDecimal.ZERO;
     }
 
     // Constructor with customer information
@@ -56,21 +57,29 @@ public class PurchaseOrder {
     public void addItem(OrderItem item) {
         items.add(item);
         item.setOrder(this);
-        recalculateTotalAmount();
+        adjustTotalAmount(item.getSubtotalMinorUnits());
     }
 
     // Method to remove an item from the order
     public void removeItem(OrderItem item) {
-        items.remove(item);
-        item.setOrder(null);
-        recalculateTotalAmount();
+        if (items.remove(item)) {
+            item.setOrder(null);
+            adjustTotalAmount(-item.getSubtotalMinorUnits());
+        }
     }
 
-    // Method to recalculate the total amount of the order
+    // Method to recalculate the total amount of the order from scratch
     public void recalculateTotalAmount() {
-        this.totalAmount = items.stream()
-                .map(OrderItem::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long total = 0;
+        for (OrderItem item : items) {
+            total = Math.addExact(total, item.getSubtotalMinorUnits());
+        }
+        this.totalAmount = total;
+    }
+
+    // Called by items when their subtotal changes
+    void adjustTotalAmount(long delta) {
+        this.totalAmount = Math.addExact(this.totalAmount, delta);
     }
 
     // Getters and Setters
@@ -124,7 +133,7 @@ public class PurchaseOrder {
     }
 
     public BigDecimal getTotalAmount() {
-        return totalAmount;
+        return Money.toDecimal(totalAmount);
     }
 
     @Override
@@ -136,7 +145,7 @@ public class PurchaseOrder {
                 ", customerName='" + customerName + '\'' +
                 ", customerEmail='" + customerEmail + '\'' +
                 ", items=" + items.size() +
-                ", totalAmount=" + totalAmount +
+                ", totalAmount=" + getTotalAmount() +
                 '}';
     }
 }
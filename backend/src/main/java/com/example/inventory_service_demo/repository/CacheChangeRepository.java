@@ -0,0 +1,32 @@
+package com.example.inventory_service_demo.repository;
+
+import com.example.inventory_service_demo.model.CacheChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository interface for the cache invalidation log.
+ */
+@Repository
+public interface CacheChangeRepository extends JpaRepository<CacheChange, Long> {
+
+    // The next changes after the last one a node has read
+    List<CacheChange> findByIdGreaterThanOrderById(Long id, Pageable pageable);
+
+    @Query("select coalesce(max(c.id), 0) from CacheChange c")
+    long findMaxId();
+
+    // Drop changes every node has had time to read
+    @Modifying
+    @Transactional
+    @Query("delete from CacheChange c where c.changedAt < :before")
+    int deleteByChangedAtBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,242 @@
+package com.example.inventory_service_demo.repository;
+
+import com.example.inventory_service_demo.model.Inventory;
+import com.example.inventory_service_demo.model.InventorySlot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Split counters for hot products. The stock of a hot product is its
+ * {@code inventory} row plus the sum of its {@code inventory_slot} rows; writers
+ * change one randomly chosen slot and only touch sibling slots or the inventory
+ * row when that slot runs dry.
+ * <p>
+ * Because the inventory row always counts, a node that has not yet noticed a
+ * promotion or demotion still reads and writes correct totals. All methods run
+ * in the caller's transaction; a failed decrement throws and rolls back any
+ * slots it had already drawn from.
+ */
+public class HotProductCounters {
+
+    private final InventoryRepository inventoryRepository;
+    private final InventorySlotRepository slotRepository;
+
+    // Product id -> number of slots, as last seen in the database
+    private final Map<Long, Integer> hotProducts = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> adjustments = new ConcurrentHashMap<>();
+
+    private final Counter slotHits;
+    private final Counter borrows;
+
+    public HotProductCounters(InventoryRepository inventoryRepository,
+                              InventorySlotRepository slotRepository,
+                              MeterRegistry meterRegistry) {
+        this.inventoryRepository = inventoryRepository;
+        this.slotRepository = slotRepository;
+        this.slotHits = meterRegistry.counter("inventory.hot.adjustments", "path", "slot");
+        this.borrows = meterRegistry.counter("inventory.hot.adjustments", "path", "borrow");
+        meterRegistry.gaugeMapSize("inventory.hot.products", List.of(), hotProducts);
+    }
+
+    public boolean isHot(Long productId) {
+        return hotProducts.containsKey(productId);
+    }
+
+    public Map<Long, Integer> getHotProducts() {
+        return Map.copyOf(hotProducts);
+    }
+
+    /**
+     * Count a stock adjustment of a product towards its adjustment rate.
+     */
+    public void recordAdjustment(Long productId) {
+        adjustments.computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Get the adjustment counts recorded since the last call and reset them.
+     */
+    public Map<Long, Long> drainAdjustmentCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        adjustments.forEach((productId, count) -> {
+            long value = count.sumThenReset();
+            if (value > 0) {
+                counts.put(productId, value);
+            }
+        });
+        adjustments.values().removeIf(count -> count.sum() == 0);
+        return counts;
+    }
+
+    /**
+     * Reload which products are hot, picking up promotions made by other nodes.
+     */
+    public void refresh() {
+        Map<Long, Integer> current = new HashMap<>();
+        for (Object[] row : slotRepository.summarizeByProduct()) {
+            current.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        hotProducts.keySet().retainAll(current.keySet());
+        hotProducts.putAll(current);
+    }
+
+    /**
+     * Reload whether one product is hot.
+     *
+     * @return true if the product currently has slots
+     */
+    public boolean refresh(Long productId) {
+        int slots = (int) slotRepository.countByProductId(productId);
+        if (slots == 0) {
+            hotProducts.remove(productId);
+            return false;
+        }
+        hotProducts.put(productId, slots);
+        return true;
+    }
+
+    /**
+     * Get the stock held in slots for every product that has any.
+     */
+    public Map<Long, Long> slotTotals() {
+        Map<Long, Long> totals = new HashMap<>();
+        for (Object[] row : slotRepository.summarizeByProduct()) {
+            totals.put((Long) row[0], ((Number) row[2]).longValue());
+        }
+        return totals;
+    }
+
+    /**
+     * Get the stock held in slots for those of the given products that have any.
+     */
+    public Map<Long, Long> slotTotals(Collection<Long> productIds) {
+        Map<Long, Long> totals = new HashMap<>();
+        for (Object[] row : slotRepository.sumQuantitiesByProductIds(productIds)) {
+            totals.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return totals;
+    }
+
+    public long slotTotal(Long productId) {
+        return slotRepository.sumQuantityByProductId(productId);
+    }
+
+    /**
+     * Apply a stock change through the slots of a hot product.
+     *
+     * @param productId The product ID
+     * @param quantityChange The relative change
+     * @return false if the product is not hot and the inventory row should be updated instead
+     * @throws IllegalArgumentException if the slots and inventory row together cannot cover a decrement
+     */
+    public boolean tryAdjust(Long productId, int quantityChange) {
+        Integer slots = hotProducts.get(productId);
+        if (slots == null) {
+            return false;
+        }
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        if (slotRepository.adjustSlot(productId, slot, quantityChange) > 0) {
+            slotHits.increment();
+            return true;
+        }
+        if (quantityChange >= 0) {
+            // The slot is gone, the product was demoted elsewhere
+            hotProducts.remove(productId);
+            return false;
+        }
+        borrows.increment();
+        borrow(productId, -quantityChange);
+        return true;
+    }
+
+    // Draw what the slots hold, then the rest from the inventory row. Slot quantities are read
+    // as scalars: tryAdjust changed them with bulk updates, so slot entities would be stale.
+    private void borrow(Long productId, int amount) {
+        int remaining = amount;
+        for (Object[] slot : slotRepository.findSlotQuantities(productId)) {
+            int take = Math.min(((Number) slot[1]).intValue(), remaining);
+            if (take > 0 && slotRepository.adjustSlot(productId, ((Number) slot[0]).intValue(), -take) > 0) {
+                remaining -= take;
+            }
+            if (remaining == 0) {
+                return;
+            }
+        }
+        if (inventoryRepository.addQuantity(productId, -remaining) == 0) {
+            throw new IllegalArgumentException("Cannot reduce inventory below zero");
+        }
+    }
+
+    /**
+     * Set the stock of a hot product, spreading it evenly over its slots.
+     *
+     * @param inventory The locked inventory row of the product
+     * @return false if the product is not hot
+     */
+    public boolean trySet(Inventory inventory, int quantity) {
+        Long productId = inventory.getProduct().getId();
+        List<InventorySlot> slots = slotRepository.findByProductIdForUpdate(productId);
+        if (slots.isEmpty()) {
+            hotProducts.remove(productId);
+            return false;
+        }
+        // Bulk updates, like tryAdjust: the locked entities may predate its updates in this transaction
+        for (InventorySlot slot : slots) {
+            slotRepository.setSlot(productId, slot.getSlot(), share(quantity, slots.size(), slot.getSlot()));
+        }
+        inventory.setQuantity(0);
+        hotProducts.put(productId, slots.size());
+        return true;
+    }
+
+    /**
+     * Move the stock of a product from its inventory row into new slots.
+     *
+     * @param inventory The locked inventory row of the product
+     * @param slotCount The number of slots to create
+     * @return false if the product already had slots
+     */
+    public boolean promote(Inventory inventory, int slotCount) {
+        Long productId = inventory.getProduct().getId();
+        if (!slotRepository.findByProductIdForUpdate(productId).isEmpty()) {
+            return false;
+        }
+        List<InventorySlot> slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new InventorySlot(productId, i, share(inventory.getQuantity(), slotCount, i)));
+        }
+        inventory.setQuantity(0);
+        slotRepository.saveAll(slots);
+        hotProducts.put(productId, slotCount);
+        return true;
+    }
+
+    /**
+     * Fold the slots of a product back into its inventory row.
+     *
+     * @param inventory The locked inventory row of the product
+     */
+    public void demote(Inventory inventory) {
+        Long productId = inventory.getProduct().getId();
+        slotRepository.findByProductIdForUpdate(productId);
+        // Summed in the database, the locked entities may predate bulk slot updates of this transaction
+        int total = (int) slotRepository.sumQuantityByProductId(productId);
+        slotRepository.deleteByProductId(productId);
+        inventory.setQuantity(inventory.getQuantity() + total);
+        hotProducts.remove(productId);
+    }
+
+    // The part of a quantity spread evenly over slotCount slots that falls to one slot
+    private static int share(int quantity, int slotCount, int slot) {
+        return quantity / slotCount + (slot < quantity % slotCount ? 1 : 0);
+    }
+}
@@ -2,13 +2,41 @@ package com.example.inventory_service_demo.repository;
 
 import com.example.inventory_service_demo.model.Inventory;
 import com.example.inventory_service_demo.model.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     Optional<Inventory> findByProduct(Product product);
     Optional<Inventory> findByProductId(Long productId);
+    boolean existsByProductId(Long productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Inventory i where i.product.id = :productId")
+    Optional<Inventory> findByProductIdForUpdate(@Param("productId") Long productId);
+
+    // Change the quantity unless that would make it negative; returns the number of rows changed.
+    // Bypasses the persistence context, so an Inventory already loaded in the transaction keeps its old quantity.
+    @Modifying
+    @Query("update Inventory i set i.quantity = i.quantity + :delta " +
+            "where i.product.id = :productId and i.quantity + :delta >= 0")
+    int addQuantity(@Param("productId") Long productId, @Param("delta") int delta);
+
+    // Rows of [productId, quantity]; must be consumed inside a transaction
+    @Query("select i.product.id, i.quantity from Inventory i")
+    Stream<Object[]> streamQuantities();
+
+    // Rows of [productId, quantity] for the given products
+    @Query("select i.product.id, i.quantity from Inventory i where i.product.id in :productIds")
+    List<Object[]> findQuantities(@Param("productIds") Collection<Long> productIds);
 }
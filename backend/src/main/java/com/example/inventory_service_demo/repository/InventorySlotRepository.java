@@ -0,0 +1,59 @@
+package com.example.inventory_service_demo.repository;
+
+import com.example.inventory_service_demo.model.InventorySlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for hot product stock slots.
+ */
+@Repository
+public interface InventorySlotRepository extends JpaRepository<InventorySlot, Long> {
+
+    List<InventorySlot> findByProductIdOrderBySlot(Long productId);
+
+    long countByProductId(Long productId);
+
+    // Rows of [slot, quantity] as stored, unaffected by slot entities loaded before bulk updates
+    @Query("select s.slot, s.quantity from InventorySlot s where s.productId = :productId order by s.slot")
+    List<Object[]> findSlotQuantities(@Param("productId") Long productId);
+
+    // Lock all slots of a product, used when folding them back into the inventory row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from InventorySlot s where s.productId = :productId order by s.slot")
+    List<InventorySlot> findByProductIdForUpdate(@Param("productId") Long productId);
+
+    // Change one slot unless that would make it negative; returns the number of rows changed
+    @Modifying
+    @Query("update InventorySlot s set s.quantity = s.quantity + :delta " +
+            "where s.productId = :productId and s.slot = :slot and s.quantity + :delta >= 0")
+    int adjustSlot(@Param("productId") Long productId, @Param("slot") int slot, @Param("delta") int delta);
+
+    @Modifying
+    @Query("update InventorySlot s set s.quantity = :quantity where s.productId = :productId and s.slot = :slot")
+    int setSlot(@Param("productId") Long productId, @Param("slot") int slot, @Param("quantity") int quantity);
+
+    @Query("select coalesce(sum(s.quantity), 0) from InventorySlot s where s.productId = :productId")
+    long sumQuantityByProductId(@Param("productId") Long productId);
+
+    // Rows of [productId, quantity sum] for the given products that have slots
+    @Query("select s.productId, sum(s.quantity) from InventorySlot s " +
+            "where s.productId in :productIds group by s.productId")
+    List<Object[]> sumQuantitiesByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    // Rows of [productId, slotCount, quantity sum]
+    @Query("select s.productId, count(s), sum(s.quantity) from InventorySlot s group by s.productId")
+    List<Object[]> summarizeByProduct();
+
+    @Modifying
+    @Query("delete from InventorySlot s where s.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,59 @@
+package com.example.inventory_service_demo.repository;
+
+import com.example.inventory_service_demo.model.Inventory;
+import com.example.inventory_service_demo.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Storage of stock levels underneath {@link com.example.inventory_service_demo.service.InventoryService}.
+ * <p>
+ * {@link JpaInventoryStore} keeps stock in the {@code inventory} table next to the
+ * products; {@link com.example.inventory_service_demo.repository.shard.ShardedInventoryStore}
+ * spreads it over several databases by product id.
+ */
+public interface InventoryStore {
+
+    List<Inventory> findAll();
+
+    Optional<Inventory> findByProductId(Long productId);
+
+    /**
+     * Set the stock of a product, creating its inventory record if needed.
+     */
+    Inventory setQuantity(Product product, int quantity);
+
+    /**
+     * Change the stock of a product by a relative amount.
+     *
+     * @throws IllegalArgumentException if the stock would drop below zero
+     */
+    Inventory adjustQuantity(Product product, int quantityChange);
+
+    /**
+     * Apply several stock changes, keyed by product id, all or nothing.
+     *
+     * @throws IllegalArgumentException if any stock would drop below zero
+     */
+    void adjustQuantities(Map<Long, Integer> quantityChanges);
+
+    /**
+     * Stream the stock of every product without loading entities.
+     */
+    void forEachQuantity(QuantityConsumer consumer);
+
+    /**
+     * Get the stock of the given products without loading entities.
+     *
+     * @return The quantity per product id, without products that have no inventory
+     */
+    Map<Long, Integer> findQuantities(Collection<Long> productIds);
+
+    @FunctionalInterface
+    interface QuantityConsumer {
+        void accept(long productId, int quantity);
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.inventory_service_demo.repository;
+
+import com.example.inventory_service_demo.model.Inventory;
+import com.example.inventory_service_demo.model.Product;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Default {@link InventoryStore} backed by the {@code inventory} table. Runs inside
+ * the caller's transaction, so multi-product changes are atomic.
+ * <p>
+ * Deliberately not a {@code @Repository}: persistence exception translation would
+ * turn the {@link IllegalArgumentException}s callers map to 400 responses into
+ * {@code InvalidDataAccessApiUsageException}s.
+ * <p>
+ * With {@code app.hot-products.enabled} the stock of hot products also lives in
+ * {@link HotProductCounters} slots; reads add the slots to the inventory row and
+ * return a detached copy carrying the total.
+ * <p>
+ * Relative changes are applied according to {@code app.inventory.adjust-mode}:
+ * {@link AdjustMode#CONDITIONAL_UPDATE} (the default) runs one
+ * {@code update ... where quantity + delta >= 0} per product and treats an
+ * unchanged row as insufficient stock, so concurrent adjustments neither lose
+ * updates nor need locks; {@link AdjustMode#READ_MODIFY_WRITE} loads the row,
+ * checks the new quantity in Java and saves it, and is kept for comparison.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class JpaInventoryStore implements InventoryStore {
+
+    // Product ids per IN list
+    private static final int ID_CHUNK = 1000;
+
+    private final InventoryRepository inventoryRepository;
+    private final ProductRepository productRepository;
+    private final HotProductCounters hotProductCounters;
+    private final AdjustMode adjustMode;
+
+    @Autowired
+    public JpaInventoryStore(InventoryRepository inventoryRepository, ProductRepository productRepository,
+                             ObjectProvider<HotProductCounters> hotProductCounters,
+                             @Value("${app.inventory.adjust-mode:conditional-update}") AdjustMode adjustMode) {
+        this.inventoryRepository = inventoryRepository;
+        this.productRepository = productRepository;
+        this.hotProductCounters = hotProductCounters.getIfAvailable();
+        this.adjustMode = adjustMode;
+    }
+
+    @Override
+    public List<Inventory> findAll() {
+        List<Inventory> inventories = inventoryRepository.findAll();
+        if (hotProductCounters == null) {
+            return inventories;
+        }
+        Map<Long, Long> slotTotals = hotProductCounters.slotTotals();
+        if (slotTotals.isEmpty()) {
+            return inventories;
+        }
+        return inventories.stream()
+                .map(inventory -> withSlots(inventory, slotTotals.getOrDefault(inventory.getProduct().getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Inventory> findByProductId(Long productId) {
+        return inventoryRepository.findByProductId(productId).map(this::withSlots);
+    }
+
+    @Override
+    public Inventory setQuantity(Product product, int quantity) {
+        if (hotProductCounters != null) {
+            Optional<Inventory> locked = inventoryRepository.findByProductIdForUpdate(product.getId());
+            if (locked.isPresent() && hotProductCounters.trySet(locked.get(), quantity)) {
+                return withSlots(locked.get(), quantity);
+            }
+        }
+
+        Optional<Inventory> existingInventory = inventoryRepository.findByProduct(product);
+
+        if (existingInventory.isPresent()) {
+            Inventory inventory = existingInventory.get();
+            inventory.setQuantity(quantity);
+            return inventoryRepository.save(inventory);
+        } else {
+            Inventory newInventory = new Inventory(product, quantity);
+            return inventoryRepository.save(newInventory);
+        }
+    }
+
+    @Override
+    public Inventory adjustQuantity(Product product, int quantityChange) {
+        if (adjustMode == AdjustMode.READ_MODIFY_WRITE) {
+            return readModifyWrite(product, quantityChange);
+        }
+        addQuantity(product.getId(), quantityChange);
+        return findByProductId(product.getId()).orElseThrow();
+    }
+
+    @Override
+    public void adjustQuantities(Map<Long, Integer> quantityChanges) {
+        if (adjustMode == AdjustMode.READ_MODIFY_WRITE) {
+            quantityChanges.forEach((productId, quantityChange) ->
+                    readModifyWrite(productRepository.getReferenceById(productId), quantityChange));
+            return;
+        }
+        // Update rows in product id order so concurrent orders lock them consistently
+        new TreeMap<>(quantityChanges).forEach(this::addQuantity);
+    }
+
+    // One conditional update; the row is only read again when it was not changed
+    private void addQuantity(Long productId, int quantityChange) {
+        if (hotProductCounters != null) {
+            hotProductCounters.recordAdjustment(productId);
+            if (hotProductCounters.tryAdjust(productId, quantityChange)) {
+                return;
+            }
+        }
+
+        if (inventoryRepository.addQuantity(productId, quantityChange) > 0) {
+            return;
+        }
+        if (inventoryRepository.existsByProductId(productId)) {
+            // Another node may have moved the stock into slots since the last refresh
+            if (hotProductCounters != null && hotProductCounters.refresh(productId)
+                    && hotProductCounters.tryAdjust(productId, quantityChange)) {
+                return;
+            }
+            throw new IllegalArgumentException("Cannot reduce inventory below zero");
+        }
+        if (quantityChange < 0) {
+            throw new IllegalArgumentException("Cannot reduce non-existent inventory");
+        }
+        inventoryRepository.save(new Inventory(productRepository.getReferenceById(productId), quantityChange));
+    }
+
+    private Inventory readModifyWrite(Product product, int quantityChange) {
+        if (hotProductCounters != null) {
+            hotProductCounters.recordAdjustment(product.getId());
+            if (hotProductCounters.tryAdjust(product.getId(), quantityChange)) {
+                return findByProductId(product.getId()).orElseThrow();
+            }
+        }
+
+        Optional<Inventory> existingInventory = inventoryRepository.findByProduct(product);
+
+        if (existingInventory.isPresent()) {
+            Inventory inventory = existingInventory.get();
+            int newQuantity = inventory.getQuantity() + quantityChange;
+
+            if (newQuantity < 0) {
+                // Another node may have moved the stock into slots since the last refresh
+                if (hotProductCounters != null && hotProductCounters.refresh(product.getId())
+                        && hotProductCounters.tryAdjust(product.getId(), quantityChange)) {
+                    return findByProductId(product.getId()).orElseThrow();
+                }
+                throw new IllegalArgumentException("Cannot reduce inventory below zero");
+            }
+
+            inventory.setQuantity(newQuantity);
+            return inventoryRepository.save(inventory);
+        } else {
+            if (quantityChange < 0) {
+                throw new IllegalArgumentException("Cannot reduce non-existent inventory");
+            }
+            Inventory newInventory = new Inventory(product, quantityChange);
+            return inventoryRepository.save(newInventory);
+        }
+    }
+
+    @Override
+    public void forEachQuantity(QuantityConsumer consumer) {
+        Map<Long, Long> slotTotals = hotProductCounters == null ? Map.of() : hotProductCounters.slotTotals();
+        try (Stream<Object[]> rows = inventoryRepository.streamQuantities()) {
+            rows.forEach(row -> {
+                Long productId = (Long) row[0];
+                int quantity = (Integer) row[1];
+                consumer.accept(productId, Math.toIntExact(quantity + slotTotals.getOrDefault(productId, 0L)));
+            });
+        }
+    }
+
+    @Override
+    public Map<Long, Integer> findQuantities(Collection<Long> productIds) {
+        Map<Long, Integer> quantities = new HashMap<>(productIds.size() * 2);
+        List<Long> ids = List.copyOf(productIds);
+        for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + ID_CHUNK));
+            Map<Long, Long> slotTotals = hotProductCounters == null ? Map.of() : hotProductCounters.slotTotals(chunk);
+            for (Object[] row : inventoryRepository.findQuantities(chunk)) {
+                Long productId = (Long) row[0];
+                int quantity = (Integer) row[1];
+                quantities.put(productId, Math.toIntExact(quantity + slotTotals.getOrDefault(productId, 0L)));
+            }
+        }
+        return quantities;
+    }
+
+    private Inventory withSlots(Inventory inventory) {
+        if (hotProductCounters == null) {
+            return inventory;
+        }
+        return withSlots(inventory, hotProductCounters.slotTotal(inventory.getProduct().getId()));
+    }
+
+    // A managed entity must not carry the total, or it would be flushed into the inventory row
+    private static Inventory withSlots(Inventory inventory, long slotTotal) {
+        if (slotTotal == 0) {
+            return inventory;
+        }
+        Inventory total = new Inventory(inventory.getProduct(), Math.toIntExact(inventory.getQuantity() + slotTotal));
+        total.setId(inventory.getId());
+        return total;
+    }
+
+    /**
+     * How relative stock changes reach the {@code inventory} row.
+     */
+    public enum AdjustMode {
+        /** A single {@code update} that only applies when the stock stays non-negative. */
+        CONDITIONAL_UPDATE,
+        /** Load, check and save the entity; concurrent adjustments can overwrite each other. */
+        READ_MODIFY_WRITE
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.inventory_service_demo.repository;
+
+import com.example.inventory_service_demo.model.OrderOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for the purchase order outbox.
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    // Events not yet accepted by the sink, oldest first
+    List<OrderOutboxEvent> findByPublishedAtIsNullOrderById(Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("update OrderOutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    // Drop events the sink accepted long enough ago
+    @Modifying
+    @Transactional
+    @Query("delete from OrderOutboxEvent e where e.publishedAt < :before")
+    int deleteByPublishedAtBefore(@Param("before") Instant before);
+}
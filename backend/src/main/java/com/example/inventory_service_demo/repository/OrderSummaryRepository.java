@@ -0,0 +1,48 @@
+package com.example.inventory_service_demo.repository;
+
+import com.example.inventory_service_demo.dto.CustomerOrderSummary;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.OrderSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for the order summary read model.
+ */
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    // Filter summaries; every parameter is optional
+    @Query("select s from OrderSummary s " +
+            "where (:status is null or s.status = :status) " +
+            "and (:email is null or s.customerEmail = :email) " +
+            "and (:startDate is null or s.orderDate >= :startDate) " +
+            "and (:endDate is null or s.orderDate <= :endDate)")
+    Page<OrderSummary> findFiltered(
+            @Param("status") OrderStatus status,
+            @Param("email") String email,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Pageable pageable);
+
+    // One customer's orders, most recent first
+    @Query("select new com.example.inventory_service_demo.dto.CustomerOrderSummary(" +
+            "s.orderId, s.orderDate, s.status, s.itemCount, s.totalAmount) " +
+            "from OrderSummary s where s.customerEmail = :email order by s.orderDate desc, s.orderId desc")
+    List<CustomerOrderSummary> findHistory(@Param("email") String email, Pageable pageable);
+
+    long countByCustomerEmail(String customerEmail);
+
+    // Update only the status of a summary
+    @Modifying
+    @Query("update OrderSummary s set s.status = :status where s.orderId = :orderId")
+    int updateStatus(@Param("orderId") Long orderId, @Param("status") OrderStatus status);
+}
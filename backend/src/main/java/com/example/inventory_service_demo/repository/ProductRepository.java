@@ -2,14 +2,35 @@ package com.example.inventory_service_demo.repository;
 
 import com.example.inventory_service_demo.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    /** Query cache region of {@link #findBySku(String)}, sized by {@code app.second-level-cache.sku-query-entries}. */
+    String SKU_QUERY_REGION = "product-by-sku";
+
+    // Cached product id per SKU; the product itself comes from the product region
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SKU_QUERY_REGION)
+    })
     Optional<Product> findBySku(String sku);
+
     boolean existsBySku(String sku);
+    List<Product> findBySkuIn(Collection<String> skus);
     List<Product> findByNameContainingIgnoreCase(String name);
+
+    // Must be consumed inside a transaction
+    @Query("select p.sku from Product p")
+    Stream<String> streamAllSkus();
 }
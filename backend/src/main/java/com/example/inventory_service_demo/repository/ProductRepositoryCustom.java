@@ -0,0 +1,21 @@
+package com.example.inventory_service_demo.repository;
+
+import com.example.inventory_service_demo.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Product lookups that Spring Data cannot derive.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Get the products with the given ids, taking those already in the persistence
+     * context or the second-level cache from there and loading only the rest.
+     *
+     * @param ids The product ids
+     * @return The products found, in no particular order
+     */
+    List<Product> loadAllById(Collection<Long> ids);
+}
@@ -0,0 +1,36 @@
+package com.example.inventory_service_demo.repository;
+
+import com.example.inventory_service_demo.model.Product;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Implementation of {@link ProductRepositoryCustom}.
+ */
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    ProductRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Product> loadAllById(Collection<Long> ids) {
+        // Unlike findAllById's "in" query, a multi-load consults the persistence context
+        // and the second-level cache first
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Product.class)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .multiLoad(List.copyOf(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.inventory_service_demo.repository;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * JSON shape of a resource for sparse reads: the fields that can be selected,
+ * each backed by an entity attribute, and the related resources that can be
+ * embedded. {@link ProjectionQuery} turns the fields a request names into the
+ * select list, so unrequested columns and associations are not read.
+ * <p>
+ * Every projection has an {@code id} field, which is always returned.
+ */
+public final class Projection {
+
+    private final Class<?> entity;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+    private final Map<String, Relation> relations = new LinkedHashMap<>();
+
+    private Projection(Class<?> entity) {
+        this.entity = entity;
+    }
+
+    public static Projection of(Class<?> entity) {
+        return new Projection(entity).field("id");
+    }
+
+    /**
+     * Add a field read from the attribute of the same name.
+     */
+    public Projection field(String name) {
+        return field(name, name, UnaryOperator.identity());
+    }
+
+    /**
+     * Add a field read from an attribute path such as {@code product.id}.
+     */
+    public Projection field(String name, String attribute) {
+        return field(name, attribute, UnaryOperator.identity());
+    }
+
+    /**
+     * Add a field whose attribute value is converted before it is returned.
+     */
+    public Projection field(String name, String attribute, UnaryOperator<Object> read) {
+        columns.put(name, new Column(attribute, read));
+        return this;
+    }
+
+    /**
+     * Add a to-one relation, read through a join in the same query.
+     *
+     * @param name The relation name used in {@code embed} and field prefixes
+     * @param attribute The association attribute
+     * @param target The projection of the related entity
+     */
+    public Projection embedOne(String name, String attribute, Projection target) {
+        relations.put(name, new Relation(target, attribute, false));
+        return this;
+    }
+
+    /**
+     * Add a to-many relation, read with one query per chunk of parent ids.
+     *
+     * @param name The relation name used in {@code embed} and field prefixes
+     * @param parentAttribute The attribute of the related entity holding the parent id
+     * @param target The projection of the related entity
+     */
+    public Projection embedMany(String name, String parentAttribute, Projection target) {
+        relations.put(name, new Relation(target, parentAttribute, true));
+        return this;
+    }
+
+    Class<?> entity() {
+        return entity;
+    }
+
+    Map<String, Column> columns() {
+        return Collections.unmodifiableMap(columns);
+    }
+
+    Map<String, Relation> relations() {
+        return Collections.unmodifiableMap(relations);
+    }
+
+    record Column(String attribute, UnaryOperator<Object> read) {
+    }
+
+    record Relation(Projection target, String attribute, boolean many) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.inventory_service_demo.repository;
+
+import com.example.inventory_service_demo.dto.FieldSelection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads resources as JSON-ready maps holding only the fields a
+ * {@link FieldSelection} asks for. The requested fields and to-one relations
+ * become the select list and joins of a tuple query; each embedded to-many
+ * relation is one more query, filtered by parent id in chunks of
+ * {@value #CHUNK_SIZE} unless all parents are listed. No entities are
+ * loaded, so unrequested columns and associations are never read.
+ * <p>
+ * Deliberately not a {@code @Repository}, so the {@link IllegalArgumentException}s
+ * for unknown fields reach the controllers untranslated.
+ */
+@Component
+public class ProjectionQuery {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public ProjectionQuery(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Read every resource of a projection, in id order.
+     *
+     * @throws IllegalArgumentException if the selection names unknown fields or relations
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(Projection projection, FieldSelection selection) {
+        Plan plan = plan(projection, selection);
+        List<Row> rows = select(plan, null, null);
+        embedMany(plan, rows, true);
+        return json(rows);
+    }
+
+    /**
+     * Read the resources of a projection with the given ids, in id order.
+     *
+     * @throws IllegalArgumentException if the selection names unknown fields or relations
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllById(Projection projection, FieldSelection selection,
+                                                 Collection<?> ids) {
+        Plan plan = plan(projection, selection);
+        List<Row> rows = new ArrayList<>(ids.size());
+        for (List<?> chunk : chunks(List.copyOf(ids))) {
+            rows.addAll(select(plan, "id", chunk));
+        }
+        embedMany(plan, rows, false);
+        return json(rows);
+    }
+
+    private static Plan plan(Projection projection, FieldSelection selection) {
+        Set<String> embedded = new HashSet<>();
+        Plan plan = plan(projection, null, selection, embedded, false);
+        for (String embed : selection.embeds()) {
+            if (!embedded.contains(embed)) {
+                throw new IllegalArgumentException("Cannot embed " + embed);
+            }
+        }
+        for (String field : selection.fields()) {
+            int dot = field.indexOf('.');
+            if (dot >= 0 && !embedded.contains(field.substring(0, dot))) {
+                throw new IllegalArgumentException(
+                        "Field " + field + " requires embed=" + field.substring(0, dot));
+            }
+        }
+        return plan;
+    }
+
+    // To-many relations are only followed from resources read by their own query
+    private static Plan plan(Projection projection, String relation, FieldSelection selection,
+                             Set<String> embedded, boolean joined) {
+        Set<String> requested = selection.fieldsOf(relation);
+        for (String field : requested) {
+            if (!projection.columns().containsKey(field)) {
+                throw new IllegalArgumentException(
+                        "Unknown field " + (relation == null ? field : relation + "." + field));
+            }
+        }
+        List<String> columns = new ArrayList<>();
+        for (String column : projection.columns().keySet()) {
+            if (requested.isEmpty() || requested.contains(column) || column.equals("id")) {
+                columns.add(column);
+            }
+        }
+        Map<String, Plan> ones = new LinkedHashMap<>();
+        Map<String, Plan> manys = new LinkedHashMap<>();
+        projection.relations().forEach((name, target) -> {
+            if (!selection.embeds().contains(name) || (joined && target.many())) {
+                return;
+            }
+            embedded.add(name);
+            Plan targetPlan = plan(target.target(), name, selection, embedded, joined || !target.many());
+            (target.many() ? manys : ones).put(name, targetPlan);
+        });
+        return new Plan(projection, columns, ones, manys);
+    }
+
+    private List<Row> select(Plan plan, String keyAttribute, List<?> keys) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<?> root = query.from(plan.projection().entity());
+        List<Selection<?>> selections = new ArrayList<>();
+        if (keyAttribute != null) {
+            Path<?> key = path(root, keyAttribute);
+            selections.add(key);
+            if (keys != null) {
+                query.where(key.in(keys));
+            }
+        }
+        addSelections(root, plan, selections);
+        query.multiselect(selections).orderBy(builder.asc(root.get("id")));
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<Row> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            int[] index = {0};
+            Object key = keyAttribute == null ? null : tuple.get(index[0]++);
+            rows.add(new Row(key, read(tuple, plan, index)));
+        }
+        return rows;
+    }
+
+    private static void addSelections(From<?, ?> from, Plan plan, List<Selection<?>> selections) {
+        for (String column : plan.columns()) {
+            selections.add(path(from, plan.projection().columns().get(column).attribute()));
+        }
+        plan.ones().forEach((name, target) -> {
+            String attribute = plan.projection().relations().get(name).attribute();
+            addSelections(from.join(attribute, JoinType.LEFT), target, selections);
+        });
+    }
+
+    private static Map<String, Object> read(Tuple tuple, Plan plan, int[] index) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        for (String column : plan.columns()) {
+            Object value = tuple.get(index[0]++);
+            json.put(column, value == null ? null : plan.projection().columns().get(column).read().apply(value));
+        }
+        plan.ones().forEach((name, target) -> {
+            Map<String, Object> related = read(tuple, target, index);
+            json.put(name, related.get("id") == null ? null : related);
+        });
+        return json;
+    }
+
+    // With all parents loaded the related rows are read in one query instead of by parent ids
+    private void embedMany(Plan plan, List<Row> rows, boolean allParents) {
+        if (plan.manys().isEmpty() || rows.isEmpty()) {
+            return;
+        }
+        List<Object> ids = rows.stream().map(row -> row.json().get("id")).toList();
+        plan.manys().forEach((name, target) -> {
+            String parentAttribute = plan.projection().relations().get(name).attribute();
+            List<Row> children = new ArrayList<>();
+            if (allParents) {
+                children.addAll(select(target, parentAttribute, null));
+            } else {
+                for (List<?> chunk : chunks(ids)) {
+                    children.addAll(select(target, parentAttribute, chunk));
+                }
+            }
+            embedMany(target, children, allParents);
+            Map<Object, List<Map<String, Object>>> byParent = new HashMap<>();
+            for (Row child : children) {
+                byParent.computeIfAbsent(child.key(), key -> new ArrayList<>()).add(child.json());
+            }
+            for (Row row : rows) {
+                row.json().put(name, byParent.getOrDefault(row.json().get("id"), List.of()));
+            }
+        });
+    }
+
+    private static Path<?> path(From<?, ?> from, String attribute) {
+        Path<?> path = from;
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+
+    private static List<? extends List<?>> chunks(List<?> values) {
+        List<List<?>> chunks = new ArrayList<>();
+        for (int start = 0; start < values.size(); start += CHUNK_SIZE) {
+            chunks.add(values.subList(start, Math.min(values.size(), start + CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    private static List<Map<String, Object>> json(List<Row> rows) {
+        return rows.stream().map(Row::json).toList();
+    }
+
+    /**
+     * The columns and relations read for one resource.
+     */
+    private record Plan(Projection projection, List<String> columns, Map<String, Plan> ones,
+                        Map<String, Plan> manys) {
+    }
+
+    /**
+     * A resource read by a query, with the parent id it was filtered on.
+     */
+    private record Row(Object key, Map<String, Object> json) {
+    }
+}
@@ -2,10 +2,19 @@ package com.example.inventory_service_demo.repository;
 
 import com.example.inventory_service_demo.model.OrderStatus;
 import com.example.inventory_service_demo.model.PurchaseOrder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,6 +25,12 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
     
     // Find orders by status
     List<PurchaseOrder> findByStatus(OrderStatus status);
+
+    // Find a page of orders by status, used until the order status index is loaded
+    Page<PurchaseOrder> findByStatus(OrderStatus status, Pageable pageable);
+
+    // Count orders by status, used until the order status index is loaded
+    long countByStatus(OrderStatus status);
     
     // Find orders by customer email
     List<PurchaseOrder> findByCustomerEmail(String customerEmail);
@@ -25,4 +40,43 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
     
     // Find orders by customer name containing the given string (case insensitive)
     List<PurchaseOrder> findByCustomerNameContainingIgnoreCase(String customerName);
+
+    // Oldest orders in the given statuses placed before a cut-off, for archiving
+    @Query("select o.id from PurchaseOrder o where o.status in :statuses and o.orderDate < :before " +
+            "order by o.orderDate, o.id")
+    List<Long> findIdsByStatusInAndOrderDateBefore(@Param("statuses") Collection<OrderStatus> statuses,
+                                                   @Param("before") LocalDateTime before,
+                                                   Pageable pageable);
+
+    @Query("select distinct o from PurchaseOrder o left join fetch o.items i left join fetch i.product " +
+            "where o.id in :ids")
+    List<PurchaseOrder> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Next orders of a wave in the given status, after the (orderDate, id) cursor; null filters match all
+    @Query("select o.id from PurchaseOrder o where o.status = :status " +
+            "and (:email is null or o.customerEmail = :email) " +
+            "and (:before is null or o.orderDate < :before) " +
+            "and (:afterDate is null or o.orderDate > :afterDate or (o.orderDate = :afterDate and o.id > :afterId)) " +
+            "order by o.orderDate, o.id")
+    List<Long> findWaveIds(@Param("status") OrderStatus status,
+                           @Param("email") String email,
+                           @Param("before") LocalDateTime before,
+                           @Param("afterDate") LocalDateTime afterDate,
+                           @Param("afterId") Long afterId,
+                           Pageable pageable);
+
+    // Not dirty-checked, so status changes made in memory are not flushed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select distinct o from PurchaseOrder o left join fetch o.items i left join fetch i.product " +
+            "where o.id in :ids")
+    List<PurchaseOrder> findReadOnlyWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Move the orders still in one status to another; returns the number of orders changed
+    @Modifying
+    @Query("update PurchaseOrder o set o.status = :to where o.id in :ids and o.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") OrderStatus from, @Param("to") OrderStatus to);
+
+    @Modifying
+    @Query("delete from OrderItem i where i.order.id in :orderIds")
+    int deleteItemsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
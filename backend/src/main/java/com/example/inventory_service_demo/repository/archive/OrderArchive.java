@@ -0,0 +1,228 @@
+package com.example.inventory_service_demo.repository.archive;
+
+import com.example.inventory_service_demo.model.Money;
+import com.example.inventory_service_demo.model.OrderItem;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.ProductRepository;
+import com.example.inventory_service_demo.repository.archive.OrderSegment.ArchivedItem;
+import com.example.inventory_service_demo.repository.archive.OrderSegment.ArchivedOrder;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Closed orders moved out of the database, stored as {@link OrderSegment} files
+ * partitioned by order day: {@code <directory>/2024-03-17/orders-<minId>-<maxId>.ords}.
+ * An in-memory index of the segment files, rebuilt from the directory on startup,
+ * lets date range and id lookups open only the segments that can match.
+ * <p>
+ * Segments are written to a temporary file, synced and then moved into place,
+ * so a crash never leaves a partial segment behind. An order archived twice,
+ * e.g. because the database delete after writing its segment failed, is
+ * returned once.
+ */
+public class OrderArchive {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("orders-(\\d+)-(\\d+)\\.ords");
+
+    /**
+     * A segment file and the range of order ids it holds.
+     */
+    public record Segment(LocalDate day, long minId, long maxId, Path path) {
+    }
+
+    private final Path directory;
+    private final ProductRepository productRepository;
+    private final ConcurrentSkipListMap<LocalDate, List<Segment>> partitions = new ConcurrentSkipListMap<>();
+
+    public OrderArchive(Path directory, ProductRepository productRepository) {
+        this.directory = directory;
+        this.productRepository = productRepository;
+        try {
+            Files.createDirectories(directory);
+            loadIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open order archive at " + directory, e);
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        try (DirectoryStream<Path> days = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path dayDirectory : days) {
+                LocalDate day;
+                try {
+                    day = LocalDate.parse(dayDirectory.getFileName().toString());
+                } catch (DateTimeParseException e) {
+                    continue;
+                }
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(dayDirectory, "orders-*.ords")) {
+                    for (Path file : files) {
+                        Matcher name = SEGMENT_NAME.matcher(file.getFileName().toString());
+                        if (name.matches()) {
+                            add(new Segment(day, Long.parseLong(name.group(1)), Long.parseLong(name.group(2)), file));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void add(Segment segment) {
+        List<Segment> segments = partitions.computeIfAbsent(segment.day(), day -> new CopyOnWriteArrayList<>());
+        segments.removeIf(existing -> existing.path().equals(segment.path()));
+        segments.add(segment);
+    }
+
+    /**
+     * Write orders of one day, with their items loaded, as a new segment.
+     *
+     * @param day The day all the orders were placed on
+     * @param orders The orders to archive
+     * @return The segment written
+     */
+    public Segment write(LocalDate day, List<PurchaseOrder> orders) {
+        List<PurchaseOrder> sorted = orders.stream().sorted(Comparator.comparing(PurchaseOrder::getId)).toList();
+        long minId = sorted.get(0).getId();
+        long maxId = sorted.get(sorted.size() - 1).getId();
+        try {
+            Path dayDirectory = Files.createDirectories(directory.resolve(day.toString()));
+            Path target = dayDirectory.resolve("orders-" + minId + "-" + maxId + ".ords");
+            Path temporary = Files.createTempFile(dayDirectory, "orders-", ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                OutputStream out = Channels.newOutputStream(channel);
+                OrderSegment.write(sorted, out);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Segment segment = new Segment(day, minId, maxId, target);
+            add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write order segment for " + day, e);
+        }
+    }
+
+    /**
+     * Find archived orders placed between two date-times, inclusive.
+     */
+    public List<PurchaseOrder> findBetween(LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(end)) {
+            return List.of();
+        }
+        List<Segment> segments = partitions.subMap(start.toLocalDate(), true, end.toLocalDate(), true)
+                .values().stream()
+                .flatMap(Collection::stream)
+                .toList();
+        return toOrders(readAll(segments).values().stream()
+                .filter(order -> !order.orderDate().isBefore(start) && !order.orderDate().isAfter(end))
+                .toList());
+    }
+
+    /**
+     * Find an archived order by id.
+     */
+    public Optional<PurchaseOrder> findById(long id) {
+        List<Segment> segments = partitions.values().stream()
+                .flatMap(Collection::stream)
+                .filter(segment -> segment.minId() <= id && id <= segment.maxId())
+                .toList();
+        ArchivedOrder order = readAll(segments).get(id);
+        return order == null ? Optional.empty() : Optional.of(toOrders(List.of(order)).get(0));
+    }
+
+    /**
+     * Get the day of the oldest archived order, if any.
+     */
+    public Optional<LocalDate> getOldestDay() {
+        return partitions.isEmpty() ? Optional.empty() : Optional.of(partitions.firstKey());
+    }
+
+    /**
+     * Get the day of the newest archived order, if any.
+     */
+    public Optional<LocalDate> getNewestDay() {
+        return partitions.isEmpty() ? Optional.empty() : Optional.of(partitions.lastKey());
+    }
+
+    public List<Segment> getSegments() {
+        return partitions.values().stream().flatMap(Collection::stream).toList();
+    }
+
+    private Map<Long, ArchivedOrder> readAll(List<Segment> segments) {
+        Map<Long, ArchivedOrder> orders = new LinkedHashMap<>();
+        for (Segment segment : segments) {
+            try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(segment.path()))) {
+                for (ArchivedOrder order : OrderSegment.read(in)) {
+                    orders.putIfAbsent(order.id(), order);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read order segment " + segment.path(), e);
+            }
+        }
+        return orders;
+    }
+
+    // Rebuild detached orders; items point at the current products
+    private List<PurchaseOrder> toOrders(List<ArchivedOrder> archived) {
+        Set<Long> productIds = archived.stream()
+                .flatMap(order -> order.items().stream())
+                .map(ArchivedItem::productId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<PurchaseOrder> orders = new ArrayList<>(archived.size());
+        for (ArchivedOrder source : archived) {
+            PurchaseOrder order = new PurchaseOrder(source.customerName(), source.customerEmail());
+            order.setId(source.id());
+            order.setOrderDate(source.orderDate());
+            order.setStatus(source.status());
+            for (ArchivedItem sourceItem : source.items()) {
+                OrderItem item = new OrderItem();
+                item.setId(sourceItem.id());
+                Product product = products.get(sourceItem.productId());
+                item.setProduct(product != null ? product : deletedProduct(sourceItem));
+                item.setUnitPrice(Money.toDecimal(sourceItem.unitPrice()));
+                item.setQuantity(sourceItem.quantity());
+                order.addItem(item);
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static Product deletedProduct(ArchivedItem item) {
+        Product product = new Product();
+        product.setId(item.productId());
+        product.setPrice(Money.toDecimal(item.unitPrice()));
+        return product;
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.inventory_service_demo.repository.archive;
+
+import com.example.inventory_service_demo.model.Money;
+import com.example.inventory_service_demo.model.OrderItem;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Columnar file format for archived orders. Each field is stored as its own
+ * column, delta- and varint-encoded where that helps, and deflated separately:
+ * <pre>
+ * "ORDSEG1" | orderCount | itemCount | columnCount | (rawLength, compressedLength, bytes) per column
+ * </pre>
+ * Order columns: id, orderDate (epoch microseconds), status, customerName,
+ * customerEmail, item count. Item columns: id, productId, quantity, unitPrice
+ * (minor units). Items are stored in order sequence.
+ */
+public final class OrderSegment {
+
+    private static final byte[] MAGIC = "ORDSEG1".getBytes(StandardCharsets.US_ASCII);
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final int COLUMNS = 10;
+
+    /**
+     * An order as stored in a segment.
+     */
+    public record ArchivedOrder(long id, LocalDateTime orderDate, OrderStatus status,
+                                String customerName, String customerEmail, List<ArchivedItem> items) {
+    }
+
+    /**
+     * An order line as stored in a segment; the subtotal is unit price times quantity.
+     */
+    public record ArchivedItem(long id, long productId, int quantity, long unitPrice) {
+    }
+
+    private OrderSegment() {
+    }
+
+    /**
+     * Encode orders, which must have their items loaded, into a segment.
+     */
+    public static void write(List<PurchaseOrder> orders, OutputStream out) throws IOException {
+        Column ids = new Column();
+        Column dates = new Column();
+        Column statuses = new Column();
+        Column names = new Column();
+        Column emails = new Column();
+        Column itemCounts = new Column();
+        Column itemIds = new Column();
+        Column productIds = new Column();
+        Column quantities = new Column();
+        Column unitPrices = new Column();
+
+        long previousId = 0;
+        long previousDate = 0;
+        long previousItemId = 0;
+        int itemCount = 0;
+        for (PurchaseOrder order : orders) {
+            ids.writeSignedVarLong(order.getId() - previousId);
+            previousId = order.getId();
+            long date = toEpochMicros(order.getOrderDate());
+            dates.writeSignedVarLong(date - previousDate);
+            previousDate = date;
+            statuses.out.writeByte(order.getStatus().ordinal());
+            names.writeString(order.getCustomerName());
+            emails.writeString(order.getCustomerEmail());
+            itemCounts.writeVarLong(order.getItems().size());
+            for (OrderItem item : order.getItems()) {
+                itemIds.writeSignedVarLong(item.getId() - previousItemId);
+                previousItemId = item.getId();
+                productIds.writeVarLong(item.getProduct().getId());
+                quantities.writeVarLong(item.getQuantity());
+                unitPrices.writeSignedVarLong(Money.toMinorUnits(item.getUnitPrice()));
+                itemCount++;
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeInt(orders.size());
+        data.writeInt(itemCount);
+        data.writeInt(COLUMNS);
+        for (Column column : List.of(ids, dates, statuses, names, emails, itemCounts,
+                itemIds, productIds, quantities, unitPrices)) {
+            column.writeCompressed(data);
+        }
+        data.flush();
+    }
+
+    /**
+     * Decode all orders of a segment.
+     */
+    public static List<ArchivedOrder> read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] magic = new byte[MAGIC.length];
+        data.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not an order segment");
+        }
+        int orderCount = data.readInt();
+        data.readInt();
+        int columnCount = data.readInt();
+        if (columnCount != COLUMNS) {
+            throw new IOException("Unexpected column count " + columnCount);
+        }
+        Reader ids = Reader.decompress(data);
+        Reader dates = Reader.decompress(data);
+        Reader statuses = Reader.decompress(data);
+        Reader names = Reader.decompress(data);
+        Reader emails = Reader.decompress(data);
+        Reader itemCounts = Reader.decompress(data);
+        Reader itemIds = Reader.decompress(data);
+        Reader productIds = Reader.decompress(data);
+        Reader quantities = Reader.decompress(data);
+        Reader unitPrices = Reader.decompress(data);
+
+        List<ArchivedOrder> orders = new ArrayList<>(orderCount);
+        long id = 0;
+        long date = 0;
+        long itemId = 0;
+        for (int i = 0; i < orderCount; i++) {
+            id += ids.readSignedVarLong();
+            date += dates.readSignedVarLong();
+            OrderStatus status = STATUSES[statuses.readByte()];
+            String name = names.readString();
+            String email = emails.readString();
+            int items = (int) itemCounts.readVarLong();
+            List<ArchivedItem> orderItems = new ArrayList<>(items);
+            for (int j = 0; j < items; j++) {
+                itemId += itemIds.readSignedVarLong();
+                orderItems.add(new ArchivedItem(itemId, productIds.readVarLong(),
+                        (int) quantities.readVarLong(), unitPrices.readSignedVarLong()));
+            }
+            orders.add(new ArchivedOrder(id, fromEpochMicros(date), status, name, email, List.copyOf(orderItems)));
+        }
+        return orders;
+    }
+
+    private static long toEpochMicros(LocalDateTime dateTime) {
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), dateTime);
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC).plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static final class Column {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+
+        // Zigzag so small negative deltas stay short
+        void writeSignedVarLong(long value) throws IOException {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        // Length + 1 so null can be told apart from the empty string
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1L);
+            out.write(utf8);
+        }
+
+        void writeCompressed(DataOutputStream target) throws IOException {
+            byte[] raw = bytes.toByteArray();
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                deflater.setInput(raw);
+                deflater.finish();
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+                byte[] buffer = new byte[8192];
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+                target.writeInt(raw.length);
+                target.writeInt(compressed.size());
+                compressed.writeTo(target);
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        static Reader decompress(DataInputStream in) throws IOException {
+            byte[] raw = new byte[in.readInt()];
+            byte[] compressed = new byte[in.readInt()];
+            in.readFully(compressed);
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                int read = 0;
+                while (read < raw.length && !inflater.finished()) {
+                    read += inflater.inflate(raw, read, raw.length - read);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt order segment column", e);
+            } finally {
+                inflater.end();
+            }
+            return new Reader(raw);
+        }
+
+        int readByte() {
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        long readSignedVarLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length == 0) {
+                return null;
+            }
+            String value = new String(bytes, position, (int) length - 1, StandardCharsets.UTF_8);
+            position += (int) length - 1;
+            return value;
+        }
+    }
+}
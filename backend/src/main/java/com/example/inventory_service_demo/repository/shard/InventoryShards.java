@@ -0,0 +1,50 @@
+package com.example.inventory_service_demo.repository.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * The shard databases holding inventory stock, with a router deciding which
+ * shard owns a product. Each shard has its own pool and local transactions.
+ */
+public class InventoryShards implements AutoCloseable {
+
+    private final List<HikariDataSource> dataSources;
+    private final List<JdbcTemplate> jdbcTemplates;
+    private final List<TransactionTemplate> transactionTemplates;
+    private final ShardRouter router;
+
+    public InventoryShards(List<HikariDataSource> dataSources) {
+        this.dataSources = List.copyOf(dataSources);
+        this.jdbcTemplates = dataSources.stream().map(JdbcTemplate::new).toList();
+        this.transactionTemplates = dataSources.stream()
+                .map(dataSource -> new TransactionTemplate(new DataSourceTransactionManager(dataSource)))
+                .toList();
+        this.router = new ShardRouter(dataSources.size());
+    }
+
+    public int count() {
+        return dataSources.size();
+    }
+
+    public int shardFor(long productId) {
+        return router.shardFor(productId);
+    }
+
+    public JdbcTemplate jdbc(int shard) {
+        return jdbcTemplates.get(shard);
+    }
+
+    public TransactionTemplate transactions(int shard) {
+        return transactionTemplates.get(shard);
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.inventory_service_demo.repository.shard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Moves stock rows to the shard that owns them under the current shard count,
+ * e.g. after a shard was added. Each row is moved in a transaction on its old
+ * shard that locks it ({@code select ... for update}), so concurrent stock
+ * changes wait for the move instead of being lost, and deletes it guarded on the
+ * quantity read. Inside that transaction the quantity is merged into the new
+ * shard, adding to any stock written there since the change. If the old shard
+ * cannot commit the delete, the merge is taken back out of the new shard.
+ */
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private static final String LOCK = "select quantity from inventory_stock where product_id = ? for update";
+    private static final String DELETE = "delete from inventory_stock where product_id = ? and quantity = ?";
+    private static final String UNDO = "update inventory_stock set quantity = quantity - ? where product_id = ?";
+
+    private final InventoryShards shards;
+
+    public ShardRebalancer(InventoryShards shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * @return number of rows moved, keyed by "source->target"
+     */
+    public Map<String, Integer> rebalance() {
+        Map<String, Integer> moved = new TreeMap<>();
+        for (int source = 0; source < shards.count(); source++) {
+            List<Long> productIds = shards.jdbc(source).queryForList("select product_id from inventory_stock", Long.class);
+            for (long productId : productIds) {
+                int target = shards.shardFor(productId);
+                if (target != source && move(productId, source, target)) {
+                    moved.merge(source + "->" + target, 1, Integer::sum);
+                }
+            }
+        }
+        log.info("Shard rebalance moved {}", moved);
+        return moved;
+    }
+
+    private boolean move(long productId, int source, int target) {
+        int[] merged = new int[1];
+        try {
+            return Boolean.TRUE.equals(shards.transactions(source).execute(status -> {
+                List<Integer> locked = shards.jdbc(source).queryForList(LOCK, Integer.class, productId);
+                if (locked.isEmpty()) {
+                    return false;
+                }
+                int quantity = locked.get(0);
+                shards.transactions(target).executeWithoutResult(targetStatus -> {
+                    if (shards.jdbc(target).update(ShardedInventoryStore.ADJUST, quantity, productId, quantity) == 0) {
+                        shards.jdbc(target).update(ShardedInventoryStore.INSERT, productId, quantity);
+                    }
+                });
+                merged[0] = quantity;
+                if (shards.jdbc(source).update(DELETE, productId, quantity) == 0) {
+                    throw new IllegalStateException("Stock of product " + productId + " changed on shard " + source
+                            + " while it was moved");
+                }
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            if (merged[0] != 0) {
+                shards.transactions(target).executeWithoutResult(status ->
+                        shards.jdbc(target).update(UNDO, merged[0], productId));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of stock rows stored on each shard
+     */
+    public List<Integer> rowCounts() {
+        return IntStream.range(0, shards.count())
+                .mapToObj(shard -> shards.jdbc(shard).queryForObject("select count(*) from inventory_stock", Integer.class))
+                .toList();
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.inventory_service_demo.repository.shard;
+
+import com.example.inventory_service_demo.model.Inventory;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.repository.InventoryStore;
+import com.example.inventory_service_demo.repository.ProductRepository;
+import com.example.inventory_service_demo.service.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * {@link InventoryStore} that keeps stock in the {@code inventory_stock} table of
+ * the shard owning each product. Products themselves stay in the main database.
+ * <p>
+ * Multi-product changes run as a saga: the changes for each shard are applied in
+ * one local transaction per shard, and if a later shard rejects its changes, or
+ * the caller's transaction rolls back afterwards, the shards already committed
+ * are compensated with the inverse changes.
+ */
+public class ShardedInventoryStore implements InventoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedInventoryStore.class);
+
+    static final String ADJUST =
+            "update inventory_stock set quantity = quantity + ? where product_id = ? and quantity + ? >= 0";
+    static final String SET = "update inventory_stock set quantity = ? where product_id = ?";
+    static final String INSERT = "insert into inventory_stock (product_id, quantity) values (?, ?)";
+    static final String SELECT_ONE = "select quantity from inventory_stock where product_id = ?";
+    static final String SELECT_ALL = "select product_id, quantity from inventory_stock";
+    // Product ids per IN list
+    private static final int ID_CHUNK = 1000;
+
+    private final InventoryShards shards;
+    private final ProductRepository productRepository;
+    private final Counter compensations;
+    private final Counter failedCompensations;
+
+    public ShardedInventoryStore(InventoryShards shards, ProductRepository productRepository,
+                                 MeterRegistry meterRegistry) {
+        this.shards = shards;
+        this.productRepository = productRepository;
+        this.compensations = Counter.builder("inventory.shard.compensations")
+                .description("Shard changes undone after a later step of the saga failed")
+                .register(meterRegistry);
+        this.failedCompensations = Counter.builder("inventory.shard.compensations.failed")
+                .description("Compensations that could not be applied and need manual repair")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<Inventory> findAll() {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            shards.jdbc(shard).query(SELECT_ALL, rs -> {
+                quantities.put(rs.getLong("product_id"), rs.getInt("quantity"));
+            });
+        }
+        List<Inventory> inventory = new ArrayList<>(quantities.size());
+        for (Product product : productRepository.findAllById(quantities.keySet())) {
+            inventory.add(new Inventory(product, quantities.get(product.getId())));
+        }
+        inventory.sort(Comparator.comparing(item -> item.getProduct().getId()));
+        return inventory;
+    }
+
+    @Override
+    public Optional<Inventory> findByProductId(Long productId) {
+        return findQuantity(productId).flatMap(quantity ->
+                productRepository.findById(productId).map(product -> new Inventory(product, quantity)));
+    }
+
+    @Override
+    public Inventory setQuantity(Product product, int quantity) {
+        int shard = shards.shardFor(product.getId());
+        shards.transactions(shard).executeWithoutResult(status -> {
+            if (shards.jdbc(shard).update(SET, quantity, product.getId()) == 0) {
+                shards.jdbc(shard).update(INSERT, product.getId(), quantity);
+            }
+        });
+        return new Inventory(product, quantity);
+    }
+
+    @Override
+    public Inventory adjustQuantity(Product product, int quantityChange) {
+        adjustQuantities(Map.of(product.getId(), quantityChange));
+        return new Inventory(product, findQuantity(product.getId()).orElse(0));
+    }
+
+    @Override
+    public void forEachQuantity(QuantityConsumer consumer) {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            shards.jdbc(shard).query(SELECT_ALL, rs -> {
+                consumer.accept(rs.getLong("product_id"), rs.getInt("quantity"));
+            });
+        }
+    }
+
+    @Override
+    public Map<Long, Integer> findQuantities(Collection<Long> productIds) {
+        Map<Integer, List<Long>> idsByShard = new TreeMap<>();
+        productIds.forEach(productId -> idsByShard
+                .computeIfAbsent(shards.shardFor(productId), shard -> new ArrayList<>())
+                .add(productId));
+        Map<Long, Integer> quantities = new HashMap<>(productIds.size() * 2);
+        idsByShard.forEach((shard, ids) -> {
+            for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + ID_CHUNK));
+                String parameters = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                shards.jdbc(shard).query(SELECT_ALL + " where product_id in (" + parameters + ")", rs -> {
+                    quantities.put(rs.getLong("product_id"), rs.getInt("quantity"));
+                }, chunk.toArray());
+            }
+        });
+        return quantities;
+    }
+
+    @Override
+    public void adjustQuantities(Map<Long, Integer> quantityChanges) {
+        // Visit shards in a fixed order so concurrent sagas lock rows consistently
+        Map<Integer, Map<Long, Integer>> changesByShard = new TreeMap<>();
+        quantityChanges.forEach((productId, quantityChange) -> changesByShard
+                .computeIfAbsent(shards.shardFor(productId), shard -> new LinkedHashMap<>())
+                .put(productId, quantityChange));
+
+        Map<Integer, Map<Long, Integer>> committed = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Map<Long, Integer>> entry : changesByShard.entrySet()) {
+            try {
+                applyOnShard(entry.getKey(), entry.getValue());
+            } catch (RuntimeException e) {
+                compensate(committed);
+                throw e;
+            }
+            committed.put(entry.getKey(), entry.getValue());
+        }
+
+        TransactionCallbacks.afterRollback(() -> compensate(committed));
+    }
+
+    private Optional<Integer> findQuantity(Long productId) {
+        List<Integer> quantity = shards.jdbc(shards.shardFor(productId))
+                .queryForList(SELECT_ONE, Integer.class, productId);
+        return quantity.stream().findFirst();
+    }
+
+    private void applyOnShard(int shard, Map<Long, Integer> changes) {
+        shards.transactions(shard).executeWithoutResult(status -> changes.forEach((productId, quantityChange) -> {
+            if (shards.jdbc(shard).update(ADJUST, quantityChange, productId, quantityChange) > 0) {
+                return;
+            }
+            if (!shards.jdbc(shard).queryForList(SELECT_ONE, Integer.class, productId).isEmpty()) {
+                throw new IllegalArgumentException("Cannot reduce inventory below zero");
+            }
+            if (quantityChange < 0) {
+                throw new IllegalArgumentException("Cannot reduce non-existent inventory");
+            }
+            shards.jdbc(shard).update(INSERT, productId, quantityChange);
+        }));
+    }
+
+    private void compensate(Map<Integer, Map<Long, Integer>> committed) {
+        committed.forEach((shard, changes) -> {
+            Map<Long, Integer> inverse = new LinkedHashMap<>();
+            changes.forEach((productId, quantityChange) -> inverse.put(productId, -quantityChange));
+            try {
+                applyOnShard(shard, inverse);
+                compensations.increment();
+            } catch (RuntimeException e) {
+                failedCompensations.increment();
+                log.error("Could not compensate stock changes {} on shard {}", changes, shard, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,446 @@
+package com.example.inventory_service_demo.repository.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary file format of a database snapshot: the rows of a list of tables, in
+ * blocks of rows of one table that are deflated and checksummed separately, so a
+ * reader can verify the whole file first and then decode and load blocks in parallel.
+ * <pre>
+ * "INVSNAP1" | headerLength | header | block... | end
+ * header: createdAt (epoch millis) | tableCount | (name | columnCount | (name | type)...)...
+ * block:  1 | table | rowCount | rawLength | compressedLength | crc32 | bytes
+ * end:    0 | blockCount | rowCount
+ * </pre>
+ * Within a block every value is a presence byte followed, unless {@code null},
+ * by its encoding: zigzag varints for {@link Type#LONG} and {@link Type#INT},
+ * length-prefixed UTF-8 for {@link Type#STRING}, scale and two's-complement
+ * unscaled value for {@link Type#DECIMAL}, epoch microseconds for {@link Type#TIMESTAMP}.
+ * Files are written and read through {@link FileChannel}s; block payloads are
+ * memory-mapped for reading.
+ */
+public final class SnapshotFile {
+
+    private static final byte[] MAGIC = "INVSNAP1".getBytes(StandardCharsets.US_ASCII);
+    private static final byte BLOCK = 1;
+    private static final byte END = 0;
+    private static final int BLOCK_HEADER = 1 + 5 * Integer.BYTES;
+    private static final int END_LENGTH = 1 + Integer.BYTES + Long.BYTES;
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    /**
+     * Column types a snapshot can hold.
+     */
+    public enum Type {
+        LONG, INT, STRING, DECIMAL, TIMESTAMP
+    }
+
+    public record Column(String name, Type type) {
+    }
+
+    public record Table(String name, List<Column> columns) {
+    }
+
+    /**
+     * A verified block of rows of one table; {@code data} is its compressed payload.
+     */
+    public record Block(int table, int rowCount, int rawLength, ByteBuffer data) {
+    }
+
+    private final Instant createdAt;
+    private final List<Table> tables;
+    private final List<Block> blocks;
+    private final long rowCount;
+
+    private SnapshotFile(Instant createdAt, List<Table> tables, List<Block> blocks, long rowCount) {
+        this.createdAt = createdAt;
+        this.tables = tables;
+        this.blocks = blocks;
+        this.rowCount = rowCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<Table> getTables() {
+        return tables;
+    }
+
+    public List<Block> getBlocks() {
+        return blocks;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Open a snapshot and verify its structure and every block checksum.
+     *
+     * @param path The snapshot file
+     * @return The snapshot, its blocks mapped into memory
+     * @throws IOException if the file cannot be read, is truncated or is corrupt
+     */
+    public static SnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer start = read(channel, 0, MAGIC.length + Integer.BYTES);
+            byte[] magic = new byte[MAGIC.length];
+            start.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a database snapshot: " + path);
+            }
+            int headerLength = start.getInt();
+            long position = MAGIC.length + Integer.BYTES;
+            ByteBuffer header = read(channel, position, headerLength);
+            position += headerLength;
+            Instant createdAt = Instant.ofEpochMilli(header.getLong());
+            List<Table> tables = readTables(header);
+
+            List<Block> blocks = new ArrayList<>();
+            long rows = 0;
+            while (true) {
+                if (position + 1 > size) {
+                    throw new IOException("Snapshot ends without an end marker: " + path);
+                }
+                byte tag = read(channel, position, 1).get();
+                if (tag == END) {
+                    ByteBuffer end = read(channel, position, END_LENGTH);
+                    end.get();
+                    if (end.getInt() != blocks.size() || end.getLong() != rows
+                            || position + END_LENGTH != size) {
+                        throw new IOException("Snapshot end marker does not match its blocks: " + path);
+                    }
+                    break;
+                }
+                if (tag != BLOCK) {
+                    throw new IOException("Corrupt snapshot block at " + position + ": " + path);
+                }
+                ByteBuffer blockHeader = read(channel, position, BLOCK_HEADER);
+                blockHeader.get();
+                int table = blockHeader.getInt();
+                int rowCount = blockHeader.getInt();
+                int rawLength = blockHeader.getInt();
+                int compressedLength = blockHeader.getInt();
+                int checksum = blockHeader.getInt();
+                position += BLOCK_HEADER;
+                if (table < 0 || table >= tables.size() || compressedLength < 0
+                        || position + compressedLength > size) {
+                    throw new IOException("Corrupt snapshot block at " + position + ": " + path);
+                }
+                ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, position, compressedLength);
+                CRC32 crc = new CRC32();
+                crc.update(data.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    throw new IOException("Checksum mismatch in snapshot block at " + position + ": " + path);
+                }
+                blocks.add(new Block(table, rowCount, rawLength, data));
+                rows += rowCount;
+                position += compressedLength;
+            }
+            return new SnapshotFile(createdAt, tables, List.copyOf(blocks), rows);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Corrupt snapshot header: " + path, e);
+        }
+    }
+
+    /**
+     * Decode the rows of a block, values in the column order of its table.
+     *
+     * @param block A block of this snapshot
+     * @return The rows
+     * @throws IOException if the block does not inflate to its recorded length
+     */
+    public List<Object[]> decode(Block block) throws IOException {
+        byte[] raw = new byte[block.rawLength()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block.data().duplicate());
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, read, raw.length - read);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != raw.length) {
+                throw new IOException("Snapshot block inflates to " + read + " bytes instead of " + raw.length);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt snapshot block", e);
+        } finally {
+            inflater.end();
+        }
+
+        List<Column> columns = tables.get(block.table()).columns();
+        ByteBuffer in = ByteBuffer.wrap(raw);
+        List<Object[]> rows = new ArrayList<>(block.rowCount());
+        try {
+            for (int i = 0; i < block.rowCount(); i++) {
+                Object[] row = new Object[columns.size()];
+                for (int c = 0; c < row.length; c++) {
+                    row[c] = in.get() == 0 ? null : readValue(in, columns.get(c).type());
+                }
+                rows.add(row);
+            }
+        } catch (BufferUnderflowException | NegativeArraySizeException | ArithmeticException e) {
+            throw new IOException("Corrupt snapshot block", e);
+        }
+        return rows;
+    }
+
+    /**
+     * Start writing a snapshot of the given tables to a channel.
+     *
+     * @param channel An empty file channel opened for writing
+     * @param tables The tables, in the order their rows may be written
+     * @param blockRows The maximum number of rows per block
+     * @return The writer, which must be {@link Writer#finish() finished}
+     */
+    public static Writer write(FileChannel channel, List<Table> tables, int blockRows) throws IOException {
+        return new Writer(channel, tables, blockRows);
+    }
+
+    /**
+     * Appends rows to a snapshot, a block at a time.
+     */
+    public static final class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final List<Table> tables;
+        private final int blockRows;
+        private final Encoder[] pending;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private int blockCount;
+        private long rowCount;
+
+        private Writer(FileChannel channel, List<Table> tables, int blockRows) throws IOException {
+            if (blockRows < 1) {
+                throw new IllegalArgumentException("Block size must be at least one row");
+            }
+            this.channel = channel;
+            this.tables = List.copyOf(tables);
+            this.blockRows = blockRows;
+            this.pending = new Encoder[tables.size()];
+            Encoder header = new Encoder();
+            header.out.writeLong(System.currentTimeMillis());
+            header.out.writeInt(tables.size());
+            for (Table table : tables) {
+                header.writeUtf(table.name());
+                header.out.writeInt(table.columns().size());
+                for (Column column : table.columns()) {
+                    header.writeUtf(column.name());
+                    header.out.writeByte(column.type().ordinal());
+                }
+            }
+            byte[] headerBytes = header.bytes.toByteArray();
+            ByteBuffer start = ByteBuffer.allocate(MAGIC.length + Integer.BYTES + headerBytes.length);
+            start.put(MAGIC).putInt(headerBytes.length).put(headerBytes).flip();
+            writeFully(start);
+        }
+
+        /**
+         * Add a row of a table, values in the order of its columns.
+         */
+        public void add(int table, Object[] row) throws IOException {
+            Encoder encoder = pending[table];
+            if (encoder == null) {
+                encoder = pending[table] = new Encoder();
+            }
+            List<Column> columns = tables.get(table).columns();
+            for (int c = 0; c < columns.size(); c++) {
+                encoder.writeValue(row[c], columns.get(c).type());
+            }
+            if (++encoder.rows == blockRows) {
+                flush(table);
+            }
+        }
+
+        /**
+         * Write the remaining rows and the end marker and sync the file.
+         *
+         * @return The number of rows written
+         */
+        public long finish() throws IOException {
+            for (int table = 0; table < pending.length; table++) {
+                flush(table);
+            }
+            ByteBuffer end = ByteBuffer.allocate(END_LENGTH);
+            end.put(END).putInt(blockCount).putLong(rowCount).flip();
+            writeFully(end);
+            channel.force(true);
+            return rowCount;
+        }
+
+        private void flush(int table) throws IOException {
+            Encoder encoder = pending[table];
+            if (encoder == null || encoder.rows == 0) {
+                return;
+            }
+            pending[table] = null;
+            byte[] raw = encoder.bytes.toByteArray();
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+            byte[] buffer = new byte[16384];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            ByteBuffer data = ByteBuffer.wrap(compressed.toByteArray());
+            CRC32 crc = new CRC32();
+            crc.update(data.duplicate());
+            ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER);
+            header.put(BLOCK).putInt(table).putInt(encoder.rows).putInt(raw.length)
+                    .putInt(data.remaining()).putInt((int) crc.getValue()).flip();
+            writeFully(header, data);
+            blockCount++;
+            rowCount += encoder.rows;
+        }
+
+        private void writeFully(ByteBuffer... buffers) throws IOException {
+            long remaining = Arrays.stream(buffers).mapToLong(ByteBuffer::remaining).sum();
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+        }
+
+        @Override
+        public void close() {
+            deflater.end();
+        }
+    }
+
+    private static List<Table> readTables(ByteBuffer header) {
+        Type[] types = Type.values();
+        int tableCount = header.getInt();
+        List<Table> tables = new ArrayList<>(tableCount);
+        for (int t = 0; t < tableCount; t++) {
+            String name = readUtf(header);
+            int columnCount = header.getInt();
+            List<Column> columns = new ArrayList<>(columnCount);
+            for (int c = 0; c < columnCount; c++) {
+                columns.add(new Column(readUtf(header), types[header.get()]));
+            }
+            tables.add(new Table(name, List.copyOf(columns)));
+        }
+        return List.copyOf(tables);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Snapshot is truncated");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static Object readValue(ByteBuffer in, Type type) {
+        return switch (type) {
+            case LONG -> readSignedVarLong(in);
+            case INT -> (int) readSignedVarLong(in);
+            case STRING -> readUtf(in);
+            case DECIMAL -> {
+                int scale = (int) readSignedVarLong(in);
+                byte[] unscaled = new byte[(int) readVarLong(in)];
+                in.get(unscaled);
+                yield new BigDecimal(new BigInteger(unscaled), scale);
+            }
+            case TIMESTAMP -> EPOCH.plus(readSignedVarLong(in), ChronoUnit.MICROS);
+        };
+    }
+
+    private static String readUtf(ByteBuffer in) {
+        byte[] utf8 = new byte[(int) readVarLong(in)];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.get() & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long readSignedVarLong(ByteBuffer in) {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Encoder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int rows;
+
+        void writeValue(Object value, Type type) throws IOException {
+            if (value == null) {
+                out.writeByte(0);
+                return;
+            }
+            out.writeByte(1);
+            switch (type) {
+                case LONG, INT -> writeSignedVarLong(((Number) value).longValue());
+                case STRING -> writeUtf(value.toString());
+                case DECIMAL -> {
+                    BigDecimal decimal = (BigDecimal) value;
+                    byte[] unscaled = decimal.unscaledValue().toByteArray();
+                    writeSignedVarLong(decimal.scale());
+                    writeVarLong(unscaled.length);
+                    out.write(unscaled);
+                }
+                case TIMESTAMP -> writeSignedVarLong(ChronoUnit.MICROS.between(EPOCH, (LocalDateTime) value));
+            }
+        }
+
+        void writeUtf(String value) throws IOException {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length);
+            out.write(utf8);
+        }
+
+        void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+
+        // Zigzag so small negative values stay short
+        void writeSignedVarLong(long value) throws IOException {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+    }
+}
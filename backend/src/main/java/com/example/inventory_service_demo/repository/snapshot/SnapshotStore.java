@@ -0,0 +1,114 @@
+package com.example.inventory_service_demo.repository.snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Directory of {@link SnapshotFile}s named after the time they were taken:
+ * {@code <directory>/snapshot-20240317T021500123.snap}.
+ * <p>
+ * Like order archive segments, a snapshot is written to a temporary file, synced
+ * and then moved into place, so a crash never leaves a partial snapshot under a
+ * snapshot name. Only the newest {@code retain} snapshots are kept.
+ */
+public class SnapshotStore {
+
+    private static final DateTimeFormatter NAME_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS").withZone(ZoneOffset.UTC);
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-\\d{8}T\\d{9}\\.snap");
+
+    /**
+     * A snapshot file and its size.
+     */
+    public record Snapshot(Path path, long size) {
+    }
+
+    /**
+     * Writes the rows of one snapshot.
+     */
+    @FunctionalInterface
+    public interface Content {
+        void writeTo(FileChannel channel) throws IOException;
+    }
+
+    private final Path directory;
+    private final int retain;
+
+    public SnapshotStore(Path directory, int retain) {
+        if (retain < 1) {
+            throw new IllegalArgumentException("At least one snapshot must be retained");
+        }
+        this.directory = directory;
+        this.retain = retain;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open snapshot directory " + directory, e);
+        }
+    }
+
+    /**
+     * Write a new snapshot and drop the snapshots beyond the retained ones.
+     *
+     * @param content Writes the snapshot to the channel of a new file
+     * @return The snapshot written
+     */
+    public Snapshot write(Content content) {
+        try {
+            Path temporary = Files.createTempFile(directory, "snapshot-", ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                    content.writeTo(channel);
+                }
+                Path target = directory.resolve("snapshot-" + NAME_TIME.format(Instant.now()) + ".snap");
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                Snapshot snapshot = new Snapshot(target, Files.size(target));
+                prune();
+                return snapshot;
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write snapshot in " + directory, e);
+        }
+    }
+
+    /**
+     * Get the snapshots in the directory, newest first.
+     */
+    public List<Snapshot> getSnapshots() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "snapshot-*.snap")) {
+            for (Path file : files) {
+                if (SNAPSHOT_NAME.matcher(file.getFileName().toString()).matches()) {
+                    snapshots.add(new Snapshot(file, Files.size(file)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list snapshots in " + directory, e);
+        }
+        snapshots.sort(Comparator.comparing((Snapshot snapshot) -> snapshot.path().getFileName().toString())
+                .reversed());
+        return snapshots;
+    }
+
+    private void prune() throws IOException {
+        List<Snapshot> snapshots = getSnapshots();
+        for (Snapshot old : snapshots.subList(Math.min(retain, snapshots.size()), snapshots.size())) {
+            Files.deleteIfExists(old.path());
+        }
+    }
+}
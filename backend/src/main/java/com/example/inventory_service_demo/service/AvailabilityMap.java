@@ -0,0 +1,230 @@
+package com.example.inventory_service_demo.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing map from product id to available quantity, stored in a single
+ * {@link ByteBuffer} of 12-byte slots (long key, int value) so lookups neither
+ * box nor chase pointers. With {@code offHeap} the buffer is direct and the map
+ * adds nothing to the Java heap regardless of size.
+ * <p>
+ * Reads are lock-free optimistic reads that retry under the read lock if a write
+ * overlapped; writes are serialized. Keys must be positive; any other id is
+ * {@link #MISSING}.
+ */
+public final class AvailabilityMap {
+
+    /**
+     * Returned by {@link #get(long)} for ids without an entry.
+     */
+    public static final int MISSING = -1;
+
+    private static final int SLOT_BYTES = Long.BYTES + Integer.BYTES;
+    private static final long EMPTY = 0;
+    private static final float MAX_LOAD = 0.7f;
+
+    // Buffer and mask are swapped together on resize so readers never mix them
+    private record Table(ByteBuffer slots, int mask) {
+    }
+
+    private final boolean offHeap;
+    private final StampedLock lock = new StampedLock();
+    private volatile Table table;
+    private int size;
+
+    public AvailabilityMap(int expectedSize, boolean offHeap) {
+        this.offHeap = offHeap;
+        this.table = allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Get the quantity stored for a product.
+     *
+     * @param productId The product ID
+     * @return The quantity, or {@link #MISSING}
+     */
+    public int get(long productId) {
+        long stamp = lock.tryOptimisticRead();
+        int value = find(table, productId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = find(table, productId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Look up several products at once.
+     *
+     * @param productIds The product IDs
+     * @param quantities Receives the quantity or {@link #MISSING} for each ID, in order
+     */
+    public void getAll(long[] productIds, int[] quantities) {
+        long stamp = lock.tryOptimisticRead();
+        findAll(table, productIds, quantities);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                findAll(table, productIds, quantities);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    public void put(long productId, int quantity) {
+        requireValidKey(productId);
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(table, productId);
+            if (table.slots().getLong(slot) == EMPTY) {
+                insert(productId, quantity);
+            } else {
+                table.slots().putInt(slot + Long.BYTES, quantity);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Add a relative change to a product's quantity, starting from zero if it has no entry.
+     */
+    public void add(long productId, int delta) {
+        requireValidKey(productId);
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(table, productId);
+            if (table.slots().getLong(slot) == EMPTY) {
+                insert(productId, delta);
+            } else {
+                ByteBuffer slots = table.slots();
+                slots.putInt(slot + Long.BYTES, slots.getInt(slot + Long.BYTES) + delta);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Get the size of the slot buffer in bytes.
+     */
+    public long memoryBytes() {
+        return table.slots().capacity();
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    private void insert(long productId, int quantity) {
+        if (size + 1 > (table.mask() + 1) * MAX_LOAD) {
+            resize();
+        }
+        int slot = slotOf(table, productId);
+        // Value before key: an optimistic reader that sees the key also sees its value
+        table.slots().putInt(slot + Long.BYTES, quantity);
+        table.slots().putLong(slot, productId);
+        size++;
+    }
+
+    private void resize() {
+        Table old = table;
+        Table grown = allocate((old.mask() + 1) * 2);
+        for (int slot = 0; slot < old.slots().capacity(); slot += SLOT_BYTES) {
+            long key = old.slots().getLong(slot);
+            if (key != EMPTY) {
+                int target = slotOf(grown, key);
+                grown.slots().putLong(target, key);
+                grown.slots().putInt(target + Long.BYTES, old.slots().getInt(slot + Long.BYTES));
+            }
+        }
+        table = grown;
+    }
+
+    private static int find(Table table, long productId) {
+        // An empty slot holds key 0 and must not be found as product 0
+        if (productId <= 0) {
+            return MISSING;
+        }
+        ByteBuffer slots = table.slots();
+        int index = (int) mix(productId) & table.mask();
+        // Bounded so a reader racing a writer cannot loop forever; validation discards its result
+        for (int probes = 0; probes <= table.mask(); probes++) {
+            int slot = index * SLOT_BYTES;
+            long key = slots.getLong(slot);
+            if (key == productId) {
+                return slots.getInt(slot + Long.BYTES);
+            }
+            if (key == EMPTY) {
+                return MISSING;
+            }
+            index = (index + 1) & table.mask();
+        }
+        return MISSING;
+    }
+
+    private static void findAll(Table table, long[] productIds, int[] quantities) {
+        for (int i = 0; i < productIds.length; i++) {
+            quantities[i] = find(table, productIds[i]);
+        }
+    }
+
+    // Byte offset of the slot holding productId, or of the empty slot where it would go
+    private static int slotOf(Table table, long productId) {
+        ByteBuffer slots = table.slots();
+        int index = (int) mix(productId) & table.mask();
+        while (true) {
+            int slot = index * SLOT_BYTES;
+            long key = slots.getLong(slot);
+            if (key == productId || key == EMPTY) {
+                return slot;
+            }
+            index = (index + 1) & table.mask();
+        }
+    }
+
+    private Table allocate(int capacity) {
+        ByteBuffer slots = offHeap
+                ? ByteBuffer.allocateDirect(capacity * SLOT_BYTES)
+                : ByteBuffer.allocate(capacity * SLOT_BYTES);
+        slots.order(ByteOrder.nativeOrder());
+        return new Table(slots, capacity - 1);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 16) / MAX_LOAD);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    // Finalizer of MurmurHash3, spreads sequential ids over the table
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static void requireValidKey(long productId) {
+        if (productId <= 0) {
+            throw new IllegalArgumentException("Product id must be positive: " + productId);
+        }
+    }
+}
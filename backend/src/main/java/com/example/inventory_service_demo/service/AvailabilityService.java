@@ -0,0 +1,201 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.event.CacheInvalidationEvent;
+import com.example.inventory_service_demo.model.CacheChange;
+import com.example.inventory_service_demo.model.Inventory;
+import com.example.inventory_service_demo.repository.InventoryStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory snapshot of available stock per product, used to validate orders and
+ * answer bulk availability queries without going through JPA.
+ * <p>
+ * Loaded when the application is ready and reloaded every
+ * {@code app.availability.refresh-interval}; in between, {@link InventoryService}
+ * reports its writes, which are applied once their transaction commits.
+ * Adjustments are applied as deltas, so transactions committing out of order
+ * still converge. The snapshot is a fast pre-check; the stock writes themselves
+ * remain the authority.
+ * <p>
+ * A reload fills a new map and swaps it in, so products whose inventory is gone
+ * drop out. Products changed while it scans are read again before the swap
+ * rather than replaying their deltas, which the scan may already have seen.
+ */
+@Service
+public class AvailabilityService {
+
+    private final InventoryStore inventoryStore;
+    private final MeterRegistry meterRegistry;
+    private final int expectedProducts;
+    private final boolean offHeap;
+    private final Object reloadLock = new Object();
+    private volatile AvailabilityMap availability;
+    private volatile boolean loaded;
+    // Products changed while a reload runs, read again into the new map before it is swapped in
+    private Set<Long> changedDuringReload;
+
+    @Autowired
+    public AvailabilityService(InventoryStore inventoryStore,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.availability.expected-products:1024}") int expectedProducts,
+                               @Value("${app.availability.off-heap:false}") boolean offHeap) {
+        this.inventoryStore = inventoryStore;
+        this.meterRegistry = meterRegistry;
+        this.expectedProducts = expectedProducts;
+        this.offHeap = offHeap;
+        this.availability = new AvailabilityMap(expectedProducts, offHeap);
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("inventory.availability.entries", this, service -> service.availability.size())
+                .register(meterRegistry);
+        Gauge.builder("inventory.availability.memory", this, service -> service.availability.memoryBytes())
+                .baseUnit("bytes")
+                .tag("area", offHeap ? "offheap" : "heap")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load the quantities of all products from the inventory store into a new map
+     * and replace the current one with it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.availability.refresh-interval:5m}",
+            initialDelayString = "${app.availability.refresh-interval:5m}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                changedDuringReload = new HashSet<>();
+            }
+            try {
+                AvailabilityMap reloaded = new AvailabilityMap(
+                        Math.max(expectedProducts, availability.size()), offHeap);
+                inventoryStore.forEachQuantity(reloaded::put);
+                while (true) {
+                    Set<Long> changed;
+                    synchronized (this) {
+                        changed = changedDuringReload;
+                        if (changed.isEmpty()) {
+                            availability = reloaded;
+                            changedDuringReload = null;
+                            break;
+                        }
+                        changedDuringReload = new HashSet<>();
+                    }
+                    changed.forEach(productId -> reloaded.put(productId, readQuantity(productId)));
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changedDuringReload = null;
+                }
+                throw e;
+            }
+            loaded = true;
+        }
+    }
+
+    /**
+     * Refresh products whose stock was changed by another node.
+     *
+     * @param event The remote change
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (!loaded || !event.concerns(CacheChange.Type.INVENTORY)) {
+            return;
+        }
+        if (event.isAll()) {
+            reload();
+            return;
+        }
+        put(event.entityId(), readQuantity(event.entityId()));
+    }
+
+    /**
+     * Get the available quantity of a product.
+     *
+     * @param productId The product ID
+     * @return The quantity, or {@link AvailabilityMap#MISSING} if the product has no inventory
+     */
+    public int getAvailable(long productId) {
+        if (!loaded) {
+            return readQuantity(productId);
+        }
+        return availability.get(productId);
+    }
+
+    /**
+     * Get the available quantities of several products.
+     *
+     * @param productIds The product IDs
+     * @return The quantity per product ID, in request order, without products that have no inventory
+     */
+    public Map<Long, Integer> getAvailability(long[] productIds) {
+        int[] quantities = new int[productIds.length];
+        if (loaded) {
+            availability.getAll(productIds, quantities);
+        } else {
+            for (int i = 0; i < productIds.length; i++) {
+                quantities[i] = getAvailable(productIds[i]);
+            }
+        }
+        Map<Long, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < productIds.length; i++) {
+            if (quantities[i] != AvailabilityMap.MISSING) {
+                result.put(productIds[i], quantities[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Record an absolute stock level, applied after the current transaction commits.
+     */
+    public void recordQuantity(long productId, int quantity) {
+        TransactionCallbacks.afterCommit(() -> put(productId, quantity));
+    }
+
+    /**
+     * Record relative stock changes keyed by product id, applied after the current transaction commits.
+     */
+    public void recordChanges(Map<Long, Integer> quantityChanges) {
+        TransactionCallbacks.afterCommit(() -> add(quantityChanges));
+    }
+
+    private int readQuantity(long productId) {
+        return inventoryStore.findByProductId(productId)
+                .map(Inventory::getQuantity)
+                .orElse(AvailabilityMap.MISSING);
+    }
+
+    private synchronized void put(long productId, int quantity) {
+        availability.put(productId, quantity);
+        if (changedDuringReload != null) {
+            changedDuringReload.add(productId);
+        }
+    }
+
+    private synchronized void add(Map<Long, Integer> quantityChanges) {
+        quantityChanges.forEach(availability::add);
+        if (changedDuringReload != null) {
+            changedDuringReload.addAll(quantityChanges.keySet());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.model.CacheChange;
+import com.example.inventory_service_demo.repository.CacheChangeRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Appends product and stock writes to the {@code cache_change} table, inside the
+ * caller's transaction, so that the change becomes visible to other nodes exactly
+ * when the write itself commits.
+ */
+public class CacheChangeLog {
+
+    private final CacheChangeRepository cacheChangeRepository;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheChangeLog(CacheChangeRepository cacheChangeRepository) {
+        this.cacheChangeRepository = cacheChangeRepository;
+    }
+
+    /**
+     * Record that entities of one type were written by this node.
+     *
+     * @param type The kind of entity
+     * @param entityIds The product ids
+     */
+    public void record(CacheChange.Type type, Collection<Long> entityIds) {
+        Instant now = Instant.now();
+        cacheChangeRepository.saveAll(entityIds.stream()
+                .map(id -> new CacheChange(type, id, nodeId, now))
+                .toList());
+    }
+
+    /**
+     * Get the id this node writes into the {@code origin} column.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.config.CacheInvalidationProperties;
+import com.example.inventory_service_demo.event.CacheInvalidationEvent;
+import com.example.inventory_service_demo.model.CacheChange;
+import com.example.inventory_service_demo.repository.CacheChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tails the {@code cache_change} table and publishes a {@link CacheInvalidationEvent}
+ * for every change written by another node.
+ * <p>
+ * Each poll reads the changes above the highest id seen so far. Log ids are
+ * assigned when a row is inserted but become visible when its transaction
+ * commits, so a lower id can appear after a higher one; ids skipped over are
+ * kept as gaps and looked up again on later polls until they show up or
+ * {@code app.cache-invalidation.gap-timeout} passes (a rolled-back write leaves
+ * a permanent gap). Remote changes therefore reach the local caches within about
+ * one poll interval of their commit. If the log cannot be read for longer than
+ * {@code app.cache-invalidation.max-staleness}, all cached data is invalidated.
+ */
+public class CacheChangePoller {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheChangePoller.class);
+
+    private final CacheChangeRepository cacheChangeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheInvalidationProperties properties;
+    private final String nodeId;
+    private final MeterRegistry meterRegistry;
+    private final Map<CacheChange.Type, Counter> received = new EnumMap<>(CacheChange.Type.class);
+    private final Counter gapsSkipped;
+    private final Counter pollFailures;
+    private final Timer propagationDelay;
+
+    private long highestId;
+    // Log ids below highestId not seen yet, with the time they were first missed
+    private final Map<Long, Long> gaps = new HashMap<>();
+    private volatile long lastSuccessfulPoll = System.nanoTime();
+    private boolean invalidatedForOutage;
+
+    public CacheChangePoller(CacheChangeRepository cacheChangeRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             CacheInvalidationProperties properties,
+                             String nodeId,
+                             MeterRegistry meterRegistry) {
+        this.cacheChangeRepository = cacheChangeRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.nodeId = nodeId;
+        this.meterRegistry = meterRegistry;
+        // Caches are loaded from the database after startup; older changes are already in them
+        this.highestId = cacheChangeRepository.findMaxId();
+
+        for (CacheChange.Type type : CacheChange.Type.values()) {
+            received.put(type, Counter.builder("cache.invalidation.changes")
+                    .description("Changes made by other nodes applied to local caches")
+                    .tag("type", type.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.gapsSkipped = Counter.builder("cache.invalidation.gaps.skipped")
+                .description("Missing change log ids given up on after the gap timeout")
+                .register(meterRegistry);
+        this.pollFailures = Counter.builder("cache.invalidation.poll.failures")
+                .register(meterRegistry);
+        this.propagationDelay = Timer.builder("cache.invalidation.delay")
+                .description("Time from a change on another node to its invalidation here")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("cache.invalidation.staleness", this, CacheChangePoller::stalenessMillis)
+                .description("Time since the change log was last read successfully")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("cache.invalidation.gaps", this, CacheChangePoller::openGaps)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Read and apply the changes committed since the last poll.
+     *
+     * @return Number of entities changed by other nodes that were invalidated
+     */
+    @Scheduled(fixedDelayString = "${app.cache-invalidation.poll-interval:1s}")
+    public synchronized int poll() {
+        List<CacheChange> changes;
+        try {
+            changes = new ArrayList<>(cacheChangeRepository.findByIdGreaterThanOrderById(
+                    highestId, PageRequest.of(0, properties.batchSize())));
+            if (!gaps.isEmpty()) {
+                changes.addAll(cacheChangeRepository.findAllById(gaps.keySet()));
+            }
+        } catch (DataAccessException e) {
+            pollFailures.increment();
+            if (!invalidatedForOutage && stalenessMillis() > properties.maxStaleness().toMillis()) {
+                log.warn("Change log unreadable for {} ms, invalidating all cached data: {}",
+                        stalenessMillis(), e.getMessage());
+                invalidatedForOutage = true;
+                eventPublisher.publishEvent(CacheInvalidationEvent.all());
+            }
+            return 0;
+        }
+        lastSuccessfulPoll = System.nanoTime();
+        invalidatedForOutage = false;
+
+        long now = System.nanoTime();
+        // Several changes to one entity within a poll need only one invalidation
+        Map<CacheInvalidationEvent, CacheChange> remote = new LinkedHashMap<>();
+        for (CacheChange change : changes) {
+            if (change.getId() > highestId) {
+                for (long missing = highestId + 1; missing < change.getId(); missing++) {
+                    gaps.put(missing, now);
+                }
+                highestId = change.getId();
+            } else if (gaps.remove(change.getId()) == null) {
+                continue;
+            }
+            if (!nodeId.equals(change.getOrigin())) {
+                remote.putIfAbsent(new CacheInvalidationEvent(change.getType(), change.getEntityId()), change);
+                received.get(change.getType()).increment();
+            }
+        }
+        remote.forEach((event, change) -> {
+            eventPublisher.publishEvent(event);
+            propagationDelay.record(Duration.between(change.getChangedAt(), Instant.now()));
+        });
+        long timeout = properties.gapTimeout().toNanos();
+        int before = gaps.size();
+        gaps.values().removeIf(firstMissed -> now - firstMissed > timeout);
+        gapsSkipped.increment(before - gaps.size());
+        return remote.size();
+    }
+
+    /**
+     * Drop changes older than {@code app.cache-invalidation.retention}.
+     */
+    @Scheduled(fixedDelayString = "${app.cache-invalidation.retention:1h}",
+            initialDelayString = "${app.cache-invalidation.retention:1h}")
+    public void cleanUp() {
+        int deleted = cacheChangeRepository.deleteByChangedAtBefore(Instant.now().minus(properties.retention()));
+        log.debug("Deleted {} old cache changes", deleted);
+    }
+
+    private long stalenessMillis() {
+        return (System.nanoTime() - lastSuccessfulPoll) / 1_000_000;
+    }
+
+    private synchronized int openGaps() {
+        return gaps.size();
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.ReorderSuggestion;
+import com.example.inventory_service_demo.event.PurchaseOrderEvent;
+import com.example.inventory_service_demo.model.OrderItem;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.repository.InventoryStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Units sold per day for every product, as an exponentially weighted moving
+ * average over time with a half-life of {@code app.forecast.half-life-days}, and
+ * the reorder suggestions derived from it.
+ * <p>
+ * An estimate is a rate and the time it was last updated. A completed order adds
+ * its units to the rates of its products once it commits, after decaying them to
+ * the current time; that is constant work per order line and the order history is
+ * never read again. Orders that are cancelled were never completed, so they do not
+ * count. Estimates live in memory: when the application is ready they are seeded
+ * once from the completed orders of the last {@code app.forecast.warm-up-days},
+ * by order date. Orders completed before the warm-up has finished are held
+ * back until it has, and a completion the warm-up already counted is dropped.
+ * <p>
+ * A product is due for reordering when its stock covers no more than
+ * {@code app.forecast.lead-time-days} of sales. The suggested quantity brings the
+ * stock up to the lead time plus {@code app.forecast.cover-days} of sales.
+ */
+@Service
+public class ConsumptionForecast {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumptionForecast.class);
+    private static final double MILLIS_PER_DAY = 86_400_000d;
+    private static final Map<String, Comparator<ReorderSuggestion>> SORTS = Map.of(
+            "productId", Comparator.comparingLong(ReorderSuggestion::productId),
+            "quantity", Comparator.comparingInt(ReorderSuggestion::quantity),
+            "dailyRate", Comparator.comparingDouble(ReorderSuggestion::dailyRate),
+            // A product that is not selling has unlimited cover
+            "daysOfCover", Comparator.comparingDouble(suggestion -> suggestion.daysOfCover() == null
+                    ? Double.POSITIVE_INFINITY : suggestion.daysOfCover()),
+            "reorderPoint", Comparator.comparingInt(ReorderSuggestion::reorderPoint),
+            "suggestedQuantity", Comparator.comparingInt(ReorderSuggestion::suggestedQuantity));
+
+    private final InventoryStore inventoryStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final double meanLifetimeMillis;
+    private final double leadTimeDays;
+    private final double coverDays;
+    private final int warmUpDays;
+    private final Map<Long, Estimate> estimates = new ConcurrentHashMap<>();
+    // Completions committed before the warm-up has finished; null once it has
+    private List<Change> deferred;
+
+    @Autowired
+    public ConsumptionForecast(InventoryStore inventoryStore,
+                               JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.forecast.half-life-days:7}") double halfLifeDays,
+                               @Value("${app.forecast.lead-time-days:7}") double leadTimeDays,
+                               @Value("${app.forecast.cover-days:30}") double coverDays,
+                               @Value("${app.forecast.warm-up-days:28}") int warmUpDays) {
+        if (halfLifeDays <= 0) {
+            throw new IllegalArgumentException("app.forecast.half-life-days must be positive");
+        }
+        this.inventoryStore = inventoryStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meanLifetimeMillis = halfLifeDays * MILLIS_PER_DAY / Math.log(2);
+        this.leadTimeDays = leadTimeDays;
+        this.coverDays = coverDays;
+        this.warmUpDays = warmUpDays;
+        this.deferred = warmUpDays > 0 ? new ArrayList<>() : null;
+        Gauge.builder("inventory.forecast.products", estimates, Map::size)
+                .description("Products with a consumption estimate")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count the units of a completed order once the change commits.
+     *
+     * @param event The order change
+     */
+    @EventListener
+    public void onPurchaseOrderEvent(PurchaseOrderEvent event) {
+        if (event.order().getStatus() != OrderStatus.COMPLETED
+                || event.previousStatus() == OrderStatus.COMPLETED) {
+            return;
+        }
+        Map<Long, Integer> units = new HashMap<>();
+        for (OrderItem item : event.order().getItems()) {
+            units.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        Change change = new Change(event.order().getId(), units);
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                if (deferred != null) {
+                    deferred.add(change);
+                    return;
+                }
+            }
+            apply(change, System.currentTimeMillis());
+        });
+    }
+
+    /**
+     * Seed the estimates from the completed orders of the warm-up window.
+     *
+     * @return Number of order lines read
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int warmUp() {
+        if (warmUpDays <= 0) {
+            return 0;
+        }
+        int[] lines = new int[1];
+        Set<Long> seeded = new HashSet<>();
+        try {
+            jdbcTemplate.query("select o.id, i.product_id, i.quantity, o.order_date from order_items i "
+                            + "join purchase_orders o on o.id = i.order_id "
+                            + "where o.status = 'COMPLETED' and o.order_date >= ?",
+                    rs -> {
+                        seeded.add(rs.getLong(1));
+                        record(rs.getLong(2), rs.getInt(3), rs.getTimestamp(4).getTime());
+                        lines[0]++;
+                    },
+                    Timestamp.valueOf(LocalDateTime.now().minusDays(warmUpDays)));
+        } finally {
+            applyDeferred(seeded);
+        }
+        log.info("Seeded consumption estimates of {} products from {} order lines", estimates.size(), lines[0]);
+        return lines[0];
+    }
+
+    /**
+     * Get a page of reorder suggestions for every product with inventory.
+     *
+     * @param pageable Paging, sorted by {@code productId}, {@code quantity}, {@code dailyRate},
+     *                 {@code daysOfCover}, {@code reorderPoint} or {@code suggestedQuantity};
+     *                 lowest days of cover first when unsorted
+     * @return Page of suggestions
+     * @throws IllegalArgumentException if a sort property is unknown
+     */
+    @Transactional(readOnly = true)
+    public Page<ReorderSuggestion> getSuggestions(Pageable pageable) {
+        Comparator<ReorderSuggestion> order = comparator(pageable.getSort());
+        long now = System.currentTimeMillis();
+        List<ReorderSuggestion> suggestions = new ArrayList<>();
+        inventoryStore.forEachQuantity((productId, quantity) -> suggestions.add(suggest(productId, quantity, now)));
+        suggestions.sort(order);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(suggestions);
+        }
+        int from = (int) Math.min(pageable.getOffset(), suggestions.size());
+        int to = Math.min(from + pageable.getPageSize(), suggestions.size());
+        return new PageImpl<>(List.copyOf(suggestions.subList(from, to)), pageable, suggestions.size());
+    }
+
+    /**
+     * Apply the completions held back during the warm-up, except those of orders it
+     * has read, and apply completions directly from now on.
+     */
+    private synchronized void applyDeferred(Set<Long> seeded) {
+        if (deferred == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Change change : deferred) {
+            if (!seeded.contains(change.orderId())) {
+                apply(change, now);
+            }
+        }
+        deferred = null;
+    }
+
+    private void apply(Change change, long at) {
+        change.units().forEach((productId, quantity) -> record(productId, quantity, at));
+    }
+
+    private void record(long productId, int units, long at) {
+        estimates.computeIfAbsent(productId, id -> new Estimate()).add(units, at, meanLifetimeMillis);
+    }
+
+    private ReorderSuggestion suggest(long productId, int quantity, long now) {
+        Estimate estimate = estimates.get(productId);
+        double rate = estimate == null ? 0 : estimate.rateAt(now, meanLifetimeMillis);
+        if (rate <= 0) {
+            return new ReorderSuggestion(productId, quantity, 0, null, 0, 0);
+        }
+        int reorderPoint = (int) Math.ceil(rate * leadTimeDays);
+        int target = (int) Math.ceil(rate * (leadTimeDays + coverDays));
+        int suggested = quantity <= reorderPoint ? Math.max(0, target - quantity) : 0;
+        return new ReorderSuggestion(productId, quantity, rate, quantity / rate, reorderPoint, suggested);
+    }
+
+    private static Comparator<ReorderSuggestion> comparator(Sort sort) {
+        if (sort.isUnsorted()) {
+            return SORTS.get("daysOfCover").thenComparing(SORTS.get("productId"));
+        }
+        Comparator<ReorderSuggestion> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<ReorderSuggestion> next = SORTS.get(order.getProperty());
+            if (next == null) {
+                throw new IllegalArgumentException("Cannot sort reorder suggestions by " + order.getProperty());
+            }
+            next = order.isDescending() ? next.reversed() : next;
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator.thenComparing(SORTS.get("productId"));
+    }
+
+    /**
+     * The units of one completed order to add to the estimates.
+     */
+    private record Change(long orderId, Map<Long, Integer> units) {
+    }
+
+    /**
+     * Exponentially decaying units per day of one product. The rate is held as of
+     * {@code updatedAt}; units recorded with an earlier time, as during the warm-up,
+     * are decayed to {@code updatedAt} instead, so the order of updates does not matter.
+     */
+    private static final class Estimate {
+
+        private double rate;
+        private long updatedAt;
+
+        synchronized void add(int units, long at, double meanLifetimeMillis) {
+            double unitsPerDay = units * MILLIS_PER_DAY / meanLifetimeMillis;
+            if (at >= updatedAt) {
+                rate = rate * Math.exp((updatedAt - at) / meanLifetimeMillis) + unitsPerDay;
+                updatedAt = at;
+            } else {
+                rate += unitsPerDay * Math.exp((at - updatedAt) / meanLifetimeMillis);
+            }
+        }
+
+        synchronized double rateAt(long now, double meanLifetimeMillis) {
+            return rate * Math.exp(Math.min(0, updatedAt - now) / meanLifetimeMillis);
+        }
+    }
+}
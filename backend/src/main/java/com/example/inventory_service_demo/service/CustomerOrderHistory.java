@@ -0,0 +1,206 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.CustomerOrderSummary;
+import com.example.inventory_service_demo.event.OrdersArchivedEvent;
+import com.example.inventory_service_demo.event.PurchaseOrderEvent;
+import com.example.inventory_service_demo.repository.OrderSummaryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recent-first order history per customer email, read from the order summary
+ * read model and kept in an LRU cache of {@code app.customer-history.max-customers}
+ * customers.
+ * <p>
+ * Each cached customer holds the total number of orders and the most recent
+ * {@code app.customer-history.recent-orders} summaries, so the first pages of an
+ * account's history never reach the database and deeper pages are a single
+ * indexed query on {@code (customer_email, order_date)}. Order events update
+ * cached customers after commit: new orders are inserted and status changes
+ * applied in place. A history loaded while one of its orders was committing is
+ * not cached, so a load cannot overwrite a newer change.
+ */
+@Service
+public class CustomerOrderHistory {
+
+    private static final Comparator<CustomerOrderSummary> RECENT_FIRST = Comparator
+            .comparing(CustomerOrderSummary::orderDate).reversed()
+            .thenComparing(CustomerOrderSummary::orderId, Comparator.reverseOrder());
+
+    private static final int STRIPES = 256;
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final int recentOrders;
+    private final Map<String, History> histories;
+    // Write counters per email hash stripe, compared before and after a load
+    private final long[] writes = new long[STRIPES];
+    private final Counter hits;
+    private final Counter misses;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public CustomerOrderHistory(OrderSummaryRepository orderSummaryRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.customer-history.max-customers:10000}") int maxCustomers,
+                                @Value("${app.customer-history.recent-orders:200}") int recentOrders) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.recentOrders = recentOrders;
+        this.histories = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, History> eldest) {
+                return size() > maxCustomers;
+            }
+        };
+        this.hits = Counter.builder("orders.customer.history.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("orders.customer.history.lookups").tag("result", "miss").register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("orders.customer.history.customers", this, CustomerOrderHistory::size)
+                .description("Customers in the order history cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get a page of a customer's orders, most recent first.
+     *
+     * @param email The customer email
+     * @param page The zero-based page number
+     * @param size The page size
+     * @return Page of order summaries
+     */
+    public Page<CustomerOrderSummary> getHistory(String email, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        History history = history(email);
+        long from = pageable.getOffset();
+        long to = Math.min(from + size, history.total());
+        if (to <= history.recent().size()) {
+            List<CustomerOrderSummary> content = from >= to
+                    ? List.of()
+                    : history.recent().subList((int) from, (int) to);
+            return new PageImpl<>(content, pageable, history.total());
+        }
+        return new PageImpl<>(orderSummaryRepository.findHistory(email, pageable), pageable, history.total());
+    }
+
+    /**
+     * Apply an order creation or status change to a cached customer once it commits.
+     *
+     * @param event The order change
+     */
+    @EventListener
+    public void onPurchaseOrderEvent(PurchaseOrderEvent event) {
+        String email = event.order().getCustomerEmail();
+        if (email == null) {
+            return;
+        }
+        CustomerOrderSummary summary = CustomerOrderSummary.of(event.order());
+        boolean creation = event.isCreation();
+        TransactionCallbacks.afterCommit(() -> apply(email, summary, creation));
+    }
+
+    /**
+     * Forget all cached customers once archived orders are gone from the database.
+     *
+     * @param event The archived batch
+     */
+    @EventListener
+    public void onOrdersArchived(OrdersArchivedEvent event) {
+        TransactionCallbacks.afterCommit(this::clear);
+    }
+
+    private History history(String email) {
+        int stripe = stripe(email);
+        long writesBefore;
+        synchronized (this) {
+            History cached = histories.get(email);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            writesBefore = writes[stripe];
+        }
+        misses.increment();
+        List<CustomerOrderSummary> recent =
+                orderSummaryRepository.findHistory(email, PageRequest.of(0, recentOrders));
+        long total = recent.size() < recentOrders
+                ? recent.size()
+                : orderSummaryRepository.countByCustomerEmail(email);
+        History loaded = new History(List.copyOf(recent), total);
+        synchronized (this) {
+            if (writes[stripe] == writesBefore) {
+                histories.put(email, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private synchronized void apply(String email, CustomerOrderSummary summary, boolean creation) {
+        writes[stripe(email)]++;
+        History history = histories.get(email);
+        if (history == null) {
+            return;
+        }
+        List<CustomerOrderSummary> recent = new ArrayList<>(history.recent());
+        for (int i = 0; i < recent.size(); i++) {
+            if (recent.get(i).orderId().equals(summary.orderId())) {
+                recent.set(i, recent.get(i).withStatus(summary.status()));
+                histories.put(email, new History(List.copyOf(recent), history.total()));
+                return;
+            }
+        }
+        if (!creation) {
+            // An older order outside the cached window; its page is read from the database
+            return;
+        }
+        // Insert the new order in date order and trim the window
+        int position = 0;
+        while (position < recent.size() && RECENT_FIRST.compare(recent.get(position), summary) < 0) {
+            position++;
+        }
+        recent.add(position, summary);
+        if (recent.size() > recentOrders) {
+            recent.remove(recent.size() - 1);
+        }
+        histories.put(email, new History(List.copyOf(recent), history.total() + 1));
+    }
+
+    private synchronized void clear() {
+        histories.clear();
+        for (int i = 0; i < STRIPES; i++) {
+            writes[i]++;
+        }
+    }
+
+    private synchronized int size() {
+        return histories.size();
+    }
+
+    private static int stripe(String email) {
+        return Math.floorMod(email.hashCode(), STRIPES);
+    }
+
+    /**
+     * The most recent summaries of a customer and the customer's total number of orders.
+     */
+    private record History(List<CustomerOrderSummary> recent, long total) {
+    }
+}
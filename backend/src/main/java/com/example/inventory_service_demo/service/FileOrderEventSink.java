@@ -0,0 +1,81 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.OrderEventMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends order events to a newline-delimited JSON file, one event per line,
+ * which downstream consumers tail instead of polling the order tables. Each batch
+ * is written with a single write and forced to disk before it counts as published.
+ */
+public class FileOrderEventSink implements OrderEventSink, AutoCloseable {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private FileChannel channel;
+
+    public FileOrderEventSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<OrderEventMessage> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 512);
+        for (OrderEventMessage event : events) {
+            objectMapper.writeValue(lines, event);
+            lines.write('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        try {
+            FileChannel out = channel();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(false);
+        } catch (IOException e) {
+            // Reopen on the next batch; a partly written batch is repeated in full
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the file events are appended to.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            try {
+                channel.close();
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+}
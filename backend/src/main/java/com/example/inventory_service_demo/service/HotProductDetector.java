@@ -0,0 +1,93 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.config.HotProductProperties;
+import com.example.inventory_service_demo.repository.HotProductCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Promotes products to split counters when their stock is adjusted faster than
+ * {@code app.hot-products.promote-threshold} per second, and folds them back when
+ * the rate drops below {@code app.hot-products.demote-threshold}.
+ * <p>
+ * Only products this detector promoted are demoted again. Products promoted by
+ * hand (or by another node) stay hot until they are demoted the same way.
+ */
+public class HotProductDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(HotProductDetector.class);
+
+    private final HotProductCounters hotProductCounters;
+    private final InventoryService inventoryService;
+    private final HotProductProperties properties;
+    private final Set<Long> promoted = new HashSet<>();
+    private long lastEvaluation = System.nanoTime();
+
+    public HotProductDetector(HotProductCounters hotProductCounters,
+                              InventoryService inventoryService,
+                              HotProductProperties properties) {
+        this.hotProductCounters = hotProductCounters;
+        this.inventoryService = inventoryService;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHotProducts() {
+        hotProductCounters.refresh();
+    }
+
+    /**
+     * Compare each product's adjustment rate since the last run with the thresholds.
+     */
+    @Scheduled(fixedDelayString = "${app.hot-products.evaluation-interval:10s}",
+            initialDelayString = "${app.hot-products.evaluation-interval:10s}")
+    public synchronized void evaluate() {
+        long now = System.nanoTime();
+        double seconds = Math.max((now - lastEvaluation) / 1e9, 0.001);
+        lastEvaluation = now;
+
+        hotProductCounters.refresh();
+        Map<Long, Long> counts = hotProductCounters.drainAdjustmentCounts();
+        // Forget products demoted by hand
+        promoted.retainAll(hotProductCounters.getHotProducts().keySet());
+
+        counts.forEach((productId, count) -> {
+            double rate = count / seconds;
+            if (rate >= properties.promoteThreshold() && !hotProductCounters.isHot(productId)) {
+                apply(productId, rate, true);
+            }
+        });
+        List.copyOf(promoted).forEach(productId -> {
+            double rate = counts.getOrDefault(productId, 0L) / seconds;
+            if (rate < properties.demoteThreshold()) {
+                apply(productId, rate, false);
+            }
+        });
+    }
+
+    private void apply(Long productId, double rate, boolean promote) {
+        try {
+            if (promote) {
+                if (!inventoryService.promoteHotProduct(productId, properties.slots())) {
+                    return;
+                }
+                promoted.add(productId);
+            } else {
+                inventoryService.demoteHotProduct(productId);
+                promoted.remove(productId);
+            }
+            log.info("{} product {} at {} adjustments/s", promote ? "Promoted" : "Demoted",
+                    productId, String.format("%.1f", rate));
+        } catch (RuntimeException e) {
+            log.warn("Could not {} product {}: {}", promote ? "promote" : "demote", productId, e.getMessage());
+        }
+    }
+}
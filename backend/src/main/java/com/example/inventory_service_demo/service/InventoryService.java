@@ -1,34 +1,66 @@
 package com.example.inventory_service_demo.service;
 
+import com.example.inventory_service_demo.event.CacheInvalidationEvent;
+import com.example.inventory_service_demo.model.CacheChange;
 import com.example.inventory_service_demo.model.Inventory;
 import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.repository.HotProductCounters;
 import com.example.inventory_service_demo.repository.InventoryRepository;
+import com.example.inventory_service_demo.repository.InventoryStore;
 import com.example.inventory_service_demo.repository.ProductRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class InventoryService {
 
-    private final InventoryRepository inventoryRepository;
+    private final InventoryStore inventoryStore;
     private final ProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ObjectProvider<HotProductCounters> hotProductCounters;
+    private final AvailabilityService availabilityService;
+    private final ObjectProvider<CacheChangeLog> cacheChangeLog;
 
     @Autowired
-    public InventoryService(InventoryRepository inventoryRepository, ProductRepository productRepository) {
-        this.inventoryRepository = inventoryRepository;
+    public InventoryService(InventoryStore inventoryStore, ProductRepository productRepository,
+                            InventoryRepository inventoryRepository,
+                            ObjectProvider<HotProductCounters> hotProductCounters,
+                            AvailabilityService availabilityService,
+                            ObjectProvider<CacheChangeLog> cacheChangeLog) {
+        this.inventoryStore = inventoryStore;
         this.productRepository = productRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.hotProductCounters = hotProductCounters;
+        this.availabilityService = availabilityService;
+        this.cacheChangeLog = cacheChangeLog;
     }
 
+    @Transactional(readOnly = true)
     public List<Inventory> getAllInventory() {
-        return inventoryRepository.findAll();
+        return inventoryStore.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Inventory> getInventoryByProductId(Long productId) {
-        return inventoryRepository.findByProductId(productId);
+        return inventoryStore.findByProductId(productId);
+    }
+
+    /**
+     * Get the available quantities of several products from the in-memory snapshot.
+     *
+     * @param productIds The product IDs
+     * @return The quantity per product ID, without products that have no inventory
+     */
+    public Map<Long, Integer> getAvailability(long[] productIds) {
+        return availabilityService.getAvailability(productIds);
     }
 
     @Transactional
@@ -40,16 +72,10 @@ public class InventoryService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
 
-        Optional<Inventory> existingInventory = inventoryRepository.findByProduct(product);
-
-        if (existingInventory.isPresent()) {
-            Inventory inventory = existingInventory.get();
-            inventory.setQuantity(quantity);
-            return inventoryRepository.save(inventory);
-        } else {
-            Inventory newInventory = new Inventory(product, quantity);
-            return inventoryRepository.save(newInventory);
-        }
+        Inventory inventory = inventoryStore.setQuantity(product, quantity);
+        availabilityService.recordQuantity(productId, quantity);
+        recordChanges(List.of(productId));
+        return inventory;
     }
 
     @Transactional
@@ -57,24 +83,98 @@ public class InventoryService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
 
-        Optional<Inventory> existingInventory = inventoryRepository.findByProduct(product);
-        
-        if (existingInventory.isPresent()) {
-            Inventory inventory = existingInventory.get();
-            int newQuantity = inventory.getQuantity() + quantityChange;
-            
-            if (newQuantity < 0) {
-                throw new IllegalArgumentException("Cannot reduce inventory below zero");
-            }
-            
-            inventory.setQuantity(newQuantity);
-            return inventoryRepository.save(inventory);
+        Inventory inventory = inventoryStore.adjustQuantity(product, quantityChange);
+        availabilityService.recordChanges(Map.of(productId, quantityChange));
+        recordChanges(List.of(productId));
+        return inventory;
+    }
+
+    /**
+     * Apply the stock changes of a whole order, keyed by product id. Either all
+     * changes are applied or none are.
+     */
+    @Transactional
+    public void adjustInventories(Map<Long, Integer> quantityChanges) {
+        inventoryStore.adjustQuantities(quantityChanges);
+        availabilityService.recordChanges(Map.copyOf(quantityChanges));
+        recordChanges(quantityChanges.keySet());
+    }
+
+    /**
+     * Split the stock of a product over several slot rows so concurrent
+     * adjustments stop queuing on its inventory row.
+     *
+     * @param productId The product ID
+     * @param slots The number of slots
+     * @return false if the product already was hot
+     */
+    @Transactional
+    public boolean promoteHotProduct(Long productId, int slots) {
+        if (slots < 2) {
+            throw new IllegalArgumentException("A hot product needs at least 2 slots");
+        }
+        HotProductCounters counters = requireHotProductCounters();
+        Inventory inventory = inventoryRepository.findByProductIdForUpdate(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Inventory not found for product id: " + productId));
+        if (!counters.promote(inventory, slots)) {
+            return false;
+        }
+        recordChanges(List.of(productId));
+        return true;
+    }
+
+    /**
+     * Fold the slots of a hot product back into its inventory row.
+     *
+     * @param productId The product ID
+     */
+    @Transactional
+    public void demoteHotProduct(Long productId) {
+        HotProductCounters counters = requireHotProductCounters();
+        Inventory inventory = inventoryRepository.findByProductIdForUpdate(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Inventory not found for product id: " + productId));
+        counters.demote(inventory);
+        recordChanges(List.of(productId));
+    }
+
+    /**
+     * Get the hot products and their slot counts.
+     */
+    public Map<Long, Integer> getHotProducts() {
+        return requireHotProductCounters().getHotProducts();
+    }
+
+    /**
+     * Pick up hot product promotions and demotions made by other nodes.
+     *
+     * @param event The remote change
+     */
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        HotProductCounters counters = hotProductCounters.getIfAvailable();
+        if (counters == null || !event.concerns(CacheChange.Type.INVENTORY)) {
+            return;
+        }
+        if (event.isAll()) {
+            counters.refresh();
         } else {
-            if (quantityChange < 0) {
-                throw new IllegalArgumentException("Cannot reduce non-existent inventory");
-            }
-            Inventory newInventory = new Inventory(product, quantityChange);
-            return inventoryRepository.save(newInventory);
+            counters.refresh(event.entityId());
+        }
+    }
+
+    // Lets other nodes refresh their copies once this transaction commits
+    private void recordChanges(Collection<Long> productIds) {
+        CacheChangeLog changeLog = cacheChangeLog.getIfAvailable();
+        if (changeLog != null) {
+            changeLog.record(CacheChange.Type.INVENTORY, productIds);
+        }
+    }
+
+    private HotProductCounters requireHotProductCounters() {
+        HotProductCounters counters = hotProductCounters.getIfAvailable();
+        if (counters == null) {
+            throw new IllegalArgumentException("Hot products are disabled (app.hot-products.enabled)");
         }
+        return counters;
     }
 }
@@ -0,0 +1,109 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.config.OrderArchiveProperties;
+import com.example.inventory_service_demo.event.OrdersArchivedEvent;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.OrderSummaryRepository;
+import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
+import com.example.inventory_service_demo.repository.archive.OrderArchive;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Moves closed orders older than {@code app.order-archive.min-age} into the
+ * {@link OrderArchive}, one batch per transaction: the batch is written to
+ * segment files first and only then deleted from {@code purchase_orders},
+ * {@code order_items} and {@code order_summary}.
+ */
+public class OrderArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+    private static final Set<OrderStatus> CLOSED = EnumSet.of(OrderStatus.COMPLETED, OrderStatus.CANCELLED);
+
+    private final OrderArchive orderArchive;
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderArchiveProperties properties;
+    private final Counter archived;
+
+    public OrderArchiver(OrderArchive orderArchive,
+                         PurchaseOrderRepository purchaseOrderRepository,
+                         OrderSummaryRepository orderSummaryRepository,
+                         PlatformTransactionManager transactionManager,
+                         ApplicationEventPublisher eventPublisher,
+                         OrderArchiveProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.orderArchive = orderArchive;
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.archived = Counter.builder("orders.archived")
+                .description("Closed orders moved from the database into the order archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-archive.interval:1h}",
+            initialDelayString = "${app.order-archive.interval:1h}")
+    public void scheduledArchive() {
+        archive(LocalDateTime.now().minus(properties.minAge()));
+    }
+
+    /**
+     * Archive all closed orders placed before a cut-off.
+     *
+     * @param before The cut-off date
+     * @return The number of orders archived
+     */
+    public synchronized int archive(LocalDateTime before) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(before));
+            total += moved;
+        } while (moved == properties.batchSize());
+        if (total > 0) {
+            log.info("Archived {} orders placed before {}", total, before);
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime before) {
+        List<Long> ids = purchaseOrderRepository.findIdsByStatusInAndOrderDateBefore(
+                CLOSED, before, PageRequest.of(0, properties.batchSize()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<LocalDate, List<PurchaseOrder>> byDay = purchaseOrderRepository.findWithItemsByIdIn(ids).stream()
+                .collect(Collectors.groupingBy(order -> order.getOrderDate().toLocalDate(), TreeMap::new,
+                        Collectors.toList()));
+        byDay.forEach(orderArchive::write);
+
+        purchaseOrderRepository.deleteItemsByOrderIdIn(ids);
+        purchaseOrderRepository.deleteAllByIdInBatch(ids);
+        orderSummaryRepository.deleteAllByIdInBatch(ids);
+        eventPublisher.publishEvent(new OrdersArchivedEvent(ids));
+        archived.increment(ids.size());
+        return ids.size();
+    }
+}
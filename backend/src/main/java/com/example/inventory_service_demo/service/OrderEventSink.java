@@ -0,0 +1,23 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.OrderEventMessage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the order events relayed from the outbox. Declare a bean of
+ * this type to replace the sink selected by {@code app.order-outbox.sink}.
+ */
+public interface OrderEventSink {
+
+    /**
+     * Deliver a batch of events, in the given order. Returning normally means all
+     * of them were accepted; after a failure the whole batch is delivered again,
+     * so a sink may see an event more than once.
+     *
+     * @param events The events, in ascending event id order
+     * @throws IOException if the batch could not be delivered
+     */
+    void publish(List<OrderEventMessage> events) throws IOException;
+}
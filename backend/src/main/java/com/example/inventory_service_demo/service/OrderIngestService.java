@@ -0,0 +1,323 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.OrderIngestAck;
+import com.example.inventory_service_demo.dto.OrderIngestEvent;
+import com.example.inventory_service_demo.service.PurchaseOrderService.OrderCreation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Creates purchase orders from NDJSON streams of order events pushed by upstream
+ * channels.
+ * <p>
+ * The request thread parses the stream one line at a time, validates each event
+ * and puts it into a ring buffer of {@code app.order-ingest.buffer-size} events
+ * shared by all streams; a full buffer blocks the reader, which pushes back on the
+ * sender. {@code app.order-ingest.consumers} consumer threads take whatever is
+ * buffered, up to {@code app.order-ingest.batch-size} events, and create those
+ * orders in one transaction with one product lookup, so batches grow with the
+ * load instead of waiting to fill up. If a batch fails as a whole its events are
+ * retried one by one. Every line gets an acknowledgment, written back on the
+ * response as soon as its batch has committed.
+ */
+@Service
+public class OrderIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIngestService.class);
+
+    private record Pending(long line, OrderIngestEvent event, AckStream acks) {
+    }
+
+    private final PurchaseOrderService purchaseOrderService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Pending> buffer;
+    private final int batchSize;
+    private final ExecutorService consumers;
+    private final Counter accepted;
+    private final Counter rejected;
+    private final DistributionSummary batchSizes;
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private volatile boolean running = true;
+
+    @Autowired
+    public OrderIngestService(PurchaseOrderService purchaseOrderService,
+                              Validator validator,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.order-ingest.buffer-size:8192}") int bufferSize,
+                              @Value("${app.order-ingest.consumers:2}") int consumers,
+                              @Value("${app.order-ingest.batch-size:200}") int batchSize) {
+        this.purchaseOrderService = purchaseOrderService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.accepted = Counter.builder("orders.ingest.events").tag("result", "accepted").register(meterRegistry);
+        this.rejected = Counter.builder("orders.ingest.events").tag("result", "rejected").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("orders.ingest.batch.size")
+                .description("Order events created per transaction")
+                .register(meterRegistry);
+        Gauge.builder("orders.ingest.buffered", buffer, BlockingQueue::size)
+                .description("Order events waiting for a consumer")
+                .register(meterRegistry);
+
+        this.consumers = Executors.newFixedThreadPool(consumers,
+                runnable -> new Thread(runnable, "order-ingest-" + threadCounter.incrementAndGet()));
+        for (int i = 0; i < consumers; i++) {
+            this.consumers.execute(this::consume);
+        }
+    }
+
+    /**
+     * Create orders from a stream of NDJSON order events, writing one NDJSON
+     * acknowledgment per event to the output. Returns once every event has been
+     * acknowledged.
+     *
+     * @param input The order events
+     * @param output Where the acknowledgments are written
+     * @throws IOException if the input cannot be read or the acknowledgments cannot be written
+     */
+    public void ingest(InputStream input, OutputStream output) throws IOException {
+        AckStream acks = new AckStream(output);
+        Thread writer = Thread.ofVirtual().name("order-ingest-acks").start(acks::write);
+        long number = 0;
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            String text;
+            while ((text = reader.readLine()) != null && acks.failure == null) {
+                number++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                acks.expect();
+                OrderIngestEvent event;
+                try {
+                    event = objectMapper.readValue(text, OrderIngestEvent.class);
+                } catch (JsonProcessingException e) {
+                    reject(acks, OrderIngestAck.rejected(number, null, "Malformed JSON: " + e.getOriginalMessage()));
+                    continue;
+                }
+                String violations = violations(event);
+                if (violations != null) {
+                    reject(acks, OrderIngestAck.rejected(number, event.getEventId(), violations));
+                    continue;
+                }
+                enqueue(new Pending(number, event, acks));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading order events", e);
+        } finally {
+            acks.endOfInput();
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (acks.failure != null) {
+            throw acks.failure;
+        }
+        log.debug("Order ingestion stream of {} lines acknowledged", number);
+    }
+
+    /**
+     * Stop the consumers and reject the events still buffered.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        consumers.shutdown();
+        consumers.awaitTermination(10, TimeUnit.SECONDS);
+        List<Pending> left = new ArrayList<>();
+        buffer.drainTo(left);
+        left.forEach(pending -> reject(pending.acks(),
+                OrderIngestAck.rejected(pending.line(), pending.event().getEventId(), "Service shutting down")));
+    }
+
+    private void enqueue(Pending pending) throws InterruptedException {
+        // A full buffer holds the reader back; give up only if the consumers are gone
+        while (!buffer.offer(pending, 100, TimeUnit.MILLISECONDS)) {
+            if (!running) {
+                reject(pending.acks(), OrderIngestAck.rejected(pending.line(), pending.event().getEventId(),
+                        "Service shutting down"));
+                return;
+            }
+        }
+    }
+
+    private String violations(OrderIngestEvent event) {
+        Set<ConstraintViolation<CreatePurchaseOrderDto>> violations = validator.validate(event);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void consume() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Pending first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Take what is already buffered rather than wait for a full batch
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order ingestion batch failed", e);
+                batch.forEach(pending -> reject(pending.acks(),
+                        OrderIngestAck.rejected(pending.line(), pending.event().getEventId(), rootMessage(e))));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        List<CreatePurchaseOrderDto> orderDtos = batch.stream()
+                .<CreatePurchaseOrderDto>map(Pending::event)
+                .toList();
+        List<OrderCreation> results;
+        try {
+            results = purchaseOrderService.createOrders(orderDtos);
+        } catch (RuntimeException e) {
+            // Find the offending events
+            results = orderDtos.stream().map(this::createAlone).toList();
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            OrderCreation result = results.get(i);
+            if (result.order() != null) {
+                accepted.increment();
+                pending.acks().add(OrderIngestAck.accepted(pending.line(), pending.event().getEventId(),
+                        result.order().getId()));
+            } else {
+                reject(pending.acks(), OrderIngestAck.rejected(pending.line(), pending.event().getEventId(),
+                        result.error()));
+            }
+        }
+    }
+
+    private OrderCreation createAlone(CreatePurchaseOrderDto orderDto) {
+        try {
+            return purchaseOrderService.createOrders(List.of(orderDto)).get(0);
+        } catch (RuntimeException e) {
+            return new OrderCreation(null, rootMessage(e));
+        }
+    }
+
+    private void reject(AckStream acks, OrderIngestAck ack) {
+        rejected.increment();
+        acks.add(ack);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    /**
+     * The acknowledgments of one stream, written to its response by a thread of
+     * their own so that they go out while the request is still being read.
+     */
+    private final class AckStream {
+
+        private final OutputStream output;
+        private final BlockingQueue<OrderIngestAck> acks = new LinkedBlockingQueue<>();
+        private final AtomicInteger expected = new AtomicInteger();
+        private volatile boolean inputDone;
+        private volatile IOException failure;
+
+        AckStream(OutputStream output) {
+            this.output = output;
+        }
+
+        void expect() {
+            expected.incrementAndGet();
+        }
+
+        void add(OrderIngestAck ack) {
+            acks.add(ack);
+        }
+
+        void endOfInput() {
+            inputDone = true;
+        }
+
+        void write() {
+            int written = 0;
+            List<OrderIngestAck> ready = new ArrayList<>();
+            while (!inputDone || written < expected.get()) {
+                try {
+                    OrderIngestAck ack = acks.poll(50, TimeUnit.MILLISECONDS);
+                    if (ack == null) {
+                        continue;
+                    }
+                    ready.add(ack);
+                    acks.drainTo(ready);
+                    written += ready.size();
+                    if (failure == null) {
+                        for (OrderIngestAck each : ready) {
+                            output.write(objectMapper.writeValueAsBytes(each));
+                            output.write('\n');
+                        }
+                        output.flush();
+                    }
+                } catch (IOException e) {
+                    // The client is gone; keep counting acknowledgments so the stream can end
+                    failure = e;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    ready.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.OrderEventPayload;
+import com.example.inventory_service_demo.event.PurchaseOrderEvent;
+import com.example.inventory_service_demo.model.OrderOutboxEvent;
+import com.example.inventory_service_demo.repository.OrderOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+
+import java.time.Instant;
+
+/**
+ * Writes every order creation and status change to the {@code order_outbox}
+ * table inside the transaction that made it, so an event exists exactly when
+ * the change it describes has committed. {@link OrderOutboxRelay} delivers the
+ * rows to the event sink afterwards.
+ */
+public class OrderOutbox {
+
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public OrderOutbox(OrderOutboxRepository orderOutboxRepository, ObjectMapper objectMapper) {
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Add an event for an order change to the outbox, in the current transaction.
+     *
+     * @param event The order change
+     */
+    @EventListener
+    public void onPurchaseOrderEvent(PurchaseOrderEvent event) {
+        Instant now = Instant.now();
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(OrderEventPayload.of(event, now));
+        } catch (JsonProcessingException e) {
+            // Fail the order change rather than commit it without its event
+            throw new IllegalStateException("Could not serialize event for order " + event.order().getId(), e);
+        }
+        orderOutboxRepository.save(new OrderOutboxEvent(event.order().getId(), event.order().getStatus(), payload, now));
+    }
+}
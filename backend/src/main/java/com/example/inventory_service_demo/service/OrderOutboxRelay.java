@@ -0,0 +1,119 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.config.OrderOutboxProperties;
+import com.example.inventory_service_demo.dto.OrderEventMessage;
+import com.example.inventory_service_demo.model.OrderOutboxEvent;
+import com.example.inventory_service_demo.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Delivers the events in {@code order_outbox} to the {@link OrderEventSink} in
+ * batches of {@code app.order-outbox.batch-size}.
+ * <p>
+ * Unpublished events are read in id order and marked published only after the
+ * sink accepted the whole batch. A failed batch, or a crash between delivery and
+ * marking, means the batch is delivered again on the next run: delivery is at
+ * least once. Events of one order are written by transactions that follow each
+ * other, so their ids increase with the order's changes and a relay that stops at
+ * the first failed batch never delivers them out of order. Only one node of a
+ * cluster should run the relay ({@code app.order-outbox.relay}).
+ */
+public class OrderOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final OrderEventSink sink;
+    private final OrderOutboxProperties properties;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer delay;
+
+    public OrderOutboxRelay(OrderOutboxRepository orderOutboxRepository,
+                            OrderEventSink sink,
+                            OrderOutboxProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.sink = sink;
+        this.properties = properties;
+        this.published = Counter.builder("orders.outbox.published")
+                .description("Order events delivered to the event sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("orders.outbox.publish.failures")
+                .description("Batches of order events the event sink did not accept")
+                .register(meterRegistry);
+        this.delay = Timer.builder("orders.outbox.delay")
+                .description("Time from an order change to the delivery of its event")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Deliver the events that are waiting in the outbox.
+     *
+     * @return Number of events delivered
+     */
+    @Scheduled(fixedDelayString = "${app.order-outbox.relay-interval:500ms}")
+    public synchronized int relay() {
+        int relayed = 0;
+        while (true) {
+            List<OrderOutboxEvent> batch;
+            try {
+                batch = orderOutboxRepository.findByPublishedAtIsNullOrderById(
+                        PageRequest.of(0, properties.batchSize()));
+            } catch (DataAccessException e) {
+                failures.increment();
+                log.warn("Could not read the order outbox: {}", e.getMessage());
+                return relayed;
+            }
+            if (batch.isEmpty()) {
+                return relayed;
+            }
+            List<OrderEventMessage> messages = batch.stream()
+                    .map(event -> new OrderEventMessage(event.getId(), event.getOrderId(), event.getPayload()))
+                    .toList();
+            try {
+                sink.publish(messages);
+                Instant now = Instant.now();
+                orderOutboxRepository.markPublished(messages.stream().map(OrderEventMessage::eventId).toList(), now);
+                for (OrderOutboxEvent event : batch) {
+                    delay.record(Duration.between(event.getCreatedAt(), now));
+                }
+            } catch (IOException | RuntimeException e) {
+                failures.increment();
+                log.warn("Order event batch from id {} not delivered, retrying on the next run: {}",
+                        batch.get(0).getId(), e.getMessage());
+                return relayed;
+            }
+            published.increment(batch.size());
+            relayed += batch.size();
+            if (batch.size() < properties.batchSize()) {
+                return relayed;
+            }
+        }
+    }
+
+    /**
+     * Drop events delivered more than {@code app.order-outbox.retention} ago.
+     *
+     * @return Number of events deleted
+     */
+    @Scheduled(fixedDelayString = "${app.order-outbox.cleanup-interval:1h}",
+            initialDelayString = "${app.order-outbox.cleanup-interval:1h}")
+    public int cleanUp() {
+        int deleted = orderOutboxRepository.deleteByPublishedAtBefore(Instant.now().minus(properties.retention()));
+        log.debug("Deleted {} delivered order events", deleted);
+        return deleted;
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.event.OrdersArchivedEvent;
+import com.example.inventory_service_demo.event.PurchaseOrderEvent;
+import com.example.inventory_service_demo.model.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory index of order ids per {@link OrderStatus}, so that status listings
+ * and counts do not scan {@code purchase_orders}.
+ * <p>
+ * Built when the application is ready and kept current from order events, which
+ * are applied once their transaction commits. Changes that arrive while a rebuild
+ * is scanning the table are replayed onto the new index before it replaces the
+ * old one. Every {@code app.order-status-index.verify-interval} the counts are
+ * compared with the database and the index is rebuilt if they differ, which
+ * covers orders written without going through {@link PurchaseOrderService}.
+ */
+@Service
+public class OrderStatusIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Counter repairs;
+    private final Object rebuildLock = new Object();
+    private volatile Index index = new Index();
+    private volatile boolean loaded;
+    private List<Change> changesDuringRebuild;
+    private long modifications;
+
+    @Autowired
+    public OrderStatusIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.repairs = Counter.builder("orders.status.index.repairs")
+                .description("Rebuilds of the order status index after it disagreed with the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        for (OrderStatus status : OrderStatus.values()) {
+            Gauge.builder("orders.status.count", this, statusIndex -> statusIndex.count(status))
+                    .description("Orders per status according to the order status index")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Record an order creation or status change once its transaction commits.
+     *
+     * @param event The order change
+     */
+    @EventListener
+    public void onPurchaseOrderEvent(PurchaseOrderEvent event) {
+        Change change = new Change(event.order().getId(), event.order().getStatus());
+        TransactionCallbacks.afterCommit(() -> apply(change));
+    }
+
+    /**
+     * Drop archived orders once their transaction commits.
+     *
+     * @param event The archived batch
+     */
+    @EventListener
+    public void onOrdersArchived(OrdersArchivedEvent event) {
+        List<Change> changes = event.orderIds().stream().map(id -> new Change(id, null)).toList();
+        TransactionCallbacks.afterCommit(() -> changes.forEach(this::apply));
+    }
+
+    /**
+     * Whether the index has been built and can answer queries.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Get a page of order ids with a status, in ascending id order.
+     *
+     * @param status The order status
+     * @param offset The number of ids to skip
+     * @param limit The maximum number of ids to return
+     * @return The order ids
+     */
+    public List<Long> getIds(OrderStatus status, long offset, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, 1024));
+        Iterator<Long> iterator = index.ids.get(status).iterator();
+        for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (ids.size() < limit && iterator.hasNext()) {
+            ids.add(iterator.next());
+        }
+        return ids;
+    }
+
+    /**
+     * Get the number of orders with a status.
+     *
+     * @param status The order status
+     * @return The number of orders
+     */
+    public long count(OrderStatus status) {
+        return index.count(status);
+    }
+
+    /**
+     * Get the number of orders per status.
+     *
+     * @return The count for every status, including zero counts
+     */
+    public Map<OrderStatus, Long> counts() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, index.count(status));
+        }
+        return counts;
+    }
+
+    /**
+     * Build the index from {@code purchase_orders}.
+     *
+     * @return Number of orders indexed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            Index rebuilt = new Index();
+            try {
+                jdbcTemplate.query("select id, status from purchase_orders where status is not null", rs -> {
+                    rebuilt.put(rs.getLong(1), OrderStatus.valueOf(rs.getString(2)));
+                });
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changesDuringRebuild = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                changesDuringRebuild.forEach(rebuilt::apply);
+                changesDuringRebuild = null;
+                index = rebuilt;
+                modifications++;
+            }
+            loaded = true;
+            log.info("Indexed {} orders by status", rebuilt.size());
+            return rebuilt.size();
+        }
+    }
+
+    /**
+     * Compare the index counts with the database and rebuild the index if they differ.
+     * A check that overlaps with order changes is skipped, as the two sides may
+     * legitimately disagree while those changes commit.
+     *
+     * @return Whether the index was rebuilt
+     */
+    @Scheduled(fixedDelayString = "${app.order-status-index.verify-interval:5m}",
+            initialDelayString = "${app.order-status-index.verify-interval:5m}")
+    public boolean verify() {
+        if (!loaded) {
+            return false;
+        }
+        long before = modificationCount();
+        Map<OrderStatus, Long> expected = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            expected.put(status, 0L);
+        }
+        jdbcTemplate.query("select status, count(*) from purchase_orders where status is not null group by status",
+                rs -> {
+                    expected.put(OrderStatus.valueOf(rs.getString(1)), rs.getLong(2));
+                });
+        Map<OrderStatus, Long> actual = counts();
+        if (modificationCount() != before || expected.equals(actual)) {
+            return false;
+        }
+        log.warn("Order status index out of step with the database (index {}, database {}), rebuilding",
+                actual, expected);
+        repairs.increment();
+        rebuild();
+        return true;
+    }
+
+    private synchronized void apply(Change change) {
+        index.apply(change);
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+        modifications++;
+    }
+
+    private synchronized long modificationCount() {
+        return modifications;
+    }
+
+    /**
+     * An order reaching a status, or leaving the database when the status is {@code null}.
+     */
+    private record Change(long orderId, OrderStatus status) {
+    }
+
+    /**
+     * Ids per status plus the reverse mapping needed to move an id between statuses.
+     * Written under the lock of the enclosing {@link OrderStatusIndex}; the id sets
+     * and counts can be read concurrently.
+     */
+    private static final class Index {
+
+        private final Map<Long, OrderStatus> statusById = new ConcurrentHashMap<>();
+        private final Map<OrderStatus, NavigableSet<Long>> ids = new EnumMap<>(OrderStatus.class);
+        private final AtomicLongArray counts = new AtomicLongArray(OrderStatus.values().length);
+
+        Index() {
+            for (OrderStatus status : OrderStatus.values()) {
+                ids.put(status, new ConcurrentSkipListSet<>());
+            }
+        }
+
+        void apply(Change change) {
+            if (change.status() == null) {
+                remove(change.orderId());
+            } else {
+                put(change.orderId(), change.status());
+            }
+        }
+
+        void put(long orderId, OrderStatus status) {
+            OrderStatus previous = statusById.put(orderId, status);
+            if (previous == status) {
+                return;
+            }
+            if (previous != null) {
+                ids.get(previous).remove(orderId);
+                counts.decrementAndGet(previous.ordinal());
+            }
+            ids.get(status).add(orderId);
+            counts.incrementAndGet(status.ordinal());
+        }
+
+        void remove(long orderId) {
+            OrderStatus previous = statusById.remove(orderId);
+            if (previous != null) {
+                ids.get(previous).remove(orderId);
+                counts.decrementAndGet(previous.ordinal());
+            }
+        }
+
+        long count(OrderStatus status) {
+            return counts.get(status.ordinal());
+        }
+
+        int size() {
+            return statusById.size();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.event.PurchaseOrderEvent;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.OrderSummary;
+import com.example.inventory_service_demo.repository.OrderSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Service class for the order summary read model.
+ * <p>
+ * Summaries are written in the same transaction as the order change that
+ * triggered them, and list screens read them from the single
+ * {@code order_summary} table without touching orders, items or products.
+ */
+@Service
+public class OrderSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSummaryService.class);
+
+    // Summaries whose order was deleted; never touches summaries of orders that exist
+    private static final String DELETE_ORPHANS =
+            "delete from order_summary s where s.order_id between ? and ? " +
+            "and not exists (select 1 from purchase_orders o where o.id = s.order_id)";
+
+    // Waits for order transactions still writing these orders, and keeps them out until the chunk commits
+    private static final String LOCK_CHUNK = "select id from purchase_orders where id between ? and ? for update";
+
+    private static final String REBUILD_CHUNK =
+            "merge into order_summary " +
+            "(order_id, order_date, status, customer_name, customer_email, item_count, total_amount) " +
+            "key (order_id) " +
+            "select o.id, o.order_date, o.status, o.customer_name, o.customer_email, count(i.id), o.total_amount " +
+            "from purchase_orders o left join order_items i on i.order_id = o.id " +
+            "where o.id between ? and ? " +
+            "group by o.id, o.order_date, o.status, o.customer_name, o.customer_email, o.total_amount";
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildChunkSize;
+    private final int rebuildThreads;
+    private final boolean rebuildOnStartup;
+
+    @Autowired
+    public OrderSummaryService(
+            OrderSummaryRepository orderSummaryRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.order-summary.rebuild-chunk-size:10000}") int rebuildChunkSize,
+            @Value("${app.order-summary.rebuild-threads:4}") int rebuildThreads,
+            @Value("${app.order-summary.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildChunkSize = rebuildChunkSize;
+        this.rebuildThreads = rebuildThreads;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    /**
+     * Keeps the summary in step with the order, inside the order's transaction.
+     *
+     * @param event The order change
+     */
+    @EventListener
+    public void onPurchaseOrderEvent(PurchaseOrderEvent event) {
+        if (event.isCreation()) {
+            orderSummaryRepository.save(new OrderSummary(event.order()));
+        } else if (orderSummaryRepository.updateStatus(event.order().getId(), event.order().getStatus()) == 0) {
+            orderSummaryRepository.save(new OrderSummary(event.order()));
+        }
+    }
+
+    /**
+     * Get order summaries matching the given filters.
+     *
+     * @param status Optional order status
+     * @param email Optional customer email
+     * @param startDate Optional earliest order date
+     * @param endDate Optional latest order date
+     * @param pageable Paging and sorting
+     * @return Page of matching order summaries
+     */
+    @Transactional(readOnly = true)
+    public Page<OrderSummary> findSummaries(
+            OrderStatus status, String email, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+        return orderSummaryRepository.findFiltered(status, email, startDate, endDate, pageable);
+    }
+
+    /**
+     * Regenerate all summaries from the order tables. The order id range is split
+     * into chunks that are rebuilt in parallel, each in its own transaction.
+     * <p>
+     * Safe while orders are being written: each chunk locks its orders before it
+     * upserts their summaries, so it neither overwrites a newer status written by
+     * {@link #onPurchaseOrderEvent} nor is overwritten by an older one, and only
+     * summaries whose order no longer exists are deleted.
+     *
+     * @return Number of summaries written
+     */
+    public int rebuild() {
+        Long minId = jdbcTemplate.queryForObject("select min(id) from purchase_orders", Long.class);
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from purchase_orders", Long.class);
+        if (minId == null || maxId == null) {
+            jdbcTemplate.update(DELETE_ORPHANS, Long.MIN_VALUE, Long.MAX_VALUE);
+            return 0;
+        }
+
+        // Orders below the current range are gone; orders above it are newer than this rebuild
+        jdbcTemplate.update("delete from order_summary where order_id < ?", minId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rebuildThreads));
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += rebuildChunkSize) {
+                long to = Math.min(maxId, from + rebuildChunkSize - 1);
+                long chunkStart = from;
+                chunks.add(executor.submit(() -> transactionTemplate.execute(status -> {
+                    jdbcTemplate.queryForList(LOCK_CHUNK, Long.class, chunkStart, to);
+                    jdbcTemplate.update(DELETE_ORPHANS, chunkStart, to);
+                    return jdbcTemplate.update(REBUILD_CHUNK, chunkStart, to);
+                })));
+            }
+
+            int rebuilt = 0;
+            for (Future<Integer> chunk : chunks) {
+                rebuilt += chunk.get();
+            }
+            log.info("Rebuilt {} order summaries in {} chunks", rebuilt, chunks.size());
+            return rebuilt;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Order summary rebuild was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Order summary rebuild failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Rebuild once the application is up, covering orders written directly
+     * through the repository (such as the sample data).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.OrderWaveResult;
+import com.example.inventory_service_demo.dto.OrderWaveResult.PendingOrder;
+import com.example.inventory_service_demo.event.PurchaseOrderEvent;
+import com.example.inventory_service_demo.model.OrderItem;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.InventoryStore;
+import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Processes pending orders in waves instead of one
+ * {@link PurchaseOrderService#processOrder(Long)} call per order.
+ * <p>
+ * A wave walks the {@code CREATED} orders, optionally only those of one customer
+ * or placed before a date, oldest first in batches of {@code app.order-waves.batch-size}
+ * with one transaction per batch. Each batch reads the current stock of its
+ * products and allocates it to the orders in order-date order. The allocated stock
+ * is taken with one conditional update per product and the filled orders are
+ * completed with one bulk update. Orders that cannot be filled completely stay
+ * {@code CREATED} and are reported with the reason.
+ * <p>
+ * If stock or an order changes underneath a batch, the batch is rolled back and
+ * allocated again, up to {@code app.order-waves.max-attempts} times; after that its
+ * orders are left for the next wave. A {@link PurchaseOrderEvent} is published for
+ * every completed order, as for orders processed one at a time.
+ */
+@Service
+public class OrderWaveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderWaveService.class);
+    private static final Comparator<PurchaseOrder> OLDEST_FIRST = Comparator
+            .comparing(PurchaseOrder::getOrderDate)
+            .thenComparing(PurchaseOrder::getId);
+
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final InventoryStore inventoryStore;
+    private final InventoryService inventoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Counter completedOrders;
+    private final Counter pendingOrders;
+
+    @Autowired
+    public OrderWaveService(PurchaseOrderRepository purchaseOrderRepository,
+                            InventoryStore inventoryStore,
+                            InventoryService inventoryService,
+                            ApplicationEventPublisher eventPublisher,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.order-waves.batch-size:1000}") int batchSize,
+                            @Value("${app.order-waves.max-attempts:3}") int maxAttempts) {
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.inventoryStore = inventoryStore;
+        this.inventoryService = inventoryService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.completedOrders = Counter.builder("orders.waves.orders").tag("result", "completed")
+                .description("Orders completed by order waves")
+                .register(meterRegistry);
+        this.pendingOrders = Counter.builder("orders.waves.orders").tag("result", "pending")
+                .description("Orders an order wave could not fill")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Process pending orders, oldest first.
+     *
+     * @param customerEmail Only orders of this customer, or {@code null} for all
+     * @param placedBefore Only orders placed before this date, or {@code null} for all
+     * @param limit The maximum number of orders to consider, or {@code null} for all
+     * @return The number of completed orders and the orders left pending
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public synchronized OrderWaveResult processWave(String customerEmail, LocalDateTime placedBefore, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        long start = System.nanoTime();
+        Filter filter = new Filter(customerEmail, placedBefore);
+        int remaining = limit == null ? Integer.MAX_VALUE : limit;
+        Cursor cursor = Cursor.START;
+        int completed = 0;
+        List<PendingOrder> pending = new ArrayList<>();
+
+        while (remaining > 0) {
+            int size = Math.min(batchSize, remaining);
+            Batch batch = processBatch(filter, cursor, size);
+            completed += batch.completed();
+            pending.addAll(batch.pending());
+            remaining -= batch.size();
+            cursor = batch.last();
+            if (batch.size() < size) {
+                break;
+            }
+        }
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        completedOrders.increment(completed);
+        pendingOrders.increment(pending.size());
+        if (completed + pending.size() > 0) {
+            log.info("Order wave completed {} orders and left {} pending in {} ms",
+                    completed, pending.size(), durationMillis);
+        }
+        return new OrderWaveResult(completed, List.copyOf(pending), durationMillis);
+    }
+
+    private Batch processBatch(Filter filter, Cursor cursor, int size) {
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> allocate(filter, cursor, size));
+            } catch (BatchChangedException | IllegalArgumentException e) {
+                log.debug("Order wave batch after {} changed concurrently, attempt {}: {}",
+                        cursor, attempt, e.getMessage());
+            }
+        }
+        try {
+            return transactionTemplate.execute(status -> allocate(filter, cursor, size));
+        } catch (BatchChangedException | IllegalArgumentException e) {
+            log.warn("Order wave batch after {} kept changing, leaving it for the next wave: {}",
+                    cursor, e.getMessage());
+            return transactionTemplate.execute(status -> skip(filter, cursor, size));
+        }
+    }
+
+    private Batch allocate(Filter filter, Cursor cursor, int size) {
+        // Nothing loaded here is ever dirty; without this every listener query would
+        // dirty-check the whole batch before it runs
+        entityManager.setFlushMode(FlushModeType.COMMIT);
+        List<PurchaseOrder> orders = load(filter, cursor, size);
+        if (orders.isEmpty()) {
+            return new Batch(0, 0, List.of(), cursor);
+        }
+        Map<Long, Integer> stock = stockOf(orders);
+
+        // Oldest orders first; an order takes stock only if all of its lines can be filled
+        Map<Long, Integer> demand = new HashMap<>();
+        List<PurchaseOrder> filled = new ArrayList<>(orders.size());
+        List<PendingOrder> pending = new ArrayList<>();
+        for (PurchaseOrder order : orders) {
+            Map<Long, Integer> quantities = quantities(order);
+            String shortage = shortage(order, quantities, stock);
+            if (shortage != null) {
+                pending.add(new PendingOrder(order.getId(), shortage));
+                continue;
+            }
+            quantities.forEach((productId, quantity) -> {
+                stock.merge(productId, -quantity, Integer::sum);
+                demand.merge(productId, -quantity, Integer::sum);
+            });
+            filled.add(order);
+        }
+
+        if (!filled.isEmpty()) {
+            // One conditional update per product; fails if the stock dropped since it was read
+            inventoryService.adjustInventories(demand);
+            List<Long> ids = filled.stream().map(PurchaseOrder::getId).toList();
+            if (purchaseOrderRepository.updateStatus(ids, OrderStatus.CREATED, OrderStatus.COMPLETED) != ids.size()) {
+                throw new BatchChangedException("An order of the batch is no longer CREATED");
+            }
+            // The orders are read-only, so the new status is only seen by the listeners
+            for (PurchaseOrder order : filled) {
+                order.setStatus(OrderStatus.COMPLETED);
+                eventPublisher.publishEvent(new PurchaseOrderEvent(order, OrderStatus.CREATED));
+            }
+        }
+        return new Batch(orders.size(), filled.size(), pending, Cursor.after(orders.get(orders.size() - 1)));
+    }
+
+    private Batch skip(Filter filter, Cursor cursor, int size) {
+        List<PurchaseOrder> orders = load(filter, cursor, size);
+        if (orders.isEmpty()) {
+            return new Batch(0, 0, List.of(), cursor);
+        }
+        List<PendingOrder> pending = orders.stream()
+                .map(order -> new PendingOrder(order.getId(), "Stock or orders changed during the wave"))
+                .toList();
+        return new Batch(orders.size(), 0, pending, Cursor.after(orders.get(orders.size() - 1)));
+    }
+
+    private List<PurchaseOrder> load(Filter filter, Cursor cursor, int size) {
+        List<Long> ids = purchaseOrderRepository.findWaveIds(OrderStatus.CREATED, filter.customerEmail(),
+                filter.placedBefore(), cursor.orderDate(), cursor.orderId(), PageRequest.of(0, size));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<PurchaseOrder> orders = new ArrayList<>(purchaseOrderRepository.findReadOnlyWithItemsByIdIn(ids));
+        orders.sort(OLDEST_FIRST);
+        return orders;
+    }
+
+    // Current stock of the products of the batch, hot product slots and shards included
+    private Map<Long, Integer> stockOf(List<PurchaseOrder> orders) {
+        Set<Long> productIds = new HashSet<>();
+        for (PurchaseOrder order : orders) {
+            for (OrderItem item : order.getItems()) {
+                productIds.add(item.getProduct().getId());
+            }
+        }
+        return inventoryStore.findQuantities(productIds);
+    }
+
+    private static Map<Long, Integer> quantities(PurchaseOrder order) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private static String shortage(PurchaseOrder order, Map<Long, Integer> quantities, Map<Long, Integer> stock) {
+        if (quantities.isEmpty()) {
+            return "Order has no items";
+        }
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Integer available = stock.get(line.getKey());
+            if (available == null) {
+                return "No inventory found for product: " + productName(order, line.getKey());
+            }
+            if (available < line.getValue()) {
+                return "Insufficient inventory for product: " + productName(order, line.getKey()) +
+                        ". Available: " + available + ", Requested: " + line.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String productName(PurchaseOrder order, Long productId) {
+        return order.getItems().stream()
+                .filter(item -> item.getProduct().getId().equals(productId))
+                .map(item -> item.getProduct().getName())
+                .findFirst()
+                .orElse(String.valueOf(productId));
+    }
+
+    private record Filter(String customerEmail, LocalDateTime placedBefore) {
+    }
+
+    /**
+     * Position of a wave: the order date and id of the last order visited.
+     */
+    private record Cursor(LocalDateTime orderDate, Long orderId) {
+
+        static final Cursor START = new Cursor(null, 0L);
+
+        static Cursor after(PurchaseOrder order) {
+            return new Cursor(order.getOrderDate(), order.getId());
+        }
+    }
+
+    private record Batch(int size, int completed, List<PendingOrder> pending, Cursor last) {
+    }
+
+    private static final class BatchChangedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        BatchChangedException(String message) {
+            super(message);
+        }
+    }
+}
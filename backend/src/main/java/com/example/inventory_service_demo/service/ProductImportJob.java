@@ -0,0 +1,131 @@
+package com.example.inventory_service_demo.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and outcome of one product import, updated while the import runs.
+ */
+public class ProductImportJob {
+
+    /**
+     * At most this many row errors are kept; {@link #getFailed()} still counts all of them.
+     */
+    static final int MAX_ERRORS = 1000;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * A rejected row.
+     *
+     * @param line line of the file the row starts on
+     * @param sku SKU of the row, if it could be read
+     * @param message why the row was rejected
+     */
+    public record RowError(long line, String sku, String message) {
+    }
+
+    private final String id;
+    private final String format;
+    private final Instant startedAt = Instant.now();
+    private volatile Instant finishedAt;
+    private volatile Status status = Status.RUNNING;
+    private volatile String failure;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+
+    ProductImportJob(String id, String format) {
+        this.id = id;
+        this.format = format;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void created(int count) {
+        created.addAndGet(count);
+    }
+
+    void updated(int count) {
+        updated.addAndGet(count);
+    }
+
+    void duplicate() {
+        duplicates.incrementAndGet();
+    }
+
+    void rejected(long line, String sku, String message) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(new RowError(line, sku, message));
+            }
+        }
+    }
+
+    void finish(String failure) {
+        this.failure = failure;
+        this.finishedAt = Instant.now();
+        this.status = failure == null ? Status.COMPLETED : Status.FAILED;
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getCreated() {
+        return created.get();
+    }
+
+    public long getUpdated() {
+        return updated.get();
+    }
+
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+}
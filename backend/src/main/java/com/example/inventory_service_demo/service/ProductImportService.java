@@ -0,0 +1,385 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.ProductImportRow;
+import com.example.inventory_service_demo.model.CacheChange;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams products from CSV or NDJSON into the catalog.
+ * <p>
+ * The request thread parses the input one row at a time and hands rows to
+ * {@code app.product-import.workers} workers through bounded queues, so memory
+ * stays flat however large the file is. Rows are routed by SKU, so one worker
+ * owns all rows of a SKU and later rows update earlier ones. Each worker validates its rows
+ * against the {@link Product} constraints and upserts them in transactions of
+ * {@code app.product-import.batch-size}. New products with a quantity get that
+ * as initial inventory. If a batch fails its rows are retried one by one so only
+ * the offending rows are rejected.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+    private static final int FINISHED_JOBS_KEPT = 20;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private record Line(long number, ProductImportRow row) {
+    }
+
+    private static final Line END = new Line(-1, null);
+
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final ObjectProvider<CacheChangeLog> cacheChangeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int batchSize;
+    private final Map<String, ProductImportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    @Autowired
+    public ProductImportService(ProductRepository productRepository,
+                                InventoryService inventoryService,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                EntityManager entityManager,
+                                ObjectProvider<CacheChangeLog> cacheChangeLog,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.product-import.workers:4}") int workers,
+                                @Value("${app.product-import.batch-size:500}") int batchSize) {
+        this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.cacheChangeLog = cacheChangeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = workers;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Import products from a stream, returning when the whole stream is processed.
+     *
+     * @param input The file contents
+     * @param format The file format
+     * @return The finished import job
+     */
+    public ProductImportJob importProducts(InputStream input, Format format) {
+        ProductImportJob job = new ProductImportJob(UUID.randomUUID().toString(), format.name().toLowerCase(Locale.ROOT));
+        jobs.put(job.getId(), job);
+        forgetOldJobs();
+
+        List<BlockingQueue<Line>> queues = new ArrayList<>(workers);
+        ExecutorService executor = Executors.newFixedThreadPool(workers,
+                runnable -> new Thread(runnable, "product-import-" + threadCounter.incrementAndGet()));
+        List<Future<?>> results = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            BlockingQueue<Line> queue = new ArrayBlockingQueue<>(batchSize * 2);
+            queues.add(queue);
+            results.add(executor.submit(() -> work(queue, job)));
+        }
+
+        String failure = null;
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            if (format == Format.CSV) {
+                parseCsv(reader, job, queues);
+            } else {
+                parseNdjson(reader, job, queues);
+            }
+        } catch (IOException e) {
+            failure = "Could not read input: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = "Interrupted";
+        } finally {
+            endWorkers(queues, results);
+            failure = awaitWorkers(results, failure);
+            executor.shutdownNow();
+        }
+        job.finish(failure);
+        log.info("Product import {} finished: {} rows, {} created, {} updated, {} duplicates, {} failed",
+                job.getId(), job.getRowsRead(), job.getCreated(), job.getUpdated(), job.getDuplicates(), job.getFailed());
+        return job;
+    }
+
+    public Optional<ProductImportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<ProductImportJob> getJobs() {
+        return jobs.values().stream()
+                .sorted((a, b) -> b.getStartedAt().compareTo(a.getStartedAt()))
+                .toList();
+    }
+
+    private void parseNdjson(BufferedReader reader, ProductImportJob job, List<BlockingQueue<Line>> queues)
+            throws IOException, InterruptedException {
+        String text;
+        long number = 0;
+        while ((text = reader.readLine()) != null) {
+            number++;
+            if (text.isBlank()) {
+                continue;
+            }
+            job.rowRead();
+            try {
+                dispatch(new Line(number, objectMapper.readValue(text, ProductImportRow.class)), job, queues);
+            } catch (JsonProcessingException e) {
+                job.rejected(number, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void parseCsv(BufferedReader reader, ProductImportJob job, List<BlockingQueue<Line>> queues)
+            throws IOException, InterruptedException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("sku", "name", "price")) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("CSV header has no '" + required + "' column");
+            }
+        }
+
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            job.rowRead();
+            String sku = field(fields, columns, "sku");
+            try {
+                String price = field(fields, columns, "price");
+                String quantity = field(fields, columns, "quantity");
+                ProductImportRow row = new ProductImportRow(sku, field(fields, columns, "name"),
+                        field(fields, columns, "description"),
+                        price == null ? null : new BigDecimal(price),
+                        quantity == null ? null : Integer.valueOf(quantity));
+                dispatch(new Line(csv.recordLine(), row), job, queues);
+            } catch (NumberFormatException e) {
+                job.rejected(csv.recordLine(), sku, "Invalid number: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private void dispatch(Line line, ProductImportJob job, List<BlockingQueue<Line>> queues) throws InterruptedException {
+        String sku = line.row().sku();
+        if (sku == null || sku.isBlank()) {
+            job.rejected(line.number(), sku, "SKU is required");
+            return;
+        }
+        queues.get(Math.floorMod(sku.hashCode(), queues.size())).put(line);
+    }
+
+    private void work(BlockingQueue<Line> queue, ProductImportJob job) {
+        List<Line> batch = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                Line line = queue.take();
+                if (line == END) {
+                    break;
+                }
+                try {
+                    if (isValid(line, job)) {
+                        batch.add(line);
+                    }
+                } catch (RuntimeException e) {
+                    job.rejected(line.number(), line.row().sku(), rootMessage(e));
+                }
+                if (batch.size() >= batchSize) {
+                    upsert(batch, job);
+                    batch.clear();
+                }
+            }
+            upsert(batch, job);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isValid(Line line, ProductImportJob job) {
+        ProductImportRow row = line.row();
+        Set<ConstraintViolation<Product>> violations = validator.validate(row.applyTo(new Product()));
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            job.rejected(line.number(), row.sku(), message);
+            return false;
+        }
+        if (row.quantity() != null && row.quantity() < 0) {
+            job.rejected(line.number(), row.sku(), "Quantity cannot be negative");
+            return false;
+        }
+        return true;
+    }
+
+    private void upsert(List<Line> batch, ProductImportJob job) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Within a batch the last row of a SKU wins
+        Map<String, Line> bySku = new LinkedHashMap<>();
+        for (Line line : batch) {
+            if (bySku.put(line.row().sku(), line) != null) {
+                job.duplicate();
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> upsertRows(bySku.values(), job));
+        } catch (RuntimeException e) {
+            // Find the offending rows
+            for (Line line : bySku.values()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> upsertRows(List.of(line), job));
+                } catch (RuntimeException rowFailure) {
+                    job.rejected(line.number(), line.row().sku(), rootMessage(rowFailure));
+                }
+            }
+        }
+    }
+
+    private void upsertRows(Collection<Line> lines, ProductImportJob job) {
+        // Each SKU appears once per batch and inserts run immediately (identity ids), so the
+        // per-row inventory lookups need not dirty-check the whole batch before they run
+        entityManager.setFlushMode(FlushModeType.COMMIT);
+        List<String> skus = lines.stream().map(line -> line.row().sku()).toList();
+        Map<String, Product> existing = productRepository.findBySkuIn(skus).stream()
+                .collect(Collectors.toMap(Product::getSku, Function.identity(), (first, second) -> first));
+
+        int created = 0;
+        List<Long> productIds = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            Product product = existing.get(line.row().sku());
+            if (product != null) {
+                productIds.add(productRepository.save(line.row().applyTo(product)).getId());
+                continue;
+            }
+            Product saved = productRepository.save(line.row().applyTo(new Product()));
+            productIds.add(saved.getId());
+            created++;
+            if (line.row().quantity() != null) {
+                inventoryService.createOrUpdateInventory(saved.getId(), line.row().quantity());
+            }
+        }
+
+        CacheChangeLog changeLog = cacheChangeLog.getIfAvailable();
+        if (changeLog != null) {
+            changeLog.record(CacheChange.Type.PRODUCT, productIds);
+        }
+
+        // Counted only once the transaction commits
+        int createdCount = created;
+        int updatedCount = lines.size() - created;
+        TransactionCallbacks.afterCommit(() -> {
+            job.created(createdCount);
+            job.updated(updatedCount);
+        });
+    }
+
+    private static void endWorkers(List<BlockingQueue<Line>> queues, List<Future<?>> results) {
+        // A full queue must not swallow the end marker; a worker that died cannot take it
+        for (int i = 0; i < queues.size(); i++) {
+            try {
+                while (!queues.get(i).offer(END, 100, TimeUnit.MILLISECONDS) && !results.get(i).isDone()) {
+                    // keep waiting for the worker to drain its queue
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.get(i).cancel(true);
+            }
+        }
+    }
+
+    private static String awaitWorkers(List<Future<?>> results, String failure) {
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = "Import worker failed: " + rootMessage(e);
+                }
+            }
+        }
+        return failure;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    private void forgetOldJobs() {
+        List<ProductImportJob> finished = jobs.values().stream()
+                .filter(job -> job.getStatus() != ProductImportJob.Status.RUNNING)
+                .sorted((a, b) -> b.getStartedAt().compareTo(a.getStartedAt()))
+                .toList();
+        finished.stream().skip(FINISHED_JOBS_KEPT).forEach(job -> jobs.remove(job.getId()));
+    }
+}
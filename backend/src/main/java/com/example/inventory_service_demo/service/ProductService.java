@@ -1,10 +1,20 @@
 package com.example.inventory_service_demo.service;
 
+import com.example.inventory_service_demo.event.CacheInvalidationEvent;
 import com.example.inventory_service_demo.exception.HashGenerationException;
+import com.example.inventory_service_demo.model.CacheChange;
 import com.example.inventory_service_demo.model.Product;
 import com.example.inventory_service_demo.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,40 +26,83 @@ import java.security.SecureRandom;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final SkuFilter skuFilter;
+    private final ObjectProvider<CacheChangeLog> cacheChangeLog;
+    private final Cache secondLevelCache;
     private final SecureRandom secureRandom = new SecureRandom();
 
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, SkuFilter skuFilter,
+                          ObjectProvider<CacheChangeLog> cacheChangeLog,
+                          EntityManagerFactory entityManagerFactory) {
         this.productRepository = productRepository;
+        this.skuFilter = skuFilter;
+        this.cacheChangeLog = cacheChangeLog;
+        this.secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
     }
 
+    /**
+     * Drop a product another node changed from the second-level cache. Runs before
+     * the other invalidation listeners, which may read the product again.
+     *
+     * @param event The invalidation
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (!event.concerns(CacheChange.Type.PRODUCT)) {
+            return;
+        }
+        if (event.isAll()) {
+            secondLevelCache.evictEntityData(Product.class);
+        } else {
+            secondLevelCache.evictEntityData(Product.class, event.entityId());
+        }
+        // The SKU of the product may have changed; cached lookups cannot be told apart
+        secondLevelCache.evictQueryRegion(ProductRepository.SKU_QUERY_REGION);
+    }
+
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Product> getProductBySku(String sku) {
-        return productRepository.findBySku(sku);
+        if (!skuFilter.mightExist(sku)) {
+            return Optional.empty();
+        }
+        Optional<Product> product = productRepository.findBySku(sku);
+        if (product.isEmpty()) {
+            skuFilter.recordFalsePositive();
+        }
+        return product;
     }
 
+    @Transactional
     public Product createProduct(Product product) {
         // Check if product with the same SKU already exists
-        if (productRepository.existsBySku(product.getSku())) {
+        if (skuExists(product.getSku())) {
             throw new IllegalArgumentException("Product with SKU " + product.getSku() + " already exists");
         }
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        recordChange(saved.getId());
+        return saved;
     }
 
+    @Transactional
     public Product updateProduct(Long id, Product productDetails) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
 
         // If SKU is changing, check that the new SKU doesn't already exist
         if (!product.getSku().equals(productDetails.getSku()) && 
-            productRepository.existsBySku(productDetails.getSku())) {
+            skuExists(productDetails.getSku())) {
             throw new IllegalArgumentException("Product with SKU " + productDetails.getSku() + " already exists");
         }
 
@@ -58,15 +111,33 @@ public class ProductService {
         product.setSku(productDetails.getSku());
         product.setPrice(productDetails.getPrice());
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        recordChange(saved.getId());
+        return saved;
     }
 
+    // Always asked of the database: a SKU just created on another node may not be in the filter yet
+    private boolean skuExists(String sku) {
+        return productRepository.existsBySku(sku);
+    }
+
+    @Transactional
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
         productRepository.delete(product);
+        recordChange(id);
+    }
+
+    // Lets other nodes refresh their copies once this transaction commits
+    private void recordChange(Long productId) {
+        CacheChangeLog changeLog = cacheChangeLog.getIfAvailable();
+        if (changeLog != null) {
+            changeLog.record(CacheChange.Type.PRODUCT, List.of(productId));
+        }
     }
     
+    @Transactional(readOnly = true)
     public List<Product> searchProducts(String searchTerm) {
         // Uses Spring Data JPA derived query method for safe parameterization
         // This prevents SQL injection by automatically handling parameter binding
@@ -0,0 +1,180 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.ProductView;
+import com.example.inventory_service_demo.event.CacheInvalidationEvent;
+import com.example.inventory_service_demo.model.CacheChange;
+import com.example.inventory_service_demo.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Product JSON serialized once and served as bytes until the product changes.
+ * <p>
+ * Holds the {@link ProductView} JSON of up to {@code app.product-views.max-entries}
+ * products, plus the JSON of the whole product list. {@code ProductViewListener}
+ * evicts a product when it is written and again when the write commits; creations
+ * and deletions also drop the list. Changes made on other nodes arrive as
+ * {@link CacheInvalidationEvent}s. A view loaded while an eviction happened is
+ * returned but not cached, so a load cannot put back data an eviction removed.
+ */
+@Service
+public class ProductViewCache {
+
+    private final ProductService productService;
+    private final ObjectWriter viewWriter;
+    private final ObjectWriter listWriter;
+    private final int maxEntries;
+    private final Map<Long, byte[]> views = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile byte[] all;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public ProductViewCache(ProductService productService,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.product-views.max-entries:10000}") int maxEntries) {
+        this.productService = productService;
+        this.viewWriter = objectMapper.writerFor(ProductView.class);
+        this.listWriter = objectMapper.writerFor(new TypeReference<List<ProductView>>() {
+        });
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("products.views.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("products.views.lookups").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("products.views.entries", views, Map::size)
+                .description("Products with cached JSON")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the JSON of a product.
+     *
+     * @param id The product id
+     * @return The product JSON, or empty if there is no such product
+     */
+    public Optional<byte[]> findById(Long id) {
+        byte[] cached = views.get(id);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        long evictionsBefore = evictions.get();
+        return productService.getProductById(id).map(product -> cache(product, evictionsBefore));
+    }
+
+    /**
+     * Get the JSON of the product with a SKU. The lookup itself is answered by
+     * {@link ProductService#getProductBySku(String)}.
+     *
+     * @param sku The product SKU
+     * @return The product JSON, or empty if there is no such product
+     */
+    public Optional<byte[]> findBySku(String sku) {
+        long evictionsBefore = evictions.get();
+        return productService.getProductBySku(sku).map(product -> {
+            byte[] cached = views.get(product.getId());
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            misses.increment();
+            return cache(product, evictionsBefore);
+        });
+    }
+
+    /**
+     * Get the JSON array of all products.
+     *
+     * @return The product list JSON
+     */
+    public byte[] findAll() {
+        byte[] cached = all;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long evictionsBefore = evictions.get();
+        List<ProductView> products = productService.getAllProducts().stream().map(ProductView::of).toList();
+        byte[] json = write(listWriter, products);
+        synchronized (this) {
+            if (evictions.get() == evictionsBefore) {
+                all = json;
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Forget the JSON of a product and of the product list.
+     *
+     * @param id The product id
+     */
+    public synchronized void evict(Long id) {
+        evictions.incrementAndGet();
+        views.remove(id);
+        all = null;
+    }
+
+    /**
+     * Forget all cached JSON.
+     */
+    public synchronized void clear() {
+        evictions.incrementAndGet();
+        views.clear();
+        all = null;
+    }
+
+    /**
+     * Drop products changed on another node.
+     *
+     * @param event The remote change
+     */
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (!event.concerns(CacheChange.Type.PRODUCT)) {
+            return;
+        }
+        if (event.isAll()) {
+            clear();
+        } else {
+            evict(event.entityId());
+        }
+    }
+
+    private byte[] cache(Product product, long evictionsBefore) {
+        byte[] json = write(viewWriter, ProductView.of(product));
+        synchronized (this) {
+            if (evictions.get() == evictionsBefore && views.size() < maxEntries) {
+                views.put(product.getId(), json);
+            }
+        }
+        return json;
+    }
+
+    private static byte[] write(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
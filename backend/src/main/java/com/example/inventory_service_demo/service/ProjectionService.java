@@ -0,0 +1,134 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.FieldSelection;
+import com.example.inventory_service_demo.model.Money;
+import com.example.inventory_service_demo.model.OrderItem;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.InventoryStore;
+import com.example.inventory_service_demo.repository.Projection;
+import com.example.inventory_service_demo.repository.ProjectionQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Sparse reads of the product, inventory and order lists for requests with
+ * {@code fields} or {@code embed} parameters. Field names match the response
+ * records; an embedded relation is a nested object or array under its name.
+ */
+@Service
+public class ProjectionService {
+
+    static final Projection PRODUCT = Projection.of(Product.class)
+            .field("name")
+            .field("description")
+            .field("sku")
+            .field("price", "price", ProjectionService::decimal);
+
+    static final Projection ORDER = Projection.of(PurchaseOrder.class)
+            .field("orderDate")
+            .field("status")
+            .field("customerName")
+            .field("customerEmail")
+            .field("totalAmount", "totalAmount", ProjectionService::decimal)
+            .embedMany("items", "order.id", Projection.of(OrderItem.class)
+                    .field("productId", "product.id")
+                    .field("quantity")
+                    .field("unitPrice", "unitPrice", ProjectionService::decimal)
+                    .field("subtotal", "subtotal", ProjectionService::decimal)
+                    .embedOne("product", "product", PRODUCT));
+
+    private static final Set<String> INVENTORY_FIELDS = Set.of("productId", "quantity");
+
+    private final ProjectionQuery projectionQuery;
+    private final InventoryStore inventoryStore;
+
+    @Autowired
+    public ProjectionService(ProjectionQuery projectionQuery, InventoryStore inventoryStore) {
+        this.projectionQuery = projectionQuery;
+        this.inventoryStore = inventoryStore;
+    }
+
+    /**
+     * Get the selected fields of all products.
+     *
+     * @throws IllegalArgumentException if the selection names unknown fields or relations
+     */
+    public List<Map<String, Object>> getProducts(FieldSelection selection) {
+        return projectionQuery.findAll(PRODUCT, selection);
+    }
+
+    /**
+     * Get the selected fields of all orders.
+     *
+     * @throws IllegalArgumentException if the selection names unknown fields or relations
+     */
+    public List<Map<String, Object>> getOrders(FieldSelection selection) {
+        return projectionQuery.findAll(ORDER, selection);
+    }
+
+    /**
+     * Get the selected fields of the stock of all products, keyed by {@code productId}.
+     * Quantities come from the {@link InventoryStore}, so they include hot product
+     * slots and sharded stock; embedded products are read in a second query.
+     *
+     * @throws IllegalArgumentException if the selection names unknown fields or relations
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getInventory(FieldSelection selection) {
+        Set<String> fields = selection.fieldsOf(null);
+        for (String field : fields) {
+            if (!INVENTORY_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field " + field);
+            }
+        }
+        for (String embed : selection.embeds()) {
+            if (!embed.equals("product")) {
+                throw new IllegalArgumentException("Cannot embed " + embed);
+            }
+        }
+        boolean embedProduct = selection.embeds().contains("product");
+        for (String field : selection.fields()) {
+            if (field.indexOf('.') >= 0 && !(embedProduct && field.startsWith("product."))) {
+                throw new IllegalArgumentException("Unknown field " + field);
+            }
+        }
+
+        Map<Long, Integer> quantities = new TreeMap<>();
+        inventoryStore.forEachQuantity(quantities::put);
+        Map<Object, Map<String, Object>> products = new HashMap<>();
+        if (embedProduct) {
+            FieldSelection productSelection = new FieldSelection(selection.fieldsOf("product"), Set.of());
+            for (Map<String, Object> product :
+                    projectionQuery.findAllById(PRODUCT, productSelection, quantities.keySet())) {
+                products.put(product.get("id"), product);
+            }
+        }
+        List<Map<String, Object>> inventory = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("productId", productId);
+            if (fields.isEmpty() || fields.contains("quantity")) {
+                json.put("quantity", quantity);
+            }
+            if (embedProduct) {
+                json.put("product", products.get(productId));
+            }
+            inventory.add(json);
+        });
+        return inventory;
+    }
+
+    private static Object decimal(Object minorUnits) {
+        return Money.toDecimal((Long) minorUnits);
+    }
+}
@@ -2,19 +2,36 @@ package com.example.inventory_service_demo.service;
 
 import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
 import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.event.PurchaseOrderEvent;
 import com.example.inventory_service_demo.model.OrderItem;
 import com.example.inventory_service_demo.model.OrderStatus;
 import com.example.inventory_service_demo.model.Product;
 import com.example.inventory_service_demo.model.PurchaseOrder;
 import com.example.inventory_service_demo.repository.ProductRepository;
 import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
+import com.example.inventory_service_demo.repository.archive.OrderArchive;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for purchase order operations.
@@ -22,18 +39,32 @@ import java.util.Optional;
 @Service
 public class PurchaseOrderService {
 
+    private static final int ID_CHUNK = 1000;
+
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final ProductRepository productRepository;
     private final InventoryService inventoryService;
+    private final AvailabilityService availabilityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<OrderArchive> orderArchive;
+    private final OrderStatusIndex orderStatusIndex;
 
     @Autowired
     public PurchaseOrderService(
             PurchaseOrderRepository purchaseOrderRepository,
             ProductRepository productRepository,
-            InventoryService inventoryService) {
+            InventoryService inventoryService,
+            AvailabilityService availabilityService,
+            ApplicationEventPublisher eventPublisher,
+            ObjectProvider<OrderArchive> orderArchive,
+            OrderStatusIndex orderStatusIndex) {
         this.purchaseOrderRepository = purchaseOrderRepository;
         this.productRepository = productRepository;
         this.inventoryService = inventoryService;
+        this.availabilityService = availabilityService;
+        this.eventPublisher = eventPublisher;
+        this.orderArchive = orderArchive;
+        this.orderStatusIndex = orderStatusIndex;
     }
 
     /**
@@ -41,6 +72,7 @@ public class PurchaseOrderService {
      *
      * @return List of all purchase orders
      */
+    @Transactional(readOnly = true)
     public List<PurchaseOrder> getAllOrders() {
         return purchaseOrderRepository.findAll();
     }
@@ -51,8 +83,14 @@ public class PurchaseOrderService {
      * @param id The ID of the purchase order
      * @return Optional containing the purchase order if found
      */
+    @Transactional(readOnly = true)
     public Optional<PurchaseOrder> getOrderById(Long id) {
-        return purchaseOrderRepository.findById(id);
+        Optional<PurchaseOrder> order = purchaseOrderRepository.findById(id);
+        OrderArchive archive = orderArchive.getIfAvailable();
+        if (order.isPresent() || archive == null) {
+            return order;
+        }
+        return archive.findById(id);
     }
 
     /**
@@ -61,8 +99,48 @@ public class PurchaseOrderService {
      * @param status The order status to filter by
      * @return List of purchase orders with the specified status
      */
+    @Transactional(readOnly = true)
     public List<PurchaseOrder> getOrdersByStatus(OrderStatus status) {
-        return purchaseOrderRepository.findByStatus(status);
+        if (!orderStatusIndex.isLoaded()) {
+            return purchaseOrderRepository.findByStatus(status);
+        }
+        return findInIdOrder(orderStatusIndex.getIds(status, 0, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Get a page of purchase orders by status, oldest order first. The ids come
+     * from the {@link OrderStatusIndex}, so only the orders on the page are read.
+     *
+     * @param status The order status to filter by
+     * @param page The zero-based page number
+     * @param size The page size
+     * @return Page of purchase orders with the specified status
+     */
+    @Transactional(readOnly = true)
+    public Page<PurchaseOrder> getOrdersByStatus(OrderStatus status, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("id"));
+        if (!orderStatusIndex.isLoaded()) {
+            return purchaseOrderRepository.findByStatus(status, pageable);
+        }
+        List<Long> ids = orderStatusIndex.getIds(status, pageable.getOffset(), size);
+        return new PageImpl<>(findInIdOrder(ids), pageable, orderStatusIndex.count(status));
+    }
+
+    /**
+     * Get the number of purchase orders per status.
+     *
+     * @return The count for every status
+     */
+    @Transactional(readOnly = true)
+    public Map<OrderStatus, Long> getStatusCounts() {
+        if (orderStatusIndex.isLoaded()) {
+            return orderStatusIndex.counts();
+        }
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, purchaseOrderRepository.countByStatus(status));
+        }
+        return counts;
     }
 
     /**
@@ -71,6 +149,7 @@ public class PurchaseOrderService {
      * @param email The customer email to filter by
      * @return List of purchase orders for the specified customer email
      */
+    @Transactional(readOnly = true)
     public List<PurchaseOrder> getOrdersByCustomerEmail(String email) {
         return purchaseOrderRepository.findByCustomerEmail(email);
     }
@@ -84,33 +163,80 @@ public class PurchaseOrderService {
      */
     @Transactional
     public PurchaseOrder createOrder(CreatePurchaseOrderDto orderDto) {
+        PurchaseOrder order = newOrder(orderDto, productRepository::findById);
+
+        // Save the order
+        PurchaseOrder savedOrder = purchaseOrderRepository.save(order);
+        eventPublisher.publishEvent(new PurchaseOrderEvent(savedOrder, null));
+        return savedOrder;
+    }
+
+    /**
+     * Create several purchase orders in one transaction, looking up the products of
+     * all of them at once. Orders that fail validation are left out and reported
+     * instead of failing the others.
+     *
+     * @param orderDtos The DTOs containing order information
+     * @return The outcome of each order, in the order given
+     */
+    @Transactional
+    public List<OrderCreation> createOrders(List<CreatePurchaseOrderDto> orderDtos) {
+        Set<Long> productIds = orderDtos.stream()
+                .filter(orderDto -> orderDto.getItems() != null)
+                .flatMap(orderDto -> orderDto.getItems().stream())
+                .map(OrderItemDto::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.loadAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<OrderCreation> results = new ArrayList<>(orderDtos.size());
+        List<PurchaseOrder> orders = new ArrayList<>(orderDtos.size());
+        for (CreatePurchaseOrderDto orderDto : orderDtos) {
+            try {
+                PurchaseOrder order = newOrder(orderDto, productId -> Optional.ofNullable(products.get(productId)));
+                orders.add(order);
+                results.add(new OrderCreation(order, null));
+            } catch (IllegalArgumentException e) {
+                results.add(new OrderCreation(null, e.getMessage()));
+            }
+        }
+
+        // New orders are persisted in place, so the results refer to the saved orders
+        purchaseOrderRepository.saveAll(orders);
+        orders.forEach(order -> eventPublisher.publishEvent(new PurchaseOrderEvent(order, null)));
+        return results;
+    }
+
+    private PurchaseOrder newOrder(CreatePurchaseOrderDto orderDto, Function<Long, Optional<Product>> products) {
+        if (orderDto.getItems() == null || orderDto.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item");
+        }
+
         // Create a new purchase order
         PurchaseOrder order = new PurchaseOrder(orderDto.getCustomerName(), orderDto.getCustomerEmail());
         
         // Process each item in the order
         for (OrderItemDto itemDto : orderDto.getItems()) {
             // Find the product
-            Product product = productRepository.findById(itemDto.getProductId())
+            Product product = products.apply(itemDto.getProductId())
                     .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + itemDto.getProductId()));
             
             // Check inventory availability
-            inventoryService.getInventoryByProductId(product.getId())
-                    .ifPresentOrElse(inventory -> {
-                        if (inventory.getQuantity() < itemDto.getQuantity()) {
-                            throw new IllegalArgumentException("Insufficient inventory for product: " + product.getName() +
-                                    ". Available: " + inventory.getQuantity() + ", Requested: " + itemDto.getQuantity());
-                        }
-                    }, () -> {
-                        throw new IllegalArgumentException("No inventory found for product: " + product.getName());
-                    });
+            int available = availabilityService.getAvailable(product.getId());
+            if (available == AvailabilityMap.MISSING) {
+                throw new IllegalArgumentException("No inventory found for product: " + product.getName());
+            }
+            if (available < itemDto.getQuantity()) {
+                throw new IllegalArgumentException("Insufficient inventory for product: " + product.getName() +
+                        ". Available: " + available + ", Requested: " + itemDto.getQuantity());
+            }
             
             // Create order item
             OrderItem orderItem = new OrderItem(product, itemDto.getQuantity());
             order.addItem(orderItem);
         }
-        
-        // Save the order
-        return purchaseOrderRepository.save(order);
+        return order;
     }
 
     /**
@@ -132,19 +258,19 @@ public class PurchaseOrderService {
         }
         
         // Update order status
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(OrderStatus.PROCESSING);
         
-        // Adjust inventory for each item
-        for (OrderItem item : order.getItems()) {
-            // Reduce inventory by the ordered quantity
-            inventoryService.adjustInventory(item.getProduct().getId(), -item.getQuantity());
-        }
+        // Reduce inventory by the ordered quantities, all items at once
+        inventoryService.adjustInventories(quantityChanges(order, -1));
         
         // Update order status to completed
         order.setStatus(OrderStatus.COMPLETED);
         
         // Save and return the updated order
-        return purchaseOrderRepository.save(order);
+        PurchaseOrder savedOrder = purchaseOrderRepository.save(order);
+        eventPublisher.publishEvent(new PurchaseOrderEvent(savedOrder, previousStatus));
+        return savedOrder;
     }
 
     /**
@@ -167,27 +293,87 @@ public class PurchaseOrderService {
         
         // If the order was being processed, restore inventory
         if (order.getStatus() == OrderStatus.PROCESSING) {
-            for (OrderItem item : order.getItems()) {
-                // Increase inventory by the ordered quantity
-                inventoryService.adjustInventory(item.getProduct().getId(), item.getQuantity());
-            }
+            // Increase inventory by the ordered quantities
+            inventoryService.adjustInventories(quantityChanges(order, 1));
         }
         
         // Update order status
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(OrderStatus.CANCELLED);
         
         // Save and return the updated order
-        return purchaseOrderRepository.save(order);
+        PurchaseOrder savedOrder = purchaseOrderRepository.save(order);
+        eventPublisher.publishEvent(new PurchaseOrderEvent(savedOrder, previousStatus));
+        return savedOrder;
     }
 
     /**
-     * Get orders created between two dates.
+     * Get orders created between two dates. When the order archive is enabled and
+     * the range reaches back into it, archived orders are included.
      *
      * @param startDate The start date
      * @param endDate The end date
      * @return List of orders created between the specified dates
      */
+    @Transactional(readOnly = true)
     public List<PurchaseOrder> getOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
-        return purchaseOrderRepository.findByOrderDateBetween(startDate, endDate);
+        List<PurchaseOrder> orders = purchaseOrderRepository.findByOrderDateBetween(startDate, endDate);
+        OrderArchive archive = orderArchive.getIfAvailable();
+        boolean reachesArchive = archive != null && archive.getOldestDay()
+                .filter(oldest -> !oldest.isAfter(endDate.toLocalDate()))
+                .isPresent();
+        if (!reachesArchive) {
+            return orders;
+        }
+        // An order can briefly be in both while its archiving transaction commits
+        Set<Long> liveIds = orders.stream().map(PurchaseOrder::getId).collect(Collectors.toSet());
+        List<PurchaseOrder> combined = new ArrayList<>(orders);
+        for (PurchaseOrder archived : archive.findBetween(startDate, endDate)) {
+            if (!liveIds.contains(archived.getId())) {
+                combined.add(archived);
+            }
+        }
+        return combined;
+    }
+
+    /**
+     * Load orders by id, keeping the order of the ids. Orders deleted since the
+     * ids were read are left out.
+     */
+    // Loads at most ID_CHUNK orders per query, so large statuses do not turn into one huge IN list
+    private List<PurchaseOrder> findInIdOrder(List<Long> ids) {
+        List<PurchaseOrder> orders = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + ID_CHUNK));
+            Map<Long, PurchaseOrder> byId = purchaseOrderRepository.findAllById(chunk).stream()
+                    .collect(Collectors.toMap(PurchaseOrder::getId, order -> order));
+            for (Long id : chunk) {
+                PurchaseOrder order = byId.get(id);
+                if (order != null) {
+                    orders.add(order);
+                }
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Sum the ordered quantities per product, multiplied by the given sign.
+     */
+    private static Map<Long, Integer> quantityChanges(PurchaseOrder order, int sign) {
+        Map<Long, Integer> quantityChanges = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            quantityChanges.merge(item.getProduct().getId(), sign * item.getQuantity(), Integer::sum);
+        }
+        return quantityChanges;
+    }
+
+    /**
+     * Outcome of one order of {@link #createOrders(List)}.
+     *
+     * @param order the saved order, or {@code null} if it was rejected
+     * @param error why the order was rejected, or {@code null} if it was saved
+     */
+    public record OrderCreation(PurchaseOrder order, String error) {
     }
 }
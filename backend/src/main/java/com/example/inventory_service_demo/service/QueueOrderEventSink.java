@@ -0,0 +1,65 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.OrderEventMessage;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands order events to consumers in the same process through a bounded queue.
+ * A batch that does not fit is refused as a whole and stays in the outbox until
+ * consumers have made room, so a slow consumer holds events back instead of
+ * losing them.
+ */
+public class QueueOrderEventSink implements OrderEventSink {
+
+    private final BlockingQueue<OrderEventMessage> queue;
+
+    public QueueOrderEventSink(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public synchronized void publish(List<OrderEventMessage> events) throws IOException {
+        if (queue.remainingCapacity() < events.size()) {
+            throw new IOException("Order event queue full, " + queue.remainingCapacity()
+                    + " free for " + events.size() + " events");
+        }
+        queue.addAll(events);
+    }
+
+    /**
+     * Take the next event, waiting up to a timeout for one to arrive.
+     *
+     * @param timeout The longest time to wait
+     * @return The event, or {@code null} if none arrived in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public OrderEventMessage poll(Duration timeout) throws InterruptedException {
+        return queue.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Take the events that are waiting, without blocking.
+     *
+     * @param maxEvents The maximum number of events to take
+     * @return The events, oldest first
+     */
+    public List<OrderEventMessage> drain(int maxEvents) {
+        List<OrderEventMessage> events = new ArrayList<>();
+        queue.drainTo(events, maxEvents);
+        return events;
+    }
+
+    /**
+     * Get the number of events waiting for a consumer.
+     */
+    public int size() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.inventory_service_demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Scalable Bloom filter over strings (Almeida et al., 2007): a chain of plain
+ * Bloom filters where each new stage is {@value #GROWTH} times larger and has a
+ * tighter error rate than the last, so the overall false positive rate stays
+ * under the target however many elements are added.
+ * <p>
+ * {@link #mightContain} is lock-free; {@link #add} is synchronized. There are no
+ * false negatives for elements whose {@code add} has returned.
+ */
+public final class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private static final class Stage {
+        final AtomicLongArray bits;
+        final int bitCount;
+        final int hashes;
+        final long capacity;
+        long count;
+
+        Stage(long capacity, double falsePositiveRate) {
+            long bitsNeeded = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = (int) Math.min(Math.max(bitsNeeded, 64), Integer.MAX_VALUE - 63);
+            this.bits = new AtomicLongArray((bitCount + 63) / 64);
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = index(h1, h2, i);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = index(h1, h2, i);
+                long mask = 1L << bit;
+                bits.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+            }
+            count++;
+        }
+
+        // Kirsch-Mitzenmacher double hashing
+        private int index(long h1, long h2, int i) {
+            return (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+        }
+
+        double estimatedFalsePositiveRate() {
+            long set = 0;
+            for (int i = 0; i < bits.length(); i++) {
+                set += Long.bitCount(bits.get(i));
+            }
+            return Math.pow((double) set / bitCount, hashes);
+        }
+    }
+
+    private final double falsePositiveRate;
+    private volatile List<Stage> stages;
+
+    /**
+     * @param expectedElements capacity of the first stage
+     * @param falsePositiveRate target overall false positive rate
+     */
+    public ScalableBloomFilter(long expectedElements, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        // The stage error rates form a geometric series summing to the target
+        this.stages = List.of(new Stage(Math.max(expectedElements, 64), falsePositiveRate * (1 - TIGHTENING)));
+    }
+
+    public boolean mightContain(String value) {
+        long h = fnv1a(value);
+        long h1 = mix(h);
+        long h2 = mix(h ^ 0x9E3779B97F4A7C15L) | 1;
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized void add(String value) {
+        long h = fnv1a(value);
+        long h1 = mix(h);
+        long h2 = mix(h ^ 0x9E3779B97F4A7C15L) | 1;
+        List<Stage> current = stages;
+        for (Stage stage : current) {
+            if (stage.mightContain(h1, h2)) {
+                return;
+            }
+        }
+        Stage last = current.get(current.size() - 1);
+        if (last.count >= last.capacity) {
+            List<Stage> grown = new ArrayList<>(current);
+            last = new Stage(last.capacity * GROWTH,
+                    falsePositiveRate * (1 - TIGHTENING) * Math.pow(TIGHTENING, current.size()));
+            grown.add(last);
+            stages = List.copyOf(grown);
+        }
+        last.add(h1, h2);
+    }
+
+    /**
+     * Get the number of distinct elements added, give or take false positives.
+     */
+    public synchronized long size() {
+        return stages.stream().mapToLong(stage -> stage.count).sum();
+    }
+
+    /**
+     * Estimate the current false positive rate from how full each stage is.
+     */
+    public double estimatedFalsePositiveRate() {
+        double none = 1;
+        for (Stage stage : stages) {
+            none *= 1 - stage.estimatedFalsePositiveRate();
+        }
+        return 1 - none;
+    }
+
+    /**
+     * Get the memory taken by the bit arrays.
+     */
+    public long memoryBytes() {
+        return stages.stream().mapToLong(stage -> stage.bits.length() * (long) Long.BYTES).sum();
+    }
+
+    private static long fnv1a(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ b) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    // Finalizer of MurmurHash3
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
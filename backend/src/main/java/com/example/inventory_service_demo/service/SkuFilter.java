@@ -0,0 +1,188 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.event.CacheInvalidationEvent;
+import com.example.inventory_service_demo.model.CacheChange;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over all product SKUs, used to answer "no such SKU" without a
+ * database query. Built when the application is ready and rebuilt every
+ * {@code app.sku-filter.rebuild-interval} to forget deleted SKUs; until the
+ * first build every SKU counts as possibly present.
+ * <p>
+ * SKUs are added by {@link com.example.inventory_service_demo.model.ProductSkuListener}
+ * whenever this node persists or updates a product, so writes that bypass
+ * {@link ProductService} are covered too. SKUs created on other nodes only arrive
+ * through {@link CacheInvalidationEvent}s, so the filter requires
+ * {@code app.cache-invalidation.enabled} and is off without it.
+ */
+@Service
+public class SkuFilter {
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long expectedSkus;
+    private final double falsePositiveRate;
+
+    private volatile ScalableBloomFilter filter;
+    private volatile boolean built;
+    // SKUs added while a rebuild scans the table, replayed into the new filter
+    private List<String> addedDuringRebuild;
+
+    private final Counter negatives;
+    private final Counter falsePositives;
+    private final AtomicLong negativesSinceBuild = new AtomicLong();
+    private final AtomicLong falsePositivesSinceBuild = new AtomicLong();
+
+    @Autowired
+    public SkuFilter(ProductRepository productRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${app.sku-filter.enabled:${app.cache-invalidation.enabled:false}}") boolean enabled,
+                     @Value("${app.cache-invalidation.enabled:false}") boolean cacheInvalidation,
+                     @Value("${app.sku-filter.expected-skus:10000}") long expectedSkus,
+                     @Value("${app.sku-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (enabled && !cacheInvalidation) {
+            throw new IllegalStateException("app.sku-filter.enabled requires app.cache-invalidation.enabled, "
+                    + "without it SKUs created on other nodes would be reported as absent");
+        }
+        this.productRepository = productRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.expectedSkus = expectedSkus;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new ScalableBloomFilter(expectedSkus, falsePositiveRate);
+
+        this.negatives = Counter.builder("products.sku.filter.lookups")
+                .description("SKU lookups answered by the Bloom filter alone")
+                .tag("result", "absent")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("products.sku.filter.lookups")
+                .description("SKU lookups the Bloom filter passed to the database that found nothing")
+                .tag("result", "false_positive")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("products.sku.filter.false.positive.rate", this, SkuFilter::observedFalsePositiveRate)
+                .description("Share of absent SKUs the filter failed to rule out since the last rebuild")
+                .tag("source", "observed")
+                .register(meterRegistry);
+        Gauge.builder("products.sku.filter.false.positive.rate", this, f -> f.filter.estimatedFalsePositiveRate())
+                .description("False positive rate expected from how full the filter is")
+                .tag("source", "estimated")
+                .register(meterRegistry);
+        Gauge.builder("products.sku.filter.memory", this, f -> f.filter.memoryBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rebuild the filter from the SKUs in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.sku-filter.rebuild-interval:1h}",
+            initialDelayString = "${app.sku-filter.rebuild-interval:1h}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            addedDuringRebuild = new ArrayList<>();
+        }
+        ScalableBloomFilter rebuilt = new ScalableBloomFilter(
+                Math.max(expectedSkus, productRepository.count()), falsePositiveRate);
+        try (Stream<String> skus = productRepository.streamAllSkus()) {
+            skus.forEach(rebuilt::add);
+        }
+        synchronized (this) {
+            addedDuringRebuild.forEach(rebuilt::add);
+            addedDuringRebuild = null;
+            filter = rebuilt;
+            built = true;
+        }
+        negativesSinceBuild.set(0);
+        falsePositivesSinceBuild.set(0);
+    }
+
+    /**
+     * Add the SKU of a product created or renamed on another node.
+     *
+     * @param event The remote change
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (!enabled || !event.concerns(CacheChange.Type.PRODUCT)) {
+            return;
+        }
+        if (event.isAll()) {
+            rebuild();
+        } else {
+            productRepository.findById(event.entityId()).map(Product::getSku).ifPresent(this::add);
+        }
+    }
+
+    /**
+     * Record that a SKU exists or is about to.
+     */
+    public synchronized void add(String sku) {
+        if (sku == null) {
+            return;
+        }
+        filter.add(sku);
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.add(sku);
+        }
+    }
+
+    /**
+     * Check whether a product with this SKU may exist.
+     *
+     * @param sku The SKU
+     * @return false only if no product has this SKU
+     */
+    public boolean mightExist(String sku) {
+        if (!enabled || !built || sku == null || filter.mightContain(sku)) {
+            return true;
+        }
+        negatives.increment();
+        negativesSinceBuild.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Record that a SKU the filter let through was not found in the database.
+     */
+    public void recordFalsePositive() {
+        if (enabled && built) {
+            falsePositives.increment();
+            falsePositivesSinceBuild.incrementAndGet();
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        long falsePositive = falsePositivesSinceBuild.get();
+        long absent = falsePositive + negativesSinceBuild.get();
+        return absent == 0 ? 0 : (double) falsePositive / absent;
+    }
+}
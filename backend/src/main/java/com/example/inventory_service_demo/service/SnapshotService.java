@@ -0,0 +1,289 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.config.SnapshotProperties;
+import com.example.inventory_service_demo.repository.snapshot.SnapshotFile;
+import com.example.inventory_service_demo.repository.snapshot.SnapshotFile.Block;
+import com.example.inventory_service_demo.repository.snapshot.SnapshotFile.Column;
+import com.example.inventory_service_demo.repository.snapshot.SnapshotFile.Table;
+import com.example.inventory_service_demo.repository.snapshot.SnapshotFile.Type;
+import com.example.inventory_service_demo.repository.snapshot.SnapshotStore;
+import com.example.inventory_service_demo.repository.snapshot.SnapshotStore.Snapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Takes {@link SnapshotFile}s of products, inventory and orders and restores them.
+ * <p>
+ * A snapshot reads every table inside one serializable transaction, so it is
+ * consistent across tables while orders keep changing, and streams the rows
+ * straight into the snapshot file. On startup the newest snapshot that passes
+ * its checksums is loaded into an empty database: parent tables before the tables
+ * referencing them, and within that order the blocks of all tables in parallel on
+ * {@code app.snapshot.restore-threads} threads, one batched insert and transaction
+ * per block, on {@code loadDataSource}. The identity columns are then moved past
+ * the restored ids. If loading fails the tables are emptied again and the next
+ * older snapshot is tried.
+ * <p>
+ * Derived state (order summaries, the status index, caches) is not part of a
+ * snapshot; it is rebuilt from the restored tables when the application is ready.
+ */
+public class SnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    // Tables referenced by foreign keys come first; the tables of one phase load in parallel
+    private static final List<List<String>> PHASES = List.of(
+            List.of("products"),
+            List.of("inventory", "inventory_slot", "purchase_orders"),
+            List.of("order_items"));
+
+    /**
+     * A snapshot that was written.
+     *
+     * @param snapshot The snapshot file
+     * @param rows The number of rows in it
+     * @param durationMillis How long it took
+     */
+    public record Result(Snapshot snapshot, long rows, long durationMillis) {
+    }
+
+    private final SnapshotStore snapshotStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final JdbcTemplate loadTemplate;
+    private final TransactionTemplate loadTransaction;
+    private final SnapshotProperties properties;
+
+    public SnapshotService(SnapshotStore snapshotStore,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           DataSource loadDataSource,
+                           SnapshotProperties properties) {
+        this.snapshotStore = snapshotStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        this.loadTemplate = new JdbcTemplate(loadDataSource);
+        this.loadTransaction = new TransactionTemplate(new DataSourceTransactionManager(loadDataSource));
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${app.snapshot.interval:15m}",
+            initialDelayString = "${app.snapshot.interval:15m}")
+    public void scheduledSnapshot() {
+        takeSnapshot();
+    }
+
+    /**
+     * Take a last snapshot once the web server has stopped taking requests.
+     */
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        if (!properties.onShutdown()) {
+            return;
+        }
+        try {
+            takeSnapshot();
+        } catch (RuntimeException e) {
+            log.error("Snapshot on shutdown failed", e);
+        }
+    }
+
+    /**
+     * Write a snapshot of all snapshot tables.
+     *
+     * @return The snapshot written
+     */
+    public synchronized Result takeSnapshot() {
+        long start = System.nanoTime();
+        long[] rows = new long[1];
+        Snapshot snapshot = snapshotTransaction.execute(status -> {
+            List<Table> tables = PHASES.stream().flatMap(List::stream).map(this::describe).toList();
+            return snapshotStore.write(channel -> {
+                try (SnapshotFile.Writer writer = SnapshotFile.write(channel, tables, properties.blockRows())) {
+                    for (int t = 0; t < tables.size(); t++) {
+                        copyRows(tables.get(t), t, writer);
+                    }
+                    rows[0] = writer.finish();
+                }
+            });
+        });
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Wrote snapshot {} with {} rows ({} bytes) in {} ms",
+                snapshot.path().getFileName(), rows[0], snapshot.size(), durationMillis);
+        return new Result(snapshot, rows[0], durationMillis);
+    }
+
+    /**
+     * Load the newest valid snapshot, unless the database already holds products.
+     *
+     * @return The number of rows restored
+     */
+    public synchronized long restoreLatest() {
+        Integer products = jdbcTemplate.queryForObject("select count(*) from products", Integer.class);
+        if (products != null && products > 0) {
+            log.info("Database already holds {} products, no snapshot restored", products);
+            return 0;
+        }
+        for (Snapshot snapshot : snapshotStore.getSnapshots()) {
+            long start = System.nanoTime();
+            try {
+                SnapshotFile file = SnapshotFile.open(snapshot.path());
+                load(file);
+                log.info("Restored {} rows from snapshot {} in {} ms", file.getRowCount(),
+                        snapshot.path().getFileName(), (System.nanoTime() - start) / 1_000_000);
+                return file.getRowCount();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Cannot restore snapshot {}, trying an older one", snapshot.path().getFileName(), e);
+                clear();
+            }
+        }
+        return 0;
+    }
+
+    private Table describe(String name) {
+        return jdbcTemplate.query("select * from " + name + " where 1 = 0", rs -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            List<Column> columns = new ArrayList<>(metaData.getColumnCount());
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                String column = metaData.getColumnName(i).toLowerCase(Locale.ROOT);
+                columns.add(new Column(column, type(name, column, metaData.getColumnType(i),
+                        metaData.getColumnTypeName(i))));
+            }
+            return new Table(name, List.copyOf(columns));
+        });
+    }
+
+    private static Type type(String table, String column, int sqlType, String typeName) {
+        return switch (sqlType) {
+            case Types.BIGINT -> Type.LONG;
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> Type.INT;
+            case Types.NUMERIC, Types.DECIMAL -> Type.DECIMAL;
+            case Types.VARCHAR, Types.CHAR, Types.LONGVARCHAR, Types.NVARCHAR -> Type.STRING;
+            case Types.TIMESTAMP -> Type.TIMESTAMP;
+            default -> {
+                if (typeName.toUpperCase(Locale.ROOT).startsWith("ENUM")) {
+                    yield Type.STRING;
+                }
+                throw new IllegalStateException("Cannot snapshot " + table + "." + column + " of type " + typeName);
+            }
+        };
+    }
+
+    private void copyRows(Table table, int index, SnapshotFile.Writer writer) {
+        String columns = table.columns().stream().map(Column::name).collect(Collectors.joining(", "));
+        jdbcTemplate.query("select " + columns + " from " + table.name(), rs -> {
+            Object[] row = new Object[table.columns().size()];
+            for (int c = 0; c < row.length; c++) {
+                row[c] = value(rs, c + 1, table.columns().get(c).type());
+            }
+            try {
+                writer.add(index, row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static Object value(ResultSet rs, int column, Type type) throws SQLException {
+        Object value = switch (type) {
+            case LONG -> rs.getLong(column);
+            case INT -> rs.getInt(column);
+            case STRING -> rs.getString(column);
+            case DECIMAL -> rs.getBigDecimal(column);
+            case TIMESTAMP -> rs.getObject(column, LocalDateTime.class);
+        };
+        return rs.wasNull() ? null : value;
+    }
+
+    private void load(SnapshotFile file) throws IOException {
+        List<String> known = PHASES.stream().flatMap(List::stream).toList();
+        for (Table table : file.getTables()) {
+            if (!known.contains(table.name())) {
+                throw new IOException("Snapshot holds unknown table " + table.name());
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(properties.restoreThreads());
+        try {
+            for (List<String> phase : PHASES) {
+                List<Future<?>> loads = new ArrayList<>();
+                for (Block block : file.getBlocks()) {
+                    Table table = file.getTables().get(block.table());
+                    if (phase.contains(table.name())) {
+                        loads.add(executor.submit(() -> {
+                            insert(table, file.decode(block));
+                            return null;
+                        }));
+                    }
+                }
+                for (Future<?> load : loads) {
+                    load.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while restoring a snapshot", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("Cannot load snapshot block", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        for (Table table : file.getTables()) {
+            if (table.columns().stream().anyMatch(column -> column.name().equals("id"))) {
+                Long next = jdbcTemplate.queryForObject(
+                        "select coalesce(max(id), 0) + 1 from " + table.name(), Long.class);
+                jdbcTemplate.execute("alter table " + table.name() + " alter column id restart with " + next);
+            }
+        }
+    }
+
+    private void insert(Table table, List<Object[]> rows) {
+        String columns = table.columns().stream().map(Column::name).collect(Collectors.joining(", "));
+        String parameters = String.join(", ", Collections.nCopies(table.columns().size(), "?"));
+        int[] sqlTypes = table.columns().stream().mapToInt(column -> switch (column.type()) {
+            case LONG -> Types.BIGINT;
+            case INT -> Types.INTEGER;
+            case STRING -> Types.VARCHAR;
+            case DECIMAL -> Types.NUMERIC;
+            case TIMESTAMP -> Types.TIMESTAMP;
+        }).toArray();
+        loadTransaction.executeWithoutResult(status -> loadTemplate.batchUpdate(
+                "insert into " + table.name() + " (" + columns + ") values (" + parameters + ")", rows, sqlTypes));
+    }
+
+    private void clear() {
+        List<String> tables = new ArrayList<>(PHASES.stream().flatMap(List::stream).toList());
+        Collections.reverse(tables);
+        for (String table : tables) {
+            jdbcTemplate.update("delete from " + table);
+        }
+    }
+}
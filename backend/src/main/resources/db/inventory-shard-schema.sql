@@ -0,0 +1,6 @@
+-- Stock table created on every inventory shard (app.sharding.*)
+create table if not exists inventory_stock (
+    product_id bigint not null,
+    quantity integer not null check (quantity>=0),
+    primary key (product_id)
+);
@@ -0,0 +1,99 @@
+-- Pre-built schema used by the fast-startup profile instead of Hibernate's
+-- ddl-auto schema diffing. Keep in sync with the JPA entity mappings; the
+-- FastStartupProfileTest validates this script against them.
+
+create table if not exists products (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    description varchar(255),
+    sku varchar(255) not null,
+    price numeric(38,2) not null,
+    primary key (id)
+);
+
+create unique index if not exists idx_products_sku on products (sku);
+
+create table if not exists inventory (
+    id bigint generated by default as identity,
+    product_id bigint not null unique,
+    quantity integer not null check (quantity>=0),
+    primary key (id),
+    constraint fk_inventory_product foreign key (product_id) references products
+);
+
+-- Split stock counters of hot products (app.hot-products.*)
+create table if not exists inventory_slot (
+    id bigint generated by default as identity,
+    product_id bigint not null,
+    slot integer not null,
+    quantity integer not null check (quantity>=0),
+    primary key (id),
+    constraint uk_inventory_slot_product_slot unique (product_id, slot)
+);
+
+create table if not exists purchase_orders (
+    id bigint generated by default as identity,
+    order_date timestamp(6) not null,
+    status enum ('CANCELLED','COMPLETED','CREATED','PROCESSING'),
+    customer_name varchar(255),
+    customer_email varchar(255),
+    total_amount numeric(38,2) not null,
+    primary key (id)
+);
+
+create table if not exists order_items (
+    id bigint generated by default as identity,
+    order_id bigint not null,
+    product_id bigint not null,
+    quantity integer not null check (quantity>=1),
+    unit_price numeric(38,2) not null,
+    subtotal numeric(38,2) not null,
+    primary key (id),
+    constraint fk_order_items_order foreign key (order_id) references purchase_orders,
+    constraint fk_order_items_product foreign key (product_id) references products
+);
+
+-- Denormalized order list read model, maintained by OrderSummaryService
+create table if not exists order_summary (
+    order_id bigint not null,
+    order_date timestamp(6),
+    status enum ('CANCELLED','COMPLETED','CREATED','PROCESSING'),
+    customer_name varchar(255),
+    customer_email varchar(255),
+    item_count integer not null,
+    total_amount numeric(38,2),
+    primary key (order_id)
+);
+
+create index if not exists idx_order_summary_status_date on order_summary (status, order_date);
+create index if not exists idx_order_summary_email_date on order_summary (customer_email, order_date);
+create index if not exists idx_order_summary_date on order_summary (order_date);
+
+-- Heartbeat used to measure read replica lag (app.datasource.read-replica.*)
+create table if not exists replica_heartbeat (
+    id integer primary key,
+    beat_at bigint not null
+);
+
+-- Cluster cache invalidation log (app.cache-invalidation.*)
+create table if not exists cache_change (
+    id bigint generated by default as identity,
+    type enum ('INVENTORY','PRODUCT') not null,
+    entity_id bigint not null,
+    origin varchar(36) not null,
+    changed_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+-- Purchase order event outbox (app.order-outbox.*)
+create table if not exists order_outbox (
+    id bigint generated by default as identity,
+    order_id bigint not null,
+    status enum ('CANCELLED','COMPLETED','CREATED','PROCESSING') not null,
+    payload clob not null,
+    created_at timestamp(6) with time zone not null,
+    published_at timestamp(6) with time zone,
+    primary key (id)
+);
+
+create index if not exists idx_order_outbox_published on order_outbox (published_at, id);
@@ -0,0 +1,63 @@
+package com.example.inventory_service_demo.benchmark;
+
+import com.example.inventory_service_demo.service.AvailabilityMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single availability lookups against {@link AvailabilityMap} (heap and direct
+ * buffer) and a boxed {@code HashMap<Long, Integer>} holding the same products.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="AvailabilityMapBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class AvailabilityMapBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int products;
+
+    private AvailabilityMap heapMap;
+    private AvailabilityMap offHeapMap;
+    private Map<Long, Integer> boxedMap;
+
+    @Setup
+    public void setUp() {
+        heapMap = new AvailabilityMap(products, false);
+        offHeapMap = new AvailabilityMap(products, true);
+        boxedMap = new HashMap<>();
+        for (long id = 1; id <= products; id++) {
+            int quantity = (int) (id % 500);
+            heapMap.put(id, quantity);
+            offHeapMap.put(id, quantity);
+            boxedMap.put(id, quantity);
+        }
+    }
+
+    private long randomId() {
+        return 1 + ThreadLocalRandom.current().nextLong(products);
+    }
+
+    @Benchmark
+    public int availabilityMapHeap() {
+        return heapMap.get(randomId());
+    }
+
+    @Benchmark
+    public int availabilityMapOffHeap() {
+        return offHeapMap.get(randomId());
+    }
+
+    @Benchmark
+    public Integer boxedHashMap() {
+        return boxedMap.get(randomId());
+    }
+}
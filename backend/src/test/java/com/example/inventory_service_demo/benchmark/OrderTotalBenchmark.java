@@ -0,0 +1,62 @@
+package com.example.inventory_service_demo.benchmark;
+
+import com.example.inventory_service_demo.model.OrderItem;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building an order line by line. {@code minorUnits} uses the entity
+ * code with incremental long totals; {@code bigDecimalReduce} reproduces the
+ * previous implementation, which re-summed all subtotals with a stream reduce
+ * on every added item.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="OrderTotalBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderTotalBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int lines;
+
+    private Product[] products;
+
+    @Setup
+    public void setUp() {
+        products = new Product[16];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new Product("Product " + i, null, "SKU-" + i, new BigDecimal(i + ".99"));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal minorUnits() {
+        PurchaseOrder order = new PurchaseOrder("Bench", "bench@example.com");
+        for (int i = 0; i < lines; i++) {
+            order.addItem(new OrderItem(products[i & 15], 1 + (i & 3)));
+        }
+        return order.getTotalAmount();
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalReduce() {
+        List<BigDecimal> subtotals = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            BigDecimal unitPrice = products[i & 15].getPrice();
+            subtotals.add(unitPrice.multiply(BigDecimal.valueOf(1 + (i & 3))));
+            total = subtotals.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.inventory_service_demo.benchmark;
+
+import com.example.inventory_service_demo.dto.InventoryView;
+import com.example.inventory_service_demo.dto.OrderView;
+import com.example.inventory_service_demo.dto.ProductView;
+import com.example.inventory_service_demo.model.Inventory;
+import com.example.inventory_service_demo.model.OrderItem;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON responses of the product, inventory and order list endpoints: the
+ * entities as they were returned before, the response records with reflective
+ * Jackson, and the response records with Blackbird. The record variants include
+ * mapping the entities. Payload sizes are printed once per trial.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="ResponseSerializationBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseSerializationBenchmark {
+
+    @Param({"products", "inventory", "orders"})
+    private String response;
+
+    private ObjectMapper reflective;
+    private ObjectMapper blackbird;
+    private List<Product> products;
+    private List<Inventory> inventory;
+    private List<PurchaseOrder> orders;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        reflective = mapper().build();
+        blackbird = mapper().addModule(new BlackbirdModule()).build();
+        products = new ArrayList<>();
+        inventory = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            Product product = new Product("Product " + i,
+                    "Sample product " + i + " for benchmarking response serialization of the list endpoints",
+                    "SKU-" + 100000 + i, new BigDecimal(i % 90 + ".99"));
+            product.setId((long) i);
+            products.add(product);
+            Inventory stock = new Inventory(product, i % 200);
+            stock.setId((long) i);
+            inventory.add(stock);
+        }
+        orders = new ArrayList<>();
+        long itemId = 1;
+        for (int i = 1; i <= 200; i++) {
+            PurchaseOrder order = new PurchaseOrder("Customer " + i, "customer" + i + "@example.com");
+            order.setId((long) i);
+            for (int line = 0; line < 3; line++) {
+                OrderItem item = new OrderItem(products.get((i * 7 + line) % products.size()), 1 + line);
+                item.setId(itemId++);
+                order.addItem(item);
+            }
+            orders.add(order);
+        }
+        System.out.printf("%n%s payload: entities %d bytes, records %d bytes%n", response,
+                reflective.writeValueAsBytes(entitiesList()).length, reflective.writeValueAsBytes(views()).length);
+    }
+
+    @Benchmark
+    public byte[] entities() throws JsonProcessingException {
+        return reflective.writeValueAsBytes(entitiesList());
+    }
+
+    @Benchmark
+    public byte[] records() throws JsonProcessingException {
+        return reflective.writeValueAsBytes(views());
+    }
+
+    @Benchmark
+    public byte[] recordsBlackbird() throws JsonProcessingException {
+        return blackbird.writeValueAsBytes(views());
+    }
+
+    private List<?> entitiesList() {
+        return switch (response) {
+            case "products" -> products;
+            case "inventory" -> inventory;
+            default -> orders;
+        };
+    }
+
+    private List<?> views() {
+        return switch (response) {
+            case "products" -> products.stream().map(ProductView::of).toList();
+            case "inventory" -> inventory.stream().map(InventoryView::of).toList();
+            default -> OrderView.of(orders);
+        };
+    }
+
+    // Matches the settings Spring Boot applies to the application's ObjectMapper
+    private static JsonMapper.Builder mapper() {
+        return JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.inventory_service_demo.benchmark;
+
+import com.example.inventory_service_demo.InventoryServiceDemoApplication;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.service.InventoryService;
+import com.example.inventory_service_demo.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent {@code InventoryService.adjustInventory} calls under both
+ * {@code app.inventory.adjust-mode}s, with every thread on a single product and
+ * with the threads spread over 16 products. The application runs without a web
+ * server on its own in-memory database per trial. At the end of each trial the
+ * stock is compared with the adjustments that reported success, and lost updates
+ * and refused adjustments are printed.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="StockAdjustmentBenchmark"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class StockAdjustmentBenchmark {
+
+    private static final int INITIAL_STOCK = 10_000_000;
+
+    @Param({"conditional-update", "read-modify-write"})
+    private String mode;
+
+    @Param({"1", "16"})
+    private int products;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private long[] productIds;
+    private AtomicLongArray applied;
+    private final LongAdder failures = new LongAdder();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryServiceDemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:stockadjustment-" + mode + "-" + products,
+                        "--app.inventory.adjust-mode=" + mode,
+                        "--app.slow-query.enabled=false",
+                        "--logging.level.root=WARN");
+        inventoryService = context.getBean(InventoryService.class);
+        ProductService productService = context.getBean(ProductService.class);
+        productIds = new long[products];
+        applied = new AtomicLongArray(products);
+        for (int i = 0; i < products; i++) {
+            Product product = productService.createProduct(new Product("Contended " + i, null,
+                    "CONTENDED-" + i, new BigDecimal("1.00")));
+            inventoryService.createOrUpdateInventory(product.getId(), INITIAL_STOCK);
+            productIds[i] = product.getId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        long adjustments = 0;
+        long lost = 0;
+        for (int i = 0; i < products; i++) {
+            long expected = INITIAL_STOCK + applied.get(i);
+            int actual = inventoryService.getInventoryByProductId(productIds[i]).orElseThrow().getQuantity();
+            adjustments += -applied.get(i);
+            lost += Math.abs(expected - actual);
+        }
+        System.out.printf("%n%s, %d product(s): %d adjustments, %d lost updates, %d failed%n",
+                mode, products, adjustments, lost, failures.sum());
+        context.close();
+    }
+
+    @Benchmark
+    public void adjust() {
+        int index = ThreadLocalRandom.current().nextInt(products);
+        try {
+            inventoryService.adjustInventory(productIds[index], -1);
+            applied.decrementAndGet(index);
+        } catch (RuntimeException e) {
+            failures.increment();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.inventory_service_demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AotConditionCheckTest {
+
+    @Test
+    void testUnchangedFlagsPass() {
+        MockEnvironment build = new MockEnvironment().withProperty("app.sharding.enabled", "false");
+        Properties built = AotConditionCheck.capture(build);
+
+        // An explicit default is the same as leaving the flag out
+        assertDoesNotThrow(() -> AotConditionCheck.verify(built, new MockEnvironment()));
+        assertDoesNotThrow(() -> AotConditionCheck.verify(built,
+                new MockEnvironment().withProperty("app.order-outbox.relay", "TRUE")));
+    }
+
+    @Test
+    void testChangedFlagFailsStartup() {
+        Properties built = AotConditionCheck.capture(new MockEnvironment());
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> AotConditionCheck.verify(built,
+                new MockEnvironment().withProperty("app.sharding.enabled", "true")));
+        assertTrue(e.getMessage().contains("app.sharding.enabled=true (built with false)"), e.getMessage());
+    }
+
+    @Test
+    void testEveryConditionFlagIsChecked() throws Exception {
+        // Every class carrying a condition, whether or not it matches in this environment
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(MetadataReader reader) {
+                AnnotationMetadata metadata = reader.getAnnotationMetadata();
+                return metadata.isAnnotated(ConditionalOnProperty.class.getName())
+                        || metadata.isAnnotated(ConditionalOnExpression.class.getName())
+                        || metadata.hasAnnotatedMethods(ConditionalOnProperty.class.getName());
+            }
+        };
+
+        List<String> names = new ArrayList<>();
+        for (var candidate : scanner.findCandidateComponents("com.example.inventory_service_demo")) {
+            Class<?> type = ClassUtils.forName(candidate.getBeanClassName(), getClass().getClassLoader());
+            Stream.concat(Stream.of(MergedAnnotations.from(type)),
+                            Stream.of(ReflectionUtils.getDeclaredMethods(type)).map(MergedAnnotations::from))
+                    .forEach(annotations -> {
+                        annotations.stream(ConditionalOnProperty.class)
+                                .map(annotation -> annotation.getStringArray("name"))
+                                .flatMap(Stream::of)
+                                .forEach(names::add);
+                        annotations.stream(ConditionalOnExpression.class)
+                                .map(annotation -> annotation.getString("value"))
+                                .forEach(expression -> {
+                                    Matcher placeholder = Pattern.compile("\\$\\{([^:}]+)").matcher(expression);
+                                    while (placeholder.find()) {
+                                        names.add(placeholder.group(1));
+                                    }
+                                });
+                    });
+        }
+
+        assertTrue(names.size() > 5, names.toString());
+        assertEquals(List.of(), names.stream().distinct().filter(name -> !AotConditionCheck.FLAGS.containsKey(name)).toList());
+    }
+}
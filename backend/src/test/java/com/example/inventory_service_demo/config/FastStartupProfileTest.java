@@ -0,0 +1,40 @@
+package com.example.inventory_service_demo.config;
+
+import com.example.inventory_service_demo.repository.InventoryRepository;
+import com.example.inventory_service_demo.repository.ProductRepository;
+import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Boots the fast-startup profile against its own database and lets Hibernate
+ * validate the pre-built schema script against the entity mappings.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:faststartup",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=true"
+})
+@ActiveProfiles("fast-startup")
+class FastStartupProfileTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Test
+    void testBulkSampleDataIsLoadedIntoPrebuiltSchema() {
+        assertEquals(5, productRepository.count());
+        assertEquals(5, inventoryRepository.count());
+        assertEquals(4, purchaseOrderRepository.count());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.inventory_service_demo.config;
+
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing",
+        "app.datasource.read-replica.enabled=true"
+})
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testReadOnlyTransactionsUseReplicaAndWritesUsePrimary() {
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+
+        double primaryBefore = routeCount("primary");
+        double replicaBefore = routeCount("replica");
+        Product product = productService.createProduct(
+                new Product("Routed Product", "Routing test", "ROUTE-001", new BigDecimal("5.00")));
+        assertTrue(routeCount("primary") > primaryBefore);
+        assertEquals(replicaBefore, routeCount("replica"));
+
+        primaryBefore = routeCount("primary");
+        assertTrue(productService.getProductBySku(product.getSku()).isPresent());
+        assertEquals(replicaBefore + 1, routeCount("replica"));
+        assertEquals(primaryBefore, routeCount("primary"));
+    }
+
+    private double routeCount(String route) {
+        return meterRegistry.get("datasource.routing.connections").tag("route", route).counter().count();
+    }
+}
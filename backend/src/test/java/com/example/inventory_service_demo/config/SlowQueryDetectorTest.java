@@ -0,0 +1,75 @@
+package com.example.inventory_service_demo.config;
+
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:slowquery",
+        "app.slow-query.threshold=0ms"})
+@ExtendWith(OutputCaptureExtension.class)
+class SlowQueryDetectorTest {
+
+    @Autowired
+    private SlowQueryDetector slowQueryDetector;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testStatementsAreAttributedToRepositoryMethods() {
+        slowQueryDetector.reset();
+
+        List<PurchaseOrder> completed = purchaseOrderRepository.findByStatus(OrderStatus.COMPLETED);
+
+        SlowQueryDetector.QueryShape shape = slowQueryDetector.top(SlowQueryDetector.Order.MEAN, 100).stream()
+                .filter(candidate -> candidate.caller().equals("PurchaseOrderRepository.findByStatus"))
+                .findFirst().orElseThrow();
+        assertEquals("select", shape.type());
+        assertTrue(shape.sql().contains("from purchase_orders"));
+        assertEquals(1, shape.count());
+        assertEquals(completed.size(), shape.meanRows());
+        // Timed below a millisecond, not rounded down to nothing
+        assertTrue(shape.maxMillis() > 0);
+
+        Timer timer = meterRegistry.get("db.statement")
+                .tag("caller", "PurchaseOrderRepository.findByStatus")
+                .tag("type", "select")
+                .timer();
+        assertTrue(timer.count() >= 1);
+        assertTrue(timer.totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    void testSlowStatementsAreLoggedWithParametersAndCallSite(CapturedOutput output) {
+        jdbcTemplate.queryForObject("select count(*) from products where sku <> ?", Long.class, "NO-SUCH-SKU");
+
+        String logged = output.getOut().lines()
+                .filter(line -> line.contains("Slow query") && line.contains("NO-SUCH-SKU"))
+                .findFirst().orElseThrow();
+        assertTrue(logged.contains("call site SlowQueryDetectorTest.testSlowStatementsAreLoggedWithParametersAndCallSite"));
+        assertTrue(logged.contains("select count(*) from products where sku <> ?"));
+        assertTrue(slowQueryDetector.top(SlowQueryDetector.Order.TOTAL, 1000).stream()
+                .anyMatch(shape -> shape.sql().equals("select count(*) from products where sku <> ?")));
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.inventory_service_demo.controller;
+
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.service.InventoryService;
+import com.example.inventory_service_demo.service.ProductService;
+import com.example.inventory_service_demo.service.PurchaseOrderService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Bytes allocated per request by each endpoint of {@link ProductController},
+ * {@link InventoryController} and {@link PurchaseOrderController}, checked against
+ * the budgets in {@code src/test/resources/allocation-budgets.properties}.
+ * <p>
+ * Requests run in-process through {@link MockMvc} on the test thread, so the
+ * thread allocation counter of {@link com.sun.management.ThreadMXBean} covers the
+ * whole request including the MockMvc request and response objects, but not work
+ * handed to other threads (order ingestion batches, after-commit publishing on
+ * executors). Every endpoint is warmed up before the median of the measured
+ * requests is taken. Reads run before writes so list sizes do not change while
+ * they are measured.
+ * <p>
+ * When an endpoint exceeds its budget the test fails; the report in
+ * {@code target/allocation-budgets} lists every endpoint and suggests new budgets.
+ * Tune with {@code -Dallocation.warmup=100 -Dallocation.iterations=40}.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:allocation")
+@AutoConfigureMockMvc
+class AllocationBudgetTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AllocationBudgetTest.class);
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int PRODUCTS = 20;
+    private static final int ORDERS = 40;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    private final List<Long> productIds = new ArrayList<>();
+    private long orderId;
+
+    @Test
+    void testEndpointsStayWithinAllocationBudgets() throws Exception {
+        seed();
+        int warmup = Integer.getInteger("allocation.warmup", 100);
+        int iterations = Integer.getInteger("allocation.iterations", 40);
+
+        AllocationBudgets budgets = AllocationBudgets.load();
+        for (Map.Entry<String, IntFunction<RequestBuilder>> endpoint : endpoints().entrySet()) {
+            budgets.record(endpoint.getKey(), measure(endpoint.getKey(), endpoint.getValue(), warmup, iterations));
+        }
+
+        Path directory = Path.of("target/allocation-budgets");
+        budgets.write(directory);
+        log.info("Allocation per request (report in {}):\n{}", directory.toAbsolutePath(), budgets.report());
+        List<String> violations = budgets.violations();
+        assertTrue(violations.isEmpty(), "Allocation budgets violated:\n" + String.join("\n", violations));
+    }
+
+    /**
+     * The measured requests by budget name, reads first. Each function builds the
+     * request for one iteration and may prepare state for it, such as an order to
+     * process; that preparation is not measured.
+     */
+    private Map<String, IntFunction<RequestBuilder>> endpoints() {
+        long productId = productIds.get(0);
+        String ids = productIds.subList(0, 5).stream().map(String::valueOf).reduce((a, b) -> a + "," + b).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, IntFunction<RequestBuilder>> endpoints = new LinkedHashMap<>();
+        endpoints.put("products.list", i -> get("/api/products"));
+        endpoints.put("products.list-fields", i -> get("/api/products").param("fields", "name,price"));
+        endpoints.put("products.get", i -> get("/api/products/{id}", productId));
+        endpoints.put("products.get-by-sku", i -> get("/api/products/sku/{sku}", "ALLOC-0001"));
+        endpoints.put("products.search", i -> get("/api/products/search").param("query", "Budget"));
+        endpoints.put("inventory.list", i -> get("/api/inventory"));
+        endpoints.put("inventory.list-fields", i -> get("/api/inventory").param("fields", "quantity"));
+        endpoints.put("inventory.get", i -> get("/api/inventory/{productId}", productId));
+        endpoints.put("inventory.availability", i -> get("/api/inventory/availability").param("ids", ids));
+        endpoints.put("orders.list", i -> get("/api/orders"));
+        endpoints.put("orders.list-fields", i -> get("/api/orders").param("fields", "status,totalAmount"));
+        endpoints.put("orders.list-embed", i -> get("/api/orders").param("embed", "items,product"));
+        endpoints.put("orders.get", i -> get("/api/orders/{id}", orderId));
+        endpoints.put("orders.by-status", i -> get("/api/orders/status/CREATED"));
+        endpoints.put("orders.status-counts", i -> get("/api/orders/status/counts"));
+        endpoints.put("orders.by-customer", i -> get("/api/orders/customer").param("email", "budget1@example.com"));
+        endpoints.put("orders.customer-history",
+                i -> get("/api/orders/customer/history").param("email", "budget1@example.com"));
+        endpoints.put("orders.date-range", i -> get("/api/orders/date-range")
+                .param("startDate", now.minusDays(1).toString())
+                .param("endDate", now.plusDays(1).toString()));
+
+        endpoints.put("products.create", i -> post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(productJson("ALLOC-NEW-" + i, "9.99")));
+        endpoints.put("products.update", i -> put("/api/products/{id}", productIds.get(1))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(productJson("ALLOC-0002", i % 2 == 0 ? "12.00" : "12.50")));
+        endpoints.put("products.delete", i -> delete("/api/products/{id}",
+                productService.createProduct(product("ALLOC-DEL-" + i)).getId()));
+        endpoints.put("inventory.update", i -> put("/api/inventory/{productId}", productId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\":1000000}"));
+        endpoints.put("inventory.adjust", i -> patch("/api/inventory/{productId}/adjust", productId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(i % 2 == 0 ? "{\"quantityChange\":-1}" : "{\"quantityChange\":1}"));
+        endpoints.put("orders.create", i -> post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(orderJson(null, i)));
+        endpoints.put("orders.process", i -> post("/api/orders/{id}/process", createOrder(i).getId()));
+        endpoints.put("orders.cancel", i -> post("/api/orders/{id}/cancel", createOrder(i).getId()));
+        endpoints.put("orders.ingest", i -> post("/api/orders/ingest")
+                .contentType(NDJSON)
+                .content(orderJson("alloc-" + i + "-a", i) + "\n" + orderJson("alloc-" + i + "-b", i + 1) + "\n"));
+        return endpoints;
+    }
+
+    private long measure(String name, IntFunction<RequestBuilder> endpoint, int warmup, int iterations)
+            throws Exception {
+        long[] allocated = new long[iterations];
+        for (int i = 0; i < warmup + iterations; i++) {
+            RequestBuilder request = endpoint.apply(i);
+            long before = threads.getCurrentThreadAllocatedBytes();
+            int status = mockMvc.perform(request).andReturn().getResponse().getStatus();
+            long bytes = threads.getCurrentThreadAllocatedBytes() - before;
+            assertTrue(status < 300, name + " returned " + status);
+            if (i >= warmup) {
+                allocated[i - warmup] = bytes;
+            }
+        }
+        Arrays.sort(allocated);
+        return allocated[iterations / 2];
+    }
+
+    private void seed() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = productService.createProduct(product(String.format("ALLOC-%04d", i + 1)));
+            inventoryService.createOrUpdateInventory(product.getId(), 1_000_000);
+            productIds.add(product.getId());
+        }
+        for (int i = 0; i < ORDERS; i++) {
+            orderId = createOrder(i).getId();
+        }
+    }
+
+    private PurchaseOrder createOrder(int i) {
+        return purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                "Budget Customer", "budget" + i % 5 + "@example.com", List.of(
+                        new OrderItemDto(productIds.get(i % PRODUCTS), 1),
+                        new OrderItemDto(productIds.get((i + 1) % PRODUCTS), 2))));
+    }
+
+    private Product product(String sku) {
+        return new Product("Budget Widget " + sku, "Allocation budget fixture", sku, new BigDecimal("10.00"));
+    }
+
+    private static String productJson(String sku, String price) {
+        return "{\"name\":\"Budget Widget " + sku + "\",\"description\":\"Allocation budget fixture\","
+                + "\"sku\":\"" + sku + "\",\"price\":" + price + "}";
+    }
+
+    private String orderJson(String eventId, int i) {
+        return "{" + (eventId == null ? "" : "\"eventId\":\"" + eventId + "\",")
+                + "\"customerName\":\"Budget Customer\",\"customerEmail\":\"budget" + i % 5 + "@example.com\","
+                + "\"items\":[{\"productId\":" + productIds.get(i % PRODUCTS) + ",\"quantity\":1},"
+                + "{\"productId\":" + productIds.get((i + 1) % PRODUCTS) + ",\"quantity\":2}]}";
+    }
+}
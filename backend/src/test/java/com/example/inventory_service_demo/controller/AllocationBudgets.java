@@ -0,0 +1,123 @@
+package com.example.inventory_service_demo.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Checked-in bytes-per-request budgets ({@code allocation-budgets.properties} on
+ * the test classpath) and the comparison of a run against them.
+ * <p>
+ * A measurement above its budget fails the run. A measurement whose suggested
+ * budget (the measurement plus {@link #HEADROOM}, rounded up to a KiB) is at least
+ * {@link #IMPROVEMENT} below the budget is reported as an improvement, so the
+ * budget can be lowered in the same change. The report and a budget file with the
+ * suggested values are written to {@code target/allocation-budgets}.
+ */
+class AllocationBudgets {
+
+    static final String RESOURCE = "/allocation-budgets.properties";
+    static final double HEADROOM = 0.25;
+    static final double IMPROVEMENT = 0.20;
+
+    private final Map<String, Long> budgets = new LinkedHashMap<>();
+    private final Map<String, Long> measured = new LinkedHashMap<>();
+
+    static AllocationBudgets load() {
+        AllocationBudgets allocationBudgets = new AllocationBudgets();
+        try (InputStream input = AllocationBudgets.class.getResourceAsStream(RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing budget file " + RESOURCE);
+            }
+            Properties properties = new Properties();
+            properties.load(input);
+            for (String name : new TreeSet<>(properties.stringPropertyNames())) {
+                allocationBudgets.budgets.put(name, Long.parseLong(properties.getProperty(name).trim()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return allocationBudgets;
+    }
+
+    void record(String endpoint, long bytesPerRequest) {
+        measured.put(endpoint, bytesPerRequest);
+    }
+
+    /**
+     * Endpoints above their budget, without a budget, or with a budget that no
+     * measured endpoint uses.
+     */
+    List<String> violations() {
+        List<String> violations = new ArrayList<>();
+        measured.forEach((endpoint, bytes) -> {
+            Long budget = budgets.get(endpoint);
+            if (budget == null) {
+                violations.add(endpoint + ": no budget, measured " + bytes + " B (suggested " + suggested(bytes) + ")");
+            } else if (bytes > budget) {
+                violations.add(endpoint + ": " + bytes + " B exceeds the budget of " + budget + " B by "
+                        + percent(bytes, budget));
+            }
+        });
+        budgets.keySet().stream()
+                .filter(endpoint -> !measured.containsKey(endpoint))
+                .forEach(endpoint -> violations.add(endpoint + ": budget without a measured endpoint"));
+        return violations;
+    }
+
+    String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-28s %12s %12s %8s  %s%n", "Endpoint", "Budget B", "Measured B", "Change", "Result"));
+        measured.forEach((endpoint, bytes) -> {
+            Long budget = budgets.get(endpoint);
+            String result;
+            if (budget == null) {
+                result = "NO BUDGET";
+            } else if (bytes > budget) {
+                result = "EXCEEDED";
+            } else if (suggested(bytes) <= budget * (1 - IMPROVEMENT)) {
+                result = "improved, lower the budget to " + suggested(bytes);
+            } else {
+                result = "ok";
+            }
+            report.append(String.format("%-28s %12s %12d %8s  %s%n", endpoint,
+                    budget == null ? "-" : budget.toString(), bytes,
+                    budget == null ? "-" : percent(bytes, budget), result));
+        });
+        return report.toString();
+    }
+
+    /**
+     * Write the report and a budget file with suggested budgets for every measured endpoint.
+     *
+     * @param directory The output directory
+     */
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("report.txt"), report());
+        StringBuilder suggestedBudgets = new StringBuilder();
+        suggestedBudgets.append("# Suggested budgets: measured bytes per request plus ")
+                .append(Math.round(HEADROOM * 100)).append("%, rounded up to a KiB\n");
+        for (String endpoint : new TreeSet<>(measured.keySet())) {
+            suggestedBudgets.append(endpoint).append('=').append(suggested(measured.get(endpoint))).append('\n');
+        }
+        Files.writeString(directory.resolve("allocation-budgets.properties"), suggestedBudgets.toString());
+    }
+
+    static long suggested(long bytes) {
+        long withHeadroom = (long) Math.ceil(bytes * (1 + HEADROOM));
+        return (withHeadroom + 1023) / 1024 * 1024;
+    }
+
+    private static String percent(long bytes, long budget) {
+        return String.format("%+.1f%%", (bytes - budget) * 100.0 / budget);
+    }
+}
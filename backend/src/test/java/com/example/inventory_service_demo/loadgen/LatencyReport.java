@@ -0,0 +1,105 @@
+package com.example.inventory_service_demo.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint HdrHistogram latency distributions and error counts. Latencies
+ * are measured from the intended (scheduled) start of a request, so queueing
+ * behind a slow server is part of the recorded time.
+ */
+class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void recordSuccess(Operation operation, long latencyNanos) {
+        recorders.get(operation).recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+    }
+
+    void recordError(Operation operation, long latencyNanos) {
+        recordSuccess(operation, latencyNanos);
+        errors.get(operation).increment();
+    }
+
+    /**
+     * Discards everything recorded so far, e.g. at the end of warm-up.
+     */
+    void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * Writes a summary table followed by the full percentile distribution of
+     * every endpoint that received traffic, and returns the report file.
+     */
+    Path write(LoadProfile profile, Duration elapsed) throws IOException {
+        Files.createDirectories(profile.reportDirectory());
+        Path file = profile.reportDirectory().resolve("loadgen-report-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".txt");
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            long total = histograms.values().stream().mapToLong(Histogram::getTotalCount).sum();
+            out.printf("Target rate: %.1f req/s (%s arrivals), measured for %s%n",
+                    profile.ratePerSecond(), profile.poissonArrivals() ? "poisson" : "uniform", elapsed);
+            out.printf("Achieved throughput: %.1f req/s%n%n", total / (elapsed.toNanos() / 1e9));
+            out.printf("%-40s %9s %7s %9s %9s %9s %9s %9s%n",
+                    "Endpoint", "Count", "Errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            histograms.forEach((operation, histogram) -> {
+                if (histogram.getTotalCount() == 0) {
+                    return;
+                }
+                out.printf("%-40s %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                        operation.endpoint(),
+                        histogram.getTotalCount(),
+                        errors.get(operation).sum(),
+                        millis(histogram.getValueAtPercentile(50)),
+                        millis(histogram.getValueAtPercentile(90)),
+                        millis(histogram.getValueAtPercentile(99)),
+                        millis(histogram.getValueAtPercentile(99.9)),
+                        millis(histogram.getMaxValue()));
+            });
+            histograms.forEach((operation, histogram) -> {
+                if (histogram.getTotalCount() == 0) {
+                    return;
+                }
+                out.printf("%n=== %s (values in ms)%n", operation.endpoint());
+                histogram.outputPercentileDistribution(out, 5, 1_000_000.0);
+            });
+        }
+        return file;
+    }
+
+    long totalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.inventory_service_demo.loadgen;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shared state of a load run: the seeded product ids and the orders created
+ * during the run that are still waiting to be processed or cancelled.
+ */
+class LoadContext {
+
+    private final long[] productIds;
+    private final ConcurrentLinkedQueue<Long> pendingOrders = new ConcurrentLinkedQueue<>();
+
+    LoadContext(List<Long> productIds) {
+        this.productIds = productIds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    long randomProductId() {
+        return productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+    }
+
+    void addPendingOrder(long orderId) {
+        pendingOrders.add(orderId);
+    }
+
+    Long pollPendingOrder() {
+        return pendingOrders.poll();
+    }
+}
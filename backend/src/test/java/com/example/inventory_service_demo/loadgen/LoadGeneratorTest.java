@@ -0,0 +1,172 @@
+package com.example.inventory_service_demo.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open-loop load generator for the REST API. Boots the application on a random
+ * port, seeds products, then fires requests at the configured arrival rate
+ * regardless of how fast responses come back, recording per-endpoint latency
+ * histograms into {@code target/loadgen}.
+ * <p>
+ * Excluded from the regular build; run with {@code mvn test -Pload-test}.
+ * See {@link LoadProfile} for the tunable system properties.
+ */
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:loadgen",
+                "spring.jpa.show-sql=false",
+                "logging.level.org.hibernate.SQL=WARN"
+        })
+class LoadGeneratorTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGeneratorTest.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void runConfiguredLoadProfile() throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        String baseUrl = "http://localhost:" + port;
+        LoadContext context = new LoadContext(seedProducts(baseUrl, profile.seedProducts()));
+        LatencyReport report = new LatencyReport();
+        Operation[] schedule = weightedSchedule(profile.mix());
+
+        log.info("Warming up for {}", profile.warmup());
+        drive(profile, profile.warmup(), baseUrl, context, report, schedule);
+        report.reset();
+
+        log.info("Measuring {} at {} req/s", profile.duration(), profile.ratePerSecond());
+        long start = System.nanoTime();
+        drive(profile, profile.duration(), baseUrl, context, report, schedule);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Path reportFile = report.write(profile, elapsed);
+        log.info("Load report written to {}:\n{}", reportFile.toAbsolutePath(),
+                Files.readString(reportFile).lines().limit(12).reduce("", (a, b) -> a + b + "\n"));
+        assertTrue(Files.size(reportFile) > 0, "Report file should not be empty");
+    }
+
+    /**
+     * Issues requests on an open-loop schedule: each arrival time is fixed in
+     * advance from the target rate, and every request runs on its own virtual
+     * thread so a slow response never delays the next arrival.
+     */
+    private void drive(LoadProfile profile, Duration length, String baseUrl,
+                       LoadContext context, LatencyReport report, Operation[] schedule) {
+        double meanIntervalNanos = 1_000_000_000.0 / profile.ratePerSecond();
+        long end = System.nanoTime() + length.toNanos();
+        long next = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (next < end) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long intendedStart = next;
+                Operation operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+                executor.execute(() -> execute(operation, intendedStart, baseUrl, context, report));
+
+                next += profile.poissonArrivals()
+                        ? (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos)
+                        : (long) meanIntervalNanos;
+            }
+        }
+    }
+
+    private void execute(Operation operation, long intendedStart, String baseUrl,
+                         LoadContext context, LatencyReport report) {
+        HttpRequest request = operation.buildRequest(baseUrl, context);
+        if (request == null) {
+            operation = Operation.CREATE;
+            request = operation.buildRequest(baseUrl, context);
+        }
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            long latency = System.nanoTime() - intendedStart;
+            if (response.statusCode() >= 400) {
+                report.recordError(operation, latency);
+                return;
+            }
+            report.recordSuccess(operation, latency);
+            if (operation == Operation.CREATE) {
+                context.addPendingOrder(objectMapper.readTree(response.body()).get("id").asLong());
+            }
+        } catch (IOException e) {
+            report.recordError(operation, System.nanoTime() - intendedStart);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Long> seedProducts(String baseUrl, int count) throws IOException, InterruptedException {
+        List<Long> productIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String product = String.format(
+                    "{\"name\":\"Load Product %d\",\"description\":\"Seeded by the load generator\","
+                            + "\"sku\":\"LOAD-%06d\",\"price\":%d.99}", i, i, 10 + i);
+            JsonNode created = objectMapper.readTree(post(baseUrl + "/api/products", product));
+            long productId = created.get("id").asLong();
+            productIds.add(productId);
+
+            HttpRequest stock = HttpRequest.newBuilder(URI.create(baseUrl + "/api/inventory/" + productId))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"quantity\":1000000}"))
+                    .build();
+            httpClient.send(stock, HttpResponse.BodyHandlers.discarding());
+        }
+        return productIds;
+    }
+
+    private String post(String url, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static Operation[] weightedSchedule(Map<Operation, Integer> mix) {
+        List<Operation> schedule = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        });
+        return schedule.toArray(new Operation[0]);
+    }
+}
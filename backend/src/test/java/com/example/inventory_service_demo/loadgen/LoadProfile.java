@@ -0,0 +1,55 @@
+package com.example.inventory_service_demo.loadgen;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load run configuration, read from system properties so a run can be tuned
+ * from the command line:
+ * <pre>
+ * mvn test -Pload-test -Dloadgen.rate=500 -Dloadgen.duration=PT2M \
+ *     -Dloadgen.mix=browse=30,search=15,get=15,adjust=15,create=15,process=5,cancel=5
+ * </pre>
+ */
+record LoadProfile(
+        double ratePerSecond,
+        Duration warmup,
+        Duration duration,
+        boolean poissonArrivals,
+        int seedProducts,
+        Map<Operation, Integer> mix,
+        Path reportDirectory) {
+
+    static final String DEFAULT_MIX = "browse=30,search=15,get=15,adjust=15,create=15,process=5,cancel=5";
+
+    static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Double.parseDouble(System.getProperty("loadgen.rate", "100")),
+                Duration.parse(System.getProperty("loadgen.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadgen.duration", "PT30S")),
+                "poisson".equalsIgnoreCase(System.getProperty("loadgen.arrival", "poisson")),
+                Integer.parseInt(System.getProperty("loadgen.products", "50")),
+                parseMix(System.getProperty("loadgen.mix", DEFAULT_MIX)),
+                Path.of(System.getProperty("loadgen.reportDir", "target/loadgen")));
+    }
+
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix must contain at least one positive weight");
+        }
+        return mix;
+    }
+}
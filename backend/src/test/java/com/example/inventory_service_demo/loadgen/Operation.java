@@ -0,0 +1,96 @@
+package com.example.inventory_service_demo.loadgen;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The REST operations replayed by the load generator, one latency histogram each.
+ */
+enum Operation {
+    BROWSE("browse", "GET /api/products"),
+    SEARCH("search", "GET /api/products/search"),
+    GET("get", "GET /api/inventory/{productId}"),
+    ADJUST("adjust", "PATCH /api/inventory/{productId}/adjust"),
+    CREATE("create", "POST /api/orders"),
+    PROCESS("process", "POST /api/orders/{id}/process"),
+    CANCEL("cancel", "POST /api/orders/{id}/cancel");
+
+    private static final String[] SEARCH_TERMS = {"Laptop", "Phone", "Watch", "Tablet", "Load", "Pro"};
+
+    private final String key;
+    private final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+
+    /**
+     * Builds the request for this operation. Process and cancel consume an order
+     * created earlier in the run; when none is pending they return {@code null}
+     * and the caller replays the arrival as {@link #CREATE}.
+     */
+    HttpRequest buildRequest(String baseUrl, LoadContext context) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (this) {
+            case BROWSE -> get(baseUrl + "/api/products");
+            case SEARCH -> get(baseUrl + "/api/products/search?query="
+                    + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]);
+            case GET -> get(baseUrl + "/api/inventory/" + context.randomProductId());
+            case ADJUST -> send("PATCH", baseUrl + "/api/inventory/" + context.randomProductId() + "/adjust",
+                    "{\"quantityChange\":" + (random.nextBoolean() ? 1 : -1) + "}");
+            case CREATE -> send("POST", baseUrl + "/api/orders", orderJson(context, random));
+            case PROCESS -> pendingOrder(baseUrl, context, "/process");
+            case CANCEL -> pendingOrder(baseUrl, context, "/cancel");
+        };
+    }
+
+    private static HttpRequest pendingOrder(String baseUrl, LoadContext context, String action) {
+        Long orderId = context.pollPendingOrder();
+        if (orderId == null) {
+            return null;
+        }
+        return send("POST", baseUrl + "/api/orders/" + orderId + action, "");
+    }
+
+    private static String orderJson(LoadContext context, ThreadLocalRandom random) {
+        StringBuilder json = new StringBuilder("{\"customerName\":\"Load Tester\",")
+                .append("\"customerEmail\":\"load")
+                .append(random.nextInt(1000))
+                .append("@example.com\",\"items\":[");
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"productId\":").append(context.randomProductId())
+                    .append(",\"quantity\":").append(1 + random.nextInt(3)).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static HttpRequest send(String method, String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.inventory_service_demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PurchaseOrderTest {
+
+    @Test
+    void testTotalAmountFollowsItemChanges() {
+        Product widget = new Product("Widget", null, "W-1", new BigDecimal("19.99"));
+        Product gadget = new Product("Gadget", null, "G-1", new BigDecimal("5.50"));
+        PurchaseOrder order = new PurchaseOrder("Jane", "jane@example.com");
+
+        OrderItem widgets = new OrderItem(widget, 2);
+        order.addItem(widgets);
+        order.addItem(new OrderItem(gadget, 3));
+        assertEquals(new BigDecimal("56.48"), order.getTotalAmount());
+
+        widgets.setQuantity(1);
+        assertEquals(new BigDecimal("36.49"), order.getTotalAmount());
+
+        widgets.setUnitPrice(new BigDecimal("10.00"));
+        assertEquals(new BigDecimal("26.50"), order.getTotalAmount());
+
+        order.removeItem(widgets);
+        assertEquals(new BigDecimal("16.50"), order.getTotalAmount());
+    }
+
+    @Test
+    void testPriceIsRoundedToMinorUnits() {
+        Product product = new Product("Rounded", null, "R-1", new BigDecimal("1.005"));
+
+        assertEquals(101, product.getPriceMinorUnits());
+        assertEquals(new BigDecimal("1.01"), product.getPrice());
+    }
+
+    @Test
+    void testOutOfRangeAmountIsRejected() {
+        Product product = new Product();
+
+        assertThrows(IllegalArgumentException.class, () -> product.setPrice(new BigDecimal("1e30")));
+    }
+}
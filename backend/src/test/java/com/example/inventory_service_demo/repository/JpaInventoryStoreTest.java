@@ -0,0 +1,99 @@
+package com.example.inventory_service_demo.repository;
+
+import com.example.inventory_service_demo.config.SlowQueryDetector;
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.service.InventoryService;
+import com.example.inventory_service_demo.service.ProductService;
+import com.example.inventory_service_demo.service.PurchaseOrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:inventorystore")
+class JpaInventoryStoreTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private SlowQueryDetector slowQueryDetector;
+
+    @Test
+    void testConcurrentAdjustmentsLoseNoUpdatesAndNeverOversell() throws Exception {
+        Product product = productService.createProduct(
+                new Product("Contended Widget", null, "CONTENDED-001", new BigDecimal("1.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int quantityChange = i % 3 == 0 ? 1 : -1;
+            results.add(executor.submit(() -> {
+                try {
+                    inventoryService.adjustInventory(product.getId(), quantityChange);
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    assertEquals(-1, quantityChange);
+                    return false;
+                }
+            }));
+        }
+        int applied = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).get()) {
+                applied += i % 3 == 0 ? 1 : -1;
+            }
+        }
+        executor.shutdown();
+
+        int expected = 100 + applied;
+        assertTrue(expected >= 0);
+        assertEquals(expected, inventoryService.getInventoryByProductId(product.getId()).orElseThrow().getQuantity());
+        assertThrows(IllegalArgumentException.class,
+                () -> inventoryService.adjustInventory(product.getId(), -(expected + 1)));
+    }
+
+    @Test
+    void testOrderStockChangesTakeOneStatementPerProduct() {
+        Product first = productService.createProduct(
+                new Product("Order Widget", null, "CONDITIONAL-001", new BigDecimal("2.00")));
+        Product second = productService.createProduct(
+                new Product("Order Gadget", null, "CONDITIONAL-002", new BigDecimal("3.00")));
+        inventoryService.createOrUpdateInventory(first.getId(), 10);
+        inventoryService.createOrUpdateInventory(second.getId(), 10);
+        PurchaseOrder order = purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                "Conditional Customer", "conditional@example.com",
+                List.of(new OrderItemDto(first.getId(), 3), new OrderItemDto(second.getId(), 4))));
+
+        slowQueryDetector.reset();
+        purchaseOrderService.processOrder(order.getId());
+
+        List<SlowQueryDetector.QueryShape> inventoryStatements = slowQueryDetector
+                .top(SlowQueryDetector.Order.TOTAL, 1000).stream()
+                .filter(shape -> shape.caller().startsWith("InventoryRepository."))
+                .toList();
+        assertEquals(1, inventoryStatements.size());
+        assertEquals("InventoryRepository.addQuantity", inventoryStatements.get(0).caller());
+        assertEquals(2, inventoryStatements.get(0).count());
+        assertEquals(7, inventoryService.getInventoryByProductId(first.getId()).orElseThrow().getQuantity());
+        assertEquals(6, inventoryService.getInventoryByProductId(second.getId()).orElseThrow().getQuantity());
+    }
+}
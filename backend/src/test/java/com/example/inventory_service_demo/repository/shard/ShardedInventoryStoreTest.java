@@ -0,0 +1,95 @@
+package com.example.inventory_service_demo.repository.shard;
+
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.service.InventoryService;
+import com.example.inventory_service_demo.service.ProductService;
+import com.example.inventory_service_demo.service.PurchaseOrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharded",
+        "app.sharding.enabled=true",
+        "app.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1"
+})
+class ShardedInventoryStoreTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private InventoryShards inventoryShards;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Autowired
+    private ShardedInventoryStore shardedInventoryStore;
+
+    @Test
+    void testFailedShardIsCompensatedOnOtherShards() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Product product = productService.createProduct(
+                    new Product("Sharded " + i, null, "SHARD-" + i, new BigDecimal("3.00")));
+            inventoryService.createOrUpdateInventory(product.getId(), 10);
+            products.add(product);
+        }
+
+        // First product on the lowest shard used, second on a later one
+        Product first = products.stream()
+                .min((a, b) -> Integer.compare(inventoryShards.shardFor(a.getId()), inventoryShards.shardFor(b.getId())))
+                .orElseThrow();
+        Product second = products.stream()
+                .filter(p -> inventoryShards.shardFor(p.getId()) > inventoryShards.shardFor(first.getId()))
+                .findFirst()
+                .orElseThrow();
+
+        PurchaseOrder order = purchaseOrderService.createOrder(new CreatePurchaseOrderDto("Saga", "saga@example.com",
+                List.of(new OrderItemDto(first.getId(), 2), new OrderItemDto(second.getId(), 5))));
+        inventoryService.createOrUpdateInventory(second.getId(), 1);
+
+        assertEquals(Map.of(first.getId(), 10, second.getId(), 1),
+                shardedInventoryStore.findQuantities(List.of(first.getId(), second.getId(), 2_000_000L)));
+
+        assertThrows(IllegalArgumentException.class, () -> purchaseOrderService.processOrder(order.getId()));
+
+        assertEquals(10, inventoryService.getInventoryByProductId(first.getId()).orElseThrow().getQuantity());
+        assertEquals(1, inventoryService.getInventoryByProductId(second.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void testRebalanceMovesMisplacedRows() {
+        long productId = 1_000_000L;
+        int owner = inventoryShards.shardFor(productId);
+        int wrongShard = (owner + 1) % inventoryShards.count();
+        inventoryShards.jdbc(wrongShard).update(ShardedInventoryStore.INSERT, productId, 7);
+
+        Map<String, Integer> moved = shardRebalancer.rebalance();
+
+        assertEquals(1, moved.get(wrongShard + "->" + owner));
+        assertEquals(7, inventoryShards.jdbc(owner).queryForObject(
+                ShardedInventoryStore.SELECT_ONE, Integer.class, productId));
+        assertTrue(inventoryShards.jdbc(wrongShard)
+                .queryForList(ShardedInventoryStore.SELECT_ONE, Integer.class, productId).isEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.inventory_service_demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityMapTest {
+
+    @Test
+    void testPutAddAndGrow() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            AvailabilityMap map = new AvailabilityMap(16, offHeap);
+            for (long id = 1; id <= 10_000; id++) {
+                map.put(id, (int) id);
+            }
+            map.add(7, -3);
+            map.add(20_000, 5);
+            map.put(9, 0);
+
+            assertEquals(10_001, map.size());
+            assertEquals(4, map.get(7));
+            assertEquals(5, map.get(20_000));
+            assertEquals(0, map.get(9));
+            assertEquals(10_000, map.get(10_000));
+            assertEquals(AvailabilityMap.MISSING, map.get(30_000));
+
+            long[] ids = {1, 30_000, 7};
+            int[] quantities = new int[ids.length];
+            map.getAll(ids, quantities);
+            assertArrayEquals(new int[]{1, AvailabilityMap.MISSING, 4}, quantities);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new AvailabilityMap(16, false).put(0, 1));
+    }
+
+    @Test
+    void testNonPositiveIdsAreMissing() {
+        AvailabilityMap map = new AvailabilityMap(16, false);
+        map.put(1, 3);
+
+        assertEquals(AvailabilityMap.MISSING, map.get(0));
+        assertEquals(AvailabilityMap.MISSING, map.get(-1));
+        int[] quantities = new int[3];
+        map.getAll(new long[]{0, 1, -1}, quantities);
+        assertArrayEquals(new int[]{AvailabilityMap.MISSING, 3, AvailabilityMap.MISSING}, quantities);
+    }
+
+    @Test
+    void testReadersSeeConsistentValuesWhileTheMapGrows() throws Exception {
+        AvailabilityMap map = new AvailabilityMap(16, false);
+        map.put(1, 42);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                int value = map.get(1);
+                if (value != 42) {
+                    failure.set("read " + value);
+                }
+            }
+        });
+        reader.start();
+        for (long id = 2; id <= 200_000; id++) {
+            map.put(id, 1);
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+    }
+}
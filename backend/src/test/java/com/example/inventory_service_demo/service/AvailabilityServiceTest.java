@@ -0,0 +1,72 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AvailabilityServiceTest {
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void testReloadDropsDeletedInventory() {
+        Product product = productService.createProduct(
+                new Product("Vanishing Widget", null, "AVAIL-001", new BigDecimal("1.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), 5);
+        availabilityService.reload();
+        assertEquals(5, availabilityService.getAvailable(product.getId()));
+
+        // Deleted behind the service's back
+        transactionTemplate.executeWithoutResult(status ->
+                inventoryRepository.delete(inventoryRepository.findByProductId(product.getId()).orElseThrow()));
+        availabilityService.reload();
+
+        assertEquals(AvailabilityMap.MISSING, availabilityService.getAvailable(product.getId()));
+    }
+
+    @Test
+    void testAdjustmentsDuringReloadAreKept() throws Exception {
+        Product product = productService.createProduct(
+                new Product("Busy Widget", null, "AVAIL-002", new BigDecimal("1.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), 10_000);
+        availabilityService.reload();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> reloads = executor.submit(() -> {
+            for (int i = 0; i < 20; i++) {
+                availabilityService.reload();
+            }
+        });
+        for (int i = 0; i < 500; i++) {
+            inventoryService.adjustInventory(product.getId(), -1);
+        }
+        reloads.get();
+        executor.shutdown();
+
+        assertEquals(9_500, availabilityService.getAvailable(product.getId()));
+    }
+}
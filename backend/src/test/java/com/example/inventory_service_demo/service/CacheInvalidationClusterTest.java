@@ -0,0 +1,67 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.InventoryServiceDemoApplication;
+import com.example.inventory_service_demo.model.Product;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application contexts sharing one database, standing in for two nodes.
+ */
+class CacheInvalidationClusterTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void testWritesOnOneNodeReachTheOtherNodesCaches() {
+        Product product = nodeA.getBean(ProductService.class).createProduct(
+                new Product("Cluster Widget", null, "CLUSTER-001", new BigDecimal("7.00")));
+        nodeA.getBean(InventoryService.class).createOrUpdateInventory(product.getId(), 5);
+
+        // Node B's caches were loaded before the write
+        assertTrue(nodeB.getBean(ProductService.class).getProductBySku("CLUSTER-001").isEmpty());
+        assertEquals(AvailabilityMap.MISSING, nodeB.getBean(AvailabilityService.class).getAvailable(product.getId()));
+
+        assertEquals(2, nodeB.getBean(CacheChangePoller.class).poll());
+        assertTrue(nodeB.getBean(ProductService.class).getProductBySku("CLUSTER-001").isPresent());
+        assertEquals(5, nodeB.getBean(AvailabilityService.class).getAvailable(product.getId()));
+
+        nodeA.getBean(InventoryService.class).adjustInventory(product.getId(), -2);
+        assertEquals(1, nodeB.getBean(CacheChangePoller.class).poll());
+        assertEquals(3, nodeB.getBean(AvailabilityService.class).getAvailable(product.getId()));
+        assertEquals(0, nodeB.getBean(CacheChangePoller.class).poll());
+
+        // A node does not re-apply its own writes
+        assertEquals(0, nodeA.getBean(CacheChangePoller.class).poll());
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(InventoryServiceDemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:cachecluster;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--app.cache-invalidation.enabled=true",
+                        "--app.cache-invalidation.poll-interval=1h");
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.dto.ReorderSuggestion;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:forecast",
+        "app.forecast.half-life-days=7",
+        "app.forecast.lead-time-days=7",
+        "app.forecast.cover-days=30"
+})
+class ConsumptionForecastTest {
+
+    private static final double UNITS_PER_DAY = Math.log(2) / 7;
+
+    @Autowired
+    private ConsumptionForecast consumptionForecast;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private OrderWaveService orderWaveService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @TestConfiguration
+    static class EarlyOrder {
+
+        // Completes an order after startup, before the warm-up has read the order history
+        @Bean
+        CommandLineRunner completeOrderBeforeWarmUp(ProductService productService,
+                                                    InventoryService inventoryService,
+                                                    PurchaseOrderService purchaseOrderService) {
+            return args -> {
+                Product product = productService.createProduct(
+                        new Product("Forecast FORECAST-000", null, "FORECAST-000", new BigDecimal("1.00")));
+                inventoryService.createOrUpdateInventory(product.getId(), 100);
+                PurchaseOrder order = purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                        "Forecast Customer", "early@example.com", List.of(new OrderItemDto(product.getId(), 4))));
+                purchaseOrderService.processOrder(order.getId());
+            };
+        }
+    }
+
+    @Test
+    void testOrderCompletedBeforeWarmUpCountsOnce() {
+        Product early = productService.getProductBySku("FORECAST-000").orElseThrow();
+
+        ReorderSuggestion suggestion = consumptionForecast.getSuggestions(Pageable.unpaged()).stream()
+                .filter(candidate -> candidate.productId() == early.getId())
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(4 * UNITS_PER_DAY, suggestion.dailyRate(), 0.001);
+    }
+
+    @Test
+    void testCompletedOrdersDriveDaysOfCoverAndReorderQuantities() {
+        Product steady = product("FORECAST-001", 100);
+        Product scarce = product("FORECAST-002", 10);
+        Product idle = product("FORECAST-003", 50);
+
+        // Created and cancelled orders are not sales
+        purchaseOrderService.cancelOrder(order("forecast@example.com", steady, 40).getId());
+        order("forecast@example.com", scarce, 1);
+        purchaseOrderService.processOrder(order("other@example.com", steady, 10).getId());
+        purchaseOrderService.processOrder(order("other@example.com", scarce, 7).getId());
+
+        List<ReorderSuggestion> suggestions = suggestions(Pageable.unpaged(), steady, scarce, idle);
+
+        // Lowest cover first, products that do not sell last
+        assertEquals(List.of(scarce.getId(), steady.getId(), idle.getId()),
+                suggestions.stream().map(ReorderSuggestion::productId).toList());
+
+        ReorderSuggestion low = suggestions.get(0);
+        assertEquals(3, low.quantity());
+        assertEquals(7 * UNITS_PER_DAY, low.dailyRate(), 0.001);
+        assertEquals(3 / (7 * UNITS_PER_DAY), low.daysOfCover(), 0.01);
+        assertEquals(5, low.reorderPoint());
+        // Up to 37 days of sales: ceil(37 * 0.693) = 26, minus the 3 in stock
+        assertEquals(23, low.suggestedQuantity());
+
+        ReorderSuggestion covered = suggestions.get(1);
+        assertEquals(90, covered.quantity());
+        assertEquals(10 * UNITS_PER_DAY, covered.dailyRate(), 0.001);
+        assertEquals(7, covered.reorderPoint());
+        assertEquals(0, covered.suggestedQuantity());
+
+        ReorderSuggestion unsold = suggestions.get(2);
+        assertEquals(0, unsold.dailyRate());
+        assertNull(unsold.daysOfCover());
+        assertEquals(0, unsold.suggestedQuantity());
+
+        // Orders completed by a wave count as sales too
+        order("wave-forecast@example.com", idle, 5);
+        assertEquals(1, orderWaveService.processWave("wave-forecast@example.com", null, null).completed());
+        List<ReorderSuggestion> byRate = suggestions(
+                PageRequest.of(0, 1000, Sort.by(Sort.Direction.DESC, "dailyRate")), steady, scarce, idle);
+        assertEquals(List.of(steady.getId(), scarce.getId(), idle.getId()),
+                byRate.stream().map(ReorderSuggestion::productId).toList());
+        assertEquals(5 * UNITS_PER_DAY, byRate.get(2).dailyRate(), 0.001);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> consumptionForecast.getSuggestions(PageRequest.of(0, 10, Sort.by("price"))));
+    }
+
+    @Test
+    void testCancelledProcessingOrderLeavesRateUnchanged() {
+        Product sold = product("FORECAST-004", 100);
+        Product other = product("FORECAST-005", 100);
+        Product idle = product("FORECAST-006", 100);
+        purchaseOrderService.processOrder(order("cancel-forecast@example.com", sold, 6).getId());
+
+        // Stuck in processing, as in the sample data, and never counted as a sale
+        PurchaseOrder processing = order("cancel-forecast@example.com", sold, 4);
+        processing.setStatus(OrderStatus.PROCESSING);
+        purchaseOrderRepository.save(processing);
+        purchaseOrderService.cancelOrder(processing.getId());
+
+        ReorderSuggestion suggestion = suggestions(Pageable.unpaged(), sold, other, idle).stream()
+                .filter(candidate -> candidate.productId() == sold.getId())
+                .findFirst()
+                .orElseThrow();
+        assertEquals(6 * UNITS_PER_DAY, suggestion.dailyRate(), 0.001);
+    }
+
+    private List<ReorderSuggestion> suggestions(Pageable pageable, Product... products) {
+        Set<Long> ids = Set.of(products[0].getId(), products[1].getId(), products[2].getId());
+        return consumptionForecast.getSuggestions(pageable).stream()
+                .filter(suggestion -> ids.contains(suggestion.productId()))
+                .toList();
+    }
+
+    private Product product(String sku, int stock) {
+        Product product = productService.createProduct(
+                new Product("Forecast " + sku, null, sku, new BigDecimal("1.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), stock);
+        return product;
+    }
+
+    private PurchaseOrder order(String email, Product product, int quantity) {
+        return purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                "Forecast Customer", email, List.of(new OrderItemDto(product.getId(), quantity))));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.CustomerOrderSummary;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customerhistory",
+        "app.customer-history.recent-orders=3"
+})
+class CustomerOrderHistoryTest {
+
+    private static final String EMAIL = "history@example.com";
+
+    @Autowired
+    private CustomerOrderHistory customerOrderHistory;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testHistoryIsRecentFirstAndFollowsOrderWrites() {
+        Product product = productService.createProduct(
+                new Product("History Widget", null, "HISTORY-001", new BigDecimal("2.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), 100);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            ids.add(purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                    "History Customer", EMAIL, List.of(new OrderItemDto(product.getId(), i)))).getId());
+        }
+
+        Page<CustomerOrderSummary> first = customerOrderHistory.getHistory(EMAIL, 0, 2);
+        assertEquals(5, first.getTotalElements());
+        assertEquals(List.of(ids.get(4), ids.get(3)), orderIds(first));
+        assertEquals(1, first.getContent().get(0).itemCount());
+        assertEquals(0, new BigDecimal("10.00").compareTo(first.getContent().get(0).totalAmount()));
+
+        // Beyond the three cached orders the page comes from the database
+        Page<CustomerOrderSummary> last = customerOrderHistory.getHistory(EMAIL, 2, 2);
+        assertEquals(List.of(ids.get(0)), orderIds(last));
+
+        purchaseOrderService.processOrder(ids.get(4));
+        PurchaseOrder newest = purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                "History Customer", EMAIL, List.of(new OrderItemDto(product.getId(), 1))));
+
+        double hitsBefore = meterRegistry.counter("orders.customer.history.lookups", "result", "hit").count();
+        Page<CustomerOrderSummary> updated = customerOrderHistory.getHistory(EMAIL, 0, 3);
+        assertEquals(hitsBefore + 1, meterRegistry.counter("orders.customer.history.lookups", "result", "hit").count());
+        assertEquals(6, updated.getTotalElements());
+        assertEquals(List.of(newest.getId(), ids.get(4), ids.get(3)), orderIds(updated));
+        assertEquals(OrderStatus.COMPLETED, updated.getContent().get(1).status());
+        assertEquals(List.of(ids.get(1), ids.get(0)), orderIds(customerOrderHistory.getHistory(EMAIL, 2, 2)));
+    }
+
+    @Test
+    void testUnknownCustomerHasEmptyHistory() {
+        Page<CustomerOrderSummary> page = customerOrderHistory.getHistory("nobody@example.com", 0, 20);
+        assertEquals(0, page.getTotalElements());
+        assertTrue(page.getContent().isEmpty());
+    }
+
+    private static List<Long> orderIds(Page<CustomerOrderSummary> page) {
+        return page.getContent().stream().map(CustomerOrderSummary::orderId).toList();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.repository.InventoryRepository;
+import com.example.inventory_service_demo.repository.InventoryStore;
+import com.example.inventory_service_demo.repository.InventorySlotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:hotproducts",
+        "app.hot-products.enabled=true",
+        "app.hot-products.promote-threshold=5",
+        "app.hot-products.demote-threshold=1",
+        "app.hot-products.evaluation-interval=1h"
+})
+class HotProductInventoryTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private HotProductDetector hotProductDetector;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventorySlotRepository inventorySlotRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private InventoryStore inventoryStore;
+
+    @Test
+    void testConcurrentDecrementsNeverOversell() throws Exception {
+        Product product = productService.createProduct(
+                new Product("Hot Widget", null, "HOT-001", new BigDecimal("1.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), 100);
+        inventoryService.promoteHotProduct(product.getId(), 4);
+
+        assertEquals(0, inventoryRepository.findByProductId(product.getId()).orElseThrow().getQuantity());
+        assertEquals(100, inventoryService.getInventoryByProductId(product.getId()).orElseThrow().getQuantity());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            results.add(executor.submit(() -> {
+                try {
+                    inventoryService.adjustInventory(product.getId(), -1);
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            }));
+        }
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(100, succeeded);
+        assertEquals(0, inventoryService.getInventoryByProductId(product.getId()).orElseThrow().getQuantity());
+
+        inventoryService.adjustInventory(product.getId(), 10);
+        inventoryService.demoteHotProduct(product.getId());
+
+        assertTrue(inventorySlotRepository.findByProductIdOrderBySlot(product.getId()).isEmpty());
+        assertEquals(10, inventoryRepository.findByProductId(product.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void testDecrementBorrowsFromSiblingSlots() {
+        Product product = productService.createProduct(
+                new Product("Borrowed Widget", null, "HOT-002", new BigDecimal("1.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), 10);
+        inventoryService.promoteHotProduct(product.getId(), 4);
+
+        assertEquals(Map.of(product.getId(), 10), inventoryStore.findQuantities(List.of(product.getId(), -1L)));
+
+        // No single slot holds 9, so this has to gather from all of them
+        assertEquals(1, inventoryService.adjustInventory(product.getId(), -9).getQuantity());
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.adjustInventory(product.getId(), -2));
+        assertEquals(1, inventoryService.getInventoryByProductId(product.getId()).orElseThrow().getQuantity());
+
+        inventoryService.createOrUpdateInventory(product.getId(), 40);
+        assertEquals(40, inventoryService.getInventoryByProductId(product.getId()).orElseThrow().getQuantity());
+        inventoryService.demoteHotProduct(product.getId());
+    }
+
+    @Test
+    void testBorrowSeesSlotUpdatesOfItsOwnTransaction() {
+        Product product = productService.createProduct(
+                new Product("Stale Widget", null, "HOT-005", new BigDecimal("1.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), 10);
+        inventoryService.promoteHotProduct(product.getId(), 4);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Slot entities in the persistence context, then changed underneath them by bulk updates
+            inventorySlotRepository.findByProductIdOrderBySlot(product.getId());
+            for (int i = 0; i < 3; i++) {
+                inventoryService.adjustInventory(product.getId(), -1);
+            }
+            inventoryService.adjustInventory(product.getId(), -7);
+        });
+
+        assertEquals(0, inventoryService.getInventoryByProductId(product.getId()).orElseThrow().getQuantity());
+        inventoryService.createOrUpdateInventory(product.getId(), 6);
+        assertEquals(6, inventoryService.getInventoryByProductId(product.getId()).orElseThrow().getQuantity());
+        inventoryService.demoteHotProduct(product.getId());
+        assertEquals(6, inventoryRepository.findByProductId(product.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void testDetectorPromotesAndDemotesByAdjustmentRate() {
+        Product product = productService.createProduct(
+                new Product("Busy Widget", null, "HOT-003", new BigDecimal("1.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), 1000);
+        hotProductDetector.evaluate();
+
+        for (int i = 0; i < 200; i++) {
+            inventoryService.adjustInventory(product.getId(), -1);
+        }
+        hotProductDetector.evaluate();
+        assertTrue(inventoryService.getHotProducts().containsKey(product.getId()));
+        assertEquals(800, inventoryService.getInventoryByProductId(product.getId()).orElseThrow().getQuantity());
+
+        hotProductDetector.evaluate();
+        assertFalse(inventoryService.getHotProducts().containsKey(product.getId()));
+        assertEquals(800, inventoryRepository.findByProductId(product.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void testDetectorKeepsManualPromotions() {
+        Product product = productService.createProduct(
+                new Product("Pinned Widget", null, "HOT-004", new BigDecimal("1.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), 50);
+        assertTrue(inventoryService.promoteHotProduct(product.getId(), 4));
+        assertFalse(inventoryService.promoteHotProduct(product.getId(), 4));
+
+        hotProductDetector.evaluate();
+        hotProductDetector.evaluate();
+
+        assertTrue(inventoryService.getHotProducts().containsKey(product.getId()));
+        inventoryService.demoteHotProduct(product.getId());
+        assertEquals(50, inventoryRepository.findByProductId(product.getId()).orElseThrow().getQuantity());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.ProductRepository;
+import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
+import com.example.inventory_service_demo.repository.archive.OrderArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orderarchive",
+        "app.order-archive.enabled=true",
+        "app.order-archive.batch-size=2"
+})
+class OrderArchiverTest {
+
+    @TempDir
+    static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.order-archive.directory", () -> archiveDirectory.toString());
+    }
+
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Test
+    void testClosedOrdersMoveToTheArchiveAndStayQueryable() {
+        Product product = productService.createProduct(
+                new Product("Archived Widget", null, "ARCHIVE-001", new BigDecimal("7.25")));
+        inventoryService.createOrUpdateInventory(product.getId(), 100);
+
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(200).withNano(123456000);
+        PurchaseOrder completed = placeOrder(product, 3, longAgo);
+        purchaseOrderService.processOrder(completed.getId());
+        PurchaseOrder cancelled = placeOrder(product, 1, longAgo.plusDays(1));
+        purchaseOrderService.cancelOrder(cancelled.getId());
+        PurchaseOrder stillOpen = placeOrder(product, 2, longAgo);
+        PurchaseOrder recent = placeOrder(product, 4, LocalDateTime.now());
+        purchaseOrderService.processOrder(recent.getId());
+
+        assertEquals(2, orderArchiver.archive(LocalDateTime.now().minusDays(90)));
+
+        assertFalse(purchaseOrderRepository.existsById(completed.getId()));
+        assertFalse(purchaseOrderRepository.existsById(cancelled.getId()));
+        assertTrue(purchaseOrderRepository.existsById(stillOpen.getId()));
+        assertTrue(purchaseOrderRepository.existsById(recent.getId()));
+
+        PurchaseOrder archived = purchaseOrderService.getOrderById(completed.getId()).orElseThrow();
+        assertEquals(OrderStatus.COMPLETED, archived.getStatus());
+        assertEquals(longAgo, archived.getOrderDate());
+        assertEquals("archive@example.com", archived.getCustomerEmail());
+        assertEquals(1, archived.getItems().size());
+        assertEquals(product.getId(), archived.getItems().get(0).getProduct().getId());
+        assertEquals(0, new BigDecimal("21.75").compareTo(archived.getTotalAmount()));
+
+        List<PurchaseOrder> inRange = purchaseOrderService.getOrdersBetweenDates(
+                longAgo.minusDays(1), LocalDateTime.now().plusDays(1));
+        assertTrue(inRange.stream().anyMatch(order -> order.getId().equals(completed.getId())));
+        assertTrue(inRange.stream().anyMatch(order -> order.getId().equals(cancelled.getId())));
+        assertTrue(inRange.stream().anyMatch(order -> order.getId().equals(recent.getId())));
+        assertEquals(inRange.size(), inRange.stream().map(PurchaseOrder::getId).distinct().count());
+
+        // The segment index is rebuilt from the directory
+        OrderArchive reopened = new OrderArchive(archiveDirectory, productRepository);
+        assertEquals(2, reopened.getSegments().size());
+        assertEquals(OrderStatus.CANCELLED, reopened.findById(cancelled.getId()).orElseThrow().getStatus());
+    }
+
+    private PurchaseOrder placeOrder(Product product, int quantity, LocalDateTime orderDate) {
+        PurchaseOrder order = purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                "Archive Customer", "archive@example.com", List.of(new OrderItemDto(product.getId(), quantity))));
+        order.setOrderDate(orderDate);
+        return purchaseOrderRepository.save(order);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.OrderIngestAck;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orderingest",
+        "app.order-ingest.batch-size=3"
+})
+class OrderIngestServiceTest {
+
+    @Autowired
+    private OrderIngestService orderIngestService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testEveryLineIsAcknowledged() throws Exception {
+        Product product = productService.createProduct(
+                new Product("Ingest Widget", null, "INGEST-001", new BigDecimal("2.50")));
+        inventoryService.createOrUpdateInventory(product.getId(), 10);
+        String item = "{\"productId\":" + product.getId() + ",\"quantity\":2}";
+        String body = String.join("\n",
+                "{\"eventId\":\"a\",\"customerName\":\"Ingest Customer\",\"customerEmail\":\"ingest@example.com\",\"items\":[" + item + "]}",
+                "{not json",
+                "{\"eventId\":\"c\",\"customerName\":\"Ingest Customer\",\"customerEmail\":\"ingest@example.com\",\"items\":[]}",
+                "",
+                "{\"eventId\":\"e\",\"customerName\":\"Ingest Customer\",\"customerEmail\":\"ingest@example.com\",\"items\":[{\"productId\":999999,\"quantity\":1}]}",
+                "{\"eventId\":\"f\",\"customerName\":\"Ingest Customer\",\"customerEmail\":\"ingest@example.com\",\"items\":[{\"productId\":" + product.getId() + ",\"quantity\":50}]}",
+                "{\"eventId\":\"g\",\"customerName\":\"Ingest Customer\",\"customerEmail\":\"ingest@example.com\",\"items\":[" + item + "]}");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        orderIngestService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+
+        List<OrderIngestAck> acks = output.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> read(line))
+                .sorted(Comparator.comparingLong(OrderIngestAck::line))
+                .toList();
+        assertEquals(List.of(1L, 2L, 3L, 5L, 6L, 7L), acks.stream().map(OrderIngestAck::line).toList());
+        assertEquals(List.of(OrderIngestAck.Status.ACCEPTED, OrderIngestAck.Status.REJECTED,
+                        OrderIngestAck.Status.REJECTED, OrderIngestAck.Status.REJECTED,
+                        OrderIngestAck.Status.REJECTED, OrderIngestAck.Status.ACCEPTED),
+                acks.stream().map(OrderIngestAck::status).toList());
+        assertEquals("Order must contain at least one item", acks.get(2).error());
+        assertTrue(acks.get(3).error().contains("Product not found"));
+        assertTrue(acks.get(4).error().contains("Insufficient inventory"));
+
+        PurchaseOrder order = purchaseOrderRepository.findById(acks.get(5).orderId()).orElseThrow();
+        assertEquals(OrderStatus.CREATED, order.getStatus());
+        assertEquals("ingest@example.com", order.getCustomerEmail());
+        assertEquals(0, new BigDecimal("5.00").compareTo(order.getTotalAmount()));
+    }
+
+    private OrderIngestAck read(String line) {
+        try {
+            return objectMapper.readValue(line, OrderIngestAck.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
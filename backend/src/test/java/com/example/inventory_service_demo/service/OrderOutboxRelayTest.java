@@ -0,0 +1,100 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.OrderEventMessage;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.OrderOutboxRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orderoutbox",
+        "app.order-outbox.enabled=true",
+        "app.order-outbox.sink=queue",
+        "app.order-outbox.queue-capacity=2",
+        "app.order-outbox.batch-size=2",
+        "app.order-outbox.relay-interval=1h",
+        "app.order-outbox.retention=0s"
+})
+class OrderOutboxRelayTest {
+
+    @Autowired
+    private OrderOutboxRelay orderOutboxRelay;
+
+    @Autowired
+    private QueueOrderEventSink sink;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testEventsAreRelayedInOrderWithoutLoss() throws Exception {
+        Product product = productService.createProduct(
+                new Product("Outbox Widget", null, "OUTBOX-001", new BigDecimal("4.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), 5);
+
+        PurchaseOrder order = purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                "Outbox Customer", "outbox@example.com", List.of(new OrderItemDto(product.getId(), 2))));
+        purchaseOrderService.processOrder(order.getId());
+        // Rolled back for lack of stock, so it must not leave an event behind
+        assertThrows(RuntimeException.class, () -> purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                "Outbox Customer", "outbox@example.com", List.of(new OrderItemDto(product.getId(), 50)))));
+        PurchaseOrder cancelled = purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                "Outbox Customer", "outbox@example.com", List.of(new OrderItemDto(product.getId(), 1))));
+        purchaseOrderService.cancelOrder(cancelled.getId());
+
+        // The queue holds one batch; the second is refused and stays in the outbox
+        assertEquals(2, orderOutboxRelay.relay());
+        assertEquals(0, orderOutboxRelay.relay());
+        List<OrderEventMessage> events = sink.drain(10);
+        assertEquals(2, orderOutboxRelay.relay());
+        events.addAll(sink.drain(10));
+        assertEquals(0, orderOutboxRelay.relay());
+
+        assertEquals(List.of(order.getId(), order.getId(), cancelled.getId(), cancelled.getId()),
+                events.stream().map(OrderEventMessage::orderId).toList());
+        assertEquals(List.of("CREATED", "COMPLETED", "CREATED", "CANCELLED"),
+                events.stream().map(event -> status(event.event())).toList());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i - 1).eventId() < events.get(i).eventId());
+        }
+
+        JsonNode processed = objectMapper.readTree(objectMapper.writeValueAsString(events.get(1)));
+        assertEquals("CREATED", processed.path("event").path("previousStatus").asText());
+        assertEquals(product.getId(), processed.path("event").path("items").path(0).path("productId").asLong());
+        assertEquals(2, processed.path("event").path("items").path(0).path("quantity").asInt());
+
+        assertEquals(4, orderOutboxRelay.cleanUp());
+        assertEquals(0, orderOutboxRepository.count());
+    }
+
+    private String status(String payload) {
+        try {
+            return objectMapper.readTree(payload).path("status").asText();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:orderstatusindex")
+class OrderStatusIndexTest {
+
+    @Autowired
+    private OrderStatusIndex orderStatusIndex;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testIndexFollowsOrderTransitions() {
+        assertTrue(orderStatusIndex.isLoaded());
+        Product product = productService.createProduct(
+                new Product("Index Widget", null, "INDEX-001", new BigDecimal("3.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), 100);
+        Map<OrderStatus, Long> before = purchaseOrderService.getStatusCounts();
+
+        PurchaseOrder first = createOrder(product);
+        PurchaseOrder second = createOrder(product);
+        PurchaseOrder third = createOrder(product);
+        purchaseOrderService.processOrder(first.getId());
+        purchaseOrderService.cancelOrder(second.getId());
+
+        Map<OrderStatus, Long> after = purchaseOrderService.getStatusCounts();
+        assertEquals(before.get(OrderStatus.CREATED) + 1, after.get(OrderStatus.CREATED));
+        assertEquals(before.get(OrderStatus.COMPLETED) + 1, after.get(OrderStatus.COMPLETED));
+        assertEquals(before.get(OrderStatus.CANCELLED) + 1, after.get(OrderStatus.CANCELLED));
+        assertEquals(purchaseOrderRepository.countByStatus(OrderStatus.CREATED), after.get(OrderStatus.CREATED));
+
+        List<Long> created = purchaseOrderService.getOrdersByStatus(OrderStatus.CREATED).stream()
+                .map(PurchaseOrder::getId).toList();
+        assertTrue(created.contains(third.getId()));
+        assertFalse(created.contains(first.getId()));
+        assertFalse(created.contains(second.getId()));
+
+        long createdCount = after.get(OrderStatus.CREATED);
+        Page<PurchaseOrder> lastPage = purchaseOrderService.getOrdersByStatus(
+                OrderStatus.CREATED, (int) createdCount - 1, 1);
+        assertEquals(createdCount, lastPage.getTotalElements());
+        assertEquals(List.of(third.getId()), lastPage.getContent().stream().map(PurchaseOrder::getId).toList());
+        assertFalse(orderStatusIndex.verify());
+    }
+
+    @Test
+    void testVerifyRepairsChangesMadeBehindTheIndex() {
+        Product product = productService.createProduct(
+                new Product("Drift Widget", null, "INDEX-002", new BigDecimal("4.00")));
+        inventoryService.createOrUpdateInventory(product.getId(), 10);
+        PurchaseOrder order = createOrder(product);
+
+        jdbcTemplate.update("update purchase_orders set status = 'PROCESSING' where id = ?", order.getId());
+
+        assertTrue(orderStatusIndex.verify());
+        assertTrue(orderStatusIndex.getIds(OrderStatus.PROCESSING, 0, Integer.MAX_VALUE).contains(order.getId()));
+        assertFalse(orderStatusIndex.getIds(OrderStatus.CREATED, 0, Integer.MAX_VALUE).contains(order.getId()));
+    }
+
+    private PurchaseOrder createOrder(Product product) {
+        return purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                "Index Customer", "index@example.com", List.of(new OrderItemDto(product.getId(), 1))));
+    }
+}
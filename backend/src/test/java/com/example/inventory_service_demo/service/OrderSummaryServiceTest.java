@@ -0,0 +1,91 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.OrderSummary;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.OrderSummaryRepository;
+import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OrderSummaryServiceTest {
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testSummaryFollowsOrderLifecycle() {
+        Product product = productService.createProduct(
+                new Product("Summary Widget", null, "SUMMARY-001", new BigDecimal("12.50")));
+        inventoryService.createOrUpdateInventory(product.getId(), 10);
+
+        PurchaseOrder order = purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                "Summary Customer", "summary@example.com", List.of(new OrderItemDto(product.getId(), 2))));
+
+        OrderSummary created = orderSummaryRepository.findById(order.getId()).orElseThrow();
+        assertEquals(OrderStatus.CREATED, created.getStatus());
+        assertEquals(1, created.getItemCount());
+        assertEquals(0, new BigDecimal("25.00").compareTo(created.getTotalAmount()));
+
+        purchaseOrderService.processOrder(order.getId());
+
+        Page<OrderSummary> completed = orderSummaryService.findSummaries(
+                OrderStatus.COMPLETED, "summary@example.com", null, null, PageRequest.of(0, 10));
+        assertEquals(1, completed.getTotalElements());
+        assertEquals(order.getId(), completed.getContent().get(0).getOrderId());
+    }
+
+    @Test
+    void testRebuildRegeneratesAllSummaries() {
+        orderSummaryRepository.deleteAll();
+
+        int rebuilt = orderSummaryService.rebuild();
+
+        assertEquals(purchaseOrderRepository.count(), rebuilt);
+        assertEquals(purchaseOrderRepository.count(), orderSummaryRepository.count());
+    }
+
+    @Test
+    void testRebuildCorrectsExistingSummaries() {
+        PurchaseOrder order = purchaseOrderRepository.findAll().get(0);
+        OrderStatus other = order.getStatus() == OrderStatus.CANCELLED ? OrderStatus.CREATED : OrderStatus.CANCELLED;
+        orderSummaryService.rebuild();
+        jdbcTemplate.update("update order_summary set status = ? where order_id = ?", other.name(), order.getId());
+
+        orderSummaryService.rebuild();
+
+        assertEquals(order.getStatus(), orderSummaryRepository.findById(order.getId()).orElseThrow().getStatus());
+        assertEquals(purchaseOrderRepository.count(), orderSummaryRepository.count());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.dto.OrderWaveResult;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import com.example.inventory_service_demo.repository.OrderSummaryRepository;
+import com.example.inventory_service_demo.repository.PurchaseOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orderwaves",
+        "app.order-waves.batch-size=4"
+})
+class OrderWaveServiceTest {
+
+    @Autowired
+    private OrderWaveService orderWaveService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Test
+    void testWaveFillsOldestOrdersFirstAndLeavesTheRestPending() {
+        // Only this test's orders are pending
+        purchaseOrderRepository.findByStatus(OrderStatus.CREATED)
+                .forEach(order -> purchaseOrderService.cancelOrder(order.getId()));
+
+        Product widget = productService.createProduct(
+                new Product("Wave Widget", null, "WAVE-001", new BigDecimal("2.00")));
+        Product gadget = productService.createProduct(
+                new Product("Wave Gadget", null, "WAVE-002", new BigDecimal("3.00")));
+        inventoryService.createOrUpdateInventory(widget.getId(), 20);
+        inventoryService.createOrUpdateInventory(gadget.getId(), 5);
+
+        // Ten orders of 2 widgets and 1 gadget: stock for all widgets, but gadgets for only five
+        List<PurchaseOrder> orders = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            orders.add(purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                    "Wave Customer", "wave" + i % 2 + "@example.com",
+                    List.of(new OrderItemDto(widget.getId(), 2), new OrderItemDto(gadget.getId(), 1)))));
+        }
+        Long cancelled = orders.get(0).getId();
+        purchaseOrderService.cancelOrder(cancelled);
+
+        OrderWaveResult wave = orderWaveService.processWave(null, null, null);
+
+        assertEquals(5, wave.completed());
+        List<Long> pendingIds = wave.pending().stream().map(OrderWaveResult.PendingOrder::orderId).toList();
+        assertEquals(orders.subList(6, 10).stream().map(PurchaseOrder::getId).toList(), pendingIds);
+        assertTrue(wave.pending().get(0).reason().contains("Insufficient inventory for product: Wave Gadget"));
+        for (int i = 1; i <= 5; i++) {
+            Long id = orders.get(i).getId();
+            assertEquals(OrderStatus.COMPLETED, purchaseOrderRepository.findById(id).orElseThrow().getStatus());
+            assertEquals(OrderStatus.COMPLETED, orderSummaryRepository.findById(id).orElseThrow().getStatus());
+        }
+        assertEquals(OrderStatus.CANCELLED, purchaseOrderRepository.findById(cancelled).orElseThrow().getStatus());
+        assertEquals(OrderStatus.CREATED, purchaseOrderRepository.findById(pendingIds.get(0)).orElseThrow().getStatus());
+        assertEquals(10, inventoryService.getInventoryByProductId(widget.getId()).orElseThrow().getQuantity());
+        assertEquals(0, inventoryService.getInventoryByProductId(gadget.getId()).orElseThrow().getQuantity());
+
+        // Restocked, a wave restricted to one customer only fills that customer's orders
+        inventoryService.createOrUpdateInventory(gadget.getId(), 10);
+        OrderWaveResult customerWave = orderWaveService.processWave("wave0@example.com", null, null);
+        assertEquals(2, customerWave.completed());
+        assertTrue(customerWave.pending().isEmpty());
+        assertEquals(OrderStatus.CREATED, purchaseOrderRepository.findById(orders.get(7).getId()).orElseThrow().getStatus());
+
+        OrderWaveResult limitedWave = orderWaveService.processWave(null, null, 1);
+        assertEquals(1, limitedWave.completed());
+        assertEquals(OrderStatus.COMPLETED, purchaseOrderRepository.findById(orders.get(7).getId()).orElseThrow().getStatus());
+        assertEquals(OrderStatus.CREATED, purchaseOrderRepository.findById(orders.get(9).getId()).orElseThrow().getStatus());
+        assertThrows(IllegalArgumentException.class, () -> orderWaveService.processWave(null, null, 0));
+    }
+}
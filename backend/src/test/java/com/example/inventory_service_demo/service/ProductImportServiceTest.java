@@ -0,0 +1,92 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:productimport")
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Test
+    void testCsvImportUpsertsAndReportsBadRows() {
+        productService.createProduct(new Product("Old Name", null, "IMPORT-EXISTING", new BigDecimal("1.00")));
+        String csv = """
+                sku,name,description,price,quantity
+                IMPORT-1,Plain Widget,,9.99,10
+                IMPORT-2,"Quoted, Widget","Says ""hi""
+                over two lines",19.50,
+                IMPORT-3,Bad Price,,abc,1
+                IMPORT-4,,No name,5.00,1
+                IMPORT-EXISTING,New Name,,2.50,7
+                IMPORT-5,Negative,,-1.00,1
+                IMPORT-1,Plain Widget v2,,10.99,3
+                """;
+
+        ProductImportJob job = productImportService.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ProductImportService.Format.CSV);
+
+        assertEquals(ProductImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(7, job.getRowsRead());
+        assertEquals(3, job.getFailed());
+        assertEquals(2, job.getCreated());
+        assertEquals(1, job.getUpdated());
+        assertEquals(1, job.getDuplicates());
+        assertTrue(job.getErrors().stream().anyMatch(error -> error.line() == 5 && "IMPORT-3".equals(error.sku())));
+        assertTrue(job.getErrors().stream().anyMatch(error -> error.line() == 6
+                && error.message().contains("Product name is required")));
+        assertTrue(job.getErrors().stream().anyMatch(error -> error.message().contains("Price must be positive")));
+
+        Product plain = productService.getProductBySku("IMPORT-1").orElseThrow();
+        assertEquals("Plain Widget v2", plain.getName());
+        assertEquals(0, new BigDecimal("10.99").compareTo(plain.getPrice()));
+        assertEquals(3, inventoryService.getInventoryByProductId(plain.getId()).orElseThrow().getQuantity());
+
+        Product quoted = productService.getProductBySku("IMPORT-2").orElseThrow();
+        assertEquals("Quoted, Widget", quoted.getName());
+        assertEquals("Says \"hi\"\nover two lines", quoted.getDescription());
+        assertTrue(inventoryService.getInventoryByProductId(quoted.getId()).isEmpty());
+
+        Product existing = productService.getProductBySku("IMPORT-EXISTING").orElseThrow();
+        assertEquals("New Name", existing.getName());
+        assertTrue(inventoryService.getInventoryByProductId(existing.getId()).isEmpty());
+
+        assertSame(job, productImportService.getJob(job.getId()).orElseThrow());
+    }
+
+    @Test
+    void testNdjsonImportSkipsMalformedLines() {
+        String ndjson = """
+                {"sku":"NDJSON-1","name":"Json Widget","price":4.25,"quantity":2}
+                {"sku":"NDJSON-2","name":
+                
+                {"sku":"NDJSON-3","name":"Json Gadget","description":"x","price":"6.00"}
+                """;
+
+        ProductImportJob job = productImportService.importProducts(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ProductImportService.Format.NDJSON);
+
+        assertEquals(3, job.getRowsRead());
+        assertEquals(2, job.getCreated());
+        assertEquals(1, job.getFailed());
+        assertEquals(2, job.getErrors().get(0).line());
+        assertTrue(productService.getProductBySku("NDJSON-3").isPresent());
+        Long id = productService.getProductBySku("NDJSON-1").orElseThrow().getId();
+        assertEquals(2, inventoryService.getAvailability(new long[]{id}).get(id));
+    }
+}
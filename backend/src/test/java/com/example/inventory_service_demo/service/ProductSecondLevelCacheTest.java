@@ -0,0 +1,107 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.event.CacheInvalidationEvent;
+import com.example.inventory_service_demo.model.CacheChange;
+import com.example.inventory_service_demo.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:productcache")
+class ProductSecondLevelCacheTest {
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        cache = sessionFactory.getCache();
+    }
+
+    @Test
+    void testOrderCreationReadsProductsFromCache() {
+        List<OrderItemDto> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Product product = productService.createProduct(
+                    new Product("Cached Widget " + i, null, "CACHED-" + i, new BigDecimal("1.00")));
+            inventoryService.createOrUpdateInventory(product.getId(), 100);
+            items.add(new OrderItemDto(product.getId(), 1));
+        }
+        CreatePurchaseOrderDto order = new CreatePurchaseOrderDto("Cache Customer", "cache@example.com", items);
+
+        cache.evictEntityData(Product.class);
+        statistics.clear();
+        purchaseOrderService.createOrder(order);
+        long uncached = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        purchaseOrderService.createOrder(order);
+        long cached = statistics.getPrepareStatementCount();
+
+        // One product select per line less
+        assertEquals(uncached - 3, cached);
+        assertEquals(3, statistics.getDomainDataRegionStatistics(Product.CACHE_REGION).getHitCount());
+
+        // The batch path looks its products up in the cache as well
+        statistics.clear();
+        purchaseOrderService.createOrders(List.of(order));
+        assertEquals(cached, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testSkuLookupIsCachedAndInvalidated() {
+        Product product = productService.createProduct(
+                new Product("Sku Widget", null, "CACHED-SKU", new BigDecimal("2.00")));
+        productService.getProductBySku("CACHED-SKU");
+
+        statistics.clear();
+        assertEquals("Sku Widget", productService.getProductBySku("CACHED-SKU").orElseThrow().getName());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        product.setName("Renamed Sku Widget");
+        productService.updateProduct(product.getId(), product);
+        assertEquals("Renamed Sku Widget", productService.getProductBySku("CACHED-SKU").orElseThrow().getName());
+
+        // A change made by another node is only seen once its invalidation arrives
+        jdbcTemplate.update("update products set name = 'Remote Sku Widget' where id = ?", product.getId());
+        assertEquals("Renamed Sku Widget", productService.getProductById(product.getId()).orElseThrow().getName());
+        eventPublisher.publishEvent(new CacheInvalidationEvent(CacheChange.Type.PRODUCT, product.getId()));
+        assertEquals("Remote Sku Widget", productService.getProductById(product.getId()).orElseThrow().getName());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.ProductView;
+import com.example.inventory_service_demo.event.CacheInvalidationEvent;
+import com.example.inventory_service_demo.model.CacheChange;
+import com.example.inventory_service_demo.model.Product;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductViewCacheTest {
+
+    @Autowired
+    private ProductViewCache productViewCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testViewsAreCachedUntilTheProductChanges() throws Exception {
+        Product product = productService.createProduct(
+                new Product("View Widget", "Long description", "VIEW-001", new BigDecimal("4.20")));
+
+        byte[] first = productViewCache.findById(product.getId()).orElseThrow();
+        assertEquals(ProductView.of(product), objectMapper.readValue(first, ProductView.class));
+        assertSame(first, productViewCache.findById(product.getId()).orElseThrow());
+        assertSame(first, productViewCache.findBySku("VIEW-001").orElseThrow());
+
+        product.setName("View Widget v2");
+        productService.updateProduct(product.getId(), product);
+        ProductView updated = objectMapper.readValue(
+                productViewCache.findById(product.getId()).orElseThrow(), ProductView.class);
+        assertEquals("View Widget v2", updated.name());
+
+        // Written without going through JPA, as another node would
+        jdbcTemplate.update("update products set name = ? where id = ?", "View Widget v3", product.getId());
+        assertEquals("View Widget v2", read(productViewCache.findById(product.getId()).orElseThrow()).name());
+        eventPublisher.publishEvent(new CacheInvalidationEvent(CacheChange.Type.PRODUCT, product.getId()));
+        assertEquals("View Widget v3", read(productViewCache.findById(product.getId()).orElseThrow()).name());
+    }
+
+    @Test
+    void testProductListFollowsCreationsAndDeletions() throws Exception {
+        int before = readList(productViewCache.findAll()).size();
+        assertSame(productViewCache.findAll(), productViewCache.findAll());
+
+        Product product = productService.createProduct(
+                new Product("Listed Widget", null, "VIEW-002", new BigDecimal("1.00")));
+        List<ProductView> withProduct = readList(productViewCache.findAll());
+        assertEquals(before + 1, withProduct.size());
+        assertTrue(withProduct.contains(ProductView.of(product)));
+
+        productService.deleteProduct(product.getId());
+        assertEquals(before, readList(productViewCache.findAll()).size());
+        assertTrue(productViewCache.findById(product.getId()).isEmpty());
+    }
+
+    private ProductView read(byte[] json) throws Exception {
+        return objectMapper.readValue(json, ProductView.class);
+    }
+
+    private List<ProductView> readList(byte[] json) throws Exception {
+        return objectMapper.readValue(json, new TypeReference<>() {
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.FieldSelection;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.model.PurchaseOrder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProjectionServiceTest {
+
+    @Autowired
+    private ProjectionService projectionService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testOrdersReadOnlyRequestedColumnsWithoutEntities() {
+        Product product = productService.createProduct(
+                new Product("Projected Widget", "Not requested", "PROJECTION-001", new BigDecimal("3.50")));
+        inventoryService.createOrUpdateInventory(product.getId(), 10);
+        PurchaseOrder order = purchaseOrderService.createOrder(new CreatePurchaseOrderDto(
+                "Projection Customer", "projection@example.com", List.of(new OrderItemDto(product.getId(), 2))));
+
+        statistics.clear();
+        List<Map<String, Object>> orders = projectionService.getOrders(
+                FieldSelection.parse("status,items.quantity,product.sku", "items,product"));
+
+        // One query for the orders and one for their items joined with the products
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        Map<String, Object> json = orders.stream()
+                .filter(candidate -> candidate.get("id").equals(order.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(List.of("id", "status", "items"), List.copyOf(json.keySet()));
+        assertEquals(List.of(Map.of("id", order.getItems().get(0).getId(), "quantity", 2,
+                "product", Map.of("id", product.getId(), "sku", "PROJECTION-001"))), json.get("items"));
+    }
+
+    @Test
+    void testProductAndInventoryFields() {
+        Product product = productService.createProduct(
+                new Product("Sparse Widget", "Not requested", "PROJECTION-002", new BigDecimal("7.25")));
+        inventoryService.createOrUpdateInventory(product.getId(), 4);
+
+        Map<String, Object> productJson = projectionService.getProducts(FieldSelection.parse("price", null))
+                .stream().filter(json -> json.get("id").equals(product.getId())).findFirst().orElseThrow();
+        assertEquals(Map.of("id", product.getId(), "price", new BigDecimal("7.25")), productJson);
+
+        Map<String, Object> stock = projectionService.getInventory(FieldSelection.parse("quantity,product.name", "product"))
+                .stream().filter(json -> json.get("productId").equals(product.getId())).findFirst().orElseThrow();
+        assertEquals(Map.of("productId", product.getId(), "quantity", 4,
+                "product", Map.of("id", product.getId(), "name", "Sparse Widget")), stock);
+    }
+
+    @Test
+    void testUnknownFieldsAndRelationsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> projectionService.getProducts(FieldSelection.parse("weight", null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> projectionService.getOrders(FieldSelection.parse(null, "product")));
+        assertThrows(IllegalArgumentException.class,
+                () -> projectionService.getOrders(FieldSelection.parse("items.quantity", null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> projectionService.getInventory(FieldSelection.parse(null, "items")));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:skufilter",
+        "app.cache-invalidation.enabled=true"
+})
+class SkuFilterTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SkuFilter skuFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testScalableFilterHasNoFalseNegativesAndKeepsItsErrorRate() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("SKU-" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("SKU-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("NEW-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testUnknownSkusSkipTheDatabase() {
+        // Saved through the repository: the entity listener still feeds the filter
+        productRepository.save(new Product("Filtered Widget", null, "FILTER-001", new BigDecimal("3.00")));
+        assertTrue(productService.getProductBySku("FILTER-001").isPresent());
+
+        double before = absentLookups();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(productService.getProductBySku("UNKNOWN-" + i).isEmpty());
+        }
+        assertTrue(absentLookups() - before >= 95);
+
+        Product created = productService.createProduct(
+                new Product("Filtered Gadget", null, "FILTER-002", new BigDecimal("4.00")));
+        assertThrows(IllegalArgumentException.class, () -> productService.createProduct(
+                new Product("Duplicate Gadget", null, "FILTER-002", new BigDecimal("4.00"))));
+
+        productService.deleteProduct(created.getId());
+        skuFilter.rebuild();
+        assertFalse(skuFilter.mightExist("FILTER-002"));
+        assertTrue(skuFilter.mightExist("FILTER-001"));
+    }
+
+    @Test
+    void testFilterRequiresCacheInvalidation() {
+        // Without it SKUs created on other nodes would never reach the filter
+        assertThrows(IllegalStateException.class,
+                () -> new SkuFilter(productRepository, new SimpleMeterRegistry(), true, false, 1_000, 0.01));
+    }
+
+    private double absentLookups() {
+        return meterRegistry.get("products.sku.filter.lookups").tag("result", "absent").counter().count();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.inventory_service_demo.service;
+
+import com.example.inventory_service_demo.InventoryServiceDemoApplication;
+import com.example.inventory_service_demo.dto.CreatePurchaseOrderDto;
+import com.example.inventory_service_demo.dto.OrderItemDto;
+import com.example.inventory_service_demo.model.OrderStatus;
+import com.example.inventory_service_demo.model.Product;
+import com.example.inventory_service_demo.repository.snapshot.SnapshotFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshotsource",
+        "app.snapshot.enabled=true",
+        "app.snapshot.on-shutdown=false",
+        "app.snapshot.block-rows=7"
+})
+class SnapshotServiceTest {
+
+    private static final List<String> TABLES =
+            List.of("products", "inventory", "inventory_slot", "purchase_orders", "order_items");
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void snapshotDirectory(DynamicPropertyRegistry registry) {
+        registry.add("app.snapshot.directory", () -> directory.toString());
+    }
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testRestartRestoresTheNewestValidSnapshot() throws IOException {
+        for (int i = 0; i < 20; i++) {
+            Product product = productService.createProduct(new Product("Snapshot Widget " + i,
+                    i % 2 == 0 ? null : "Odd widget", String.format("SNAP-%03d", i), new BigDecimal("4.25")));
+            inventoryService.createOrUpdateInventory(product.getId(), 100 + i);
+            Long orderId = purchaseOrderService.createOrder(new CreatePurchaseOrderDto("Snapshot Customer",
+                    "snapshot" + i % 3 + "@example.com", List.of(new OrderItemDto(product.getId(), 2)))).getId();
+            if (i % 4 == 0) {
+                purchaseOrderService.processOrder(orderId);
+            }
+        }
+        SnapshotService.Result older = snapshotService.takeSnapshot();
+        Map<String, List<Map<String, Object>>> olderRows = rows(jdbcTemplate);
+
+        productService.createProduct(new Product("Snapshot Late", null, "SNAP-LATE", new BigDecimal("1.00")));
+        SnapshotService.Result newest = snapshotService.takeSnapshot();
+        Map<String, List<Map<String, Object>>> newestRows = rows(jdbcTemplate);
+        assertEquals(newestRows.get("products").size(), olderRows.get("products").size() + 1);
+        assertTrue(newest.rows() > 100);
+
+        // A fresh in-memory database: the snapshot is loaded instead of the sample data
+        try (ConfigurableApplicationContext restored = restart("snapshotrestore")) {
+            assertEquals(newestRows, rows(restored.getBean(JdbcTemplate.class)));
+            // New rows continue after the restored ids
+            Long maxId = jdbcTemplate.queryForObject("select max(id) from products", Long.class);
+            Product added = restored.getBean(ProductService.class).createProduct(
+                    new Product("After Restore", null, "SNAP-AFTER", new BigDecimal("1.00")));
+            assertTrue(added.getId() > maxId);
+            // Derived state is rebuilt from the restored orders
+            assertEquals(purchaseOrderService.getStatusCounts().get(OrderStatus.COMPLETED),
+                    restored.getBean(PurchaseOrderService.class).getStatusCounts().get(OrderStatus.COMPLETED));
+        }
+
+        // A damaged snapshot fails its checksums and the older one is restored instead
+        try (FileChannel channel = FileChannel.open(newest.snapshot().path(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long middle = channel.size() / 2;
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, middle);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) ~value.get(0)}), middle);
+        }
+        assertThrows(IOException.class, () -> SnapshotFile.open(newest.snapshot().path()));
+        try (ConfigurableApplicationContext restored = restart("snapshotfallback")) {
+            assertEquals(olderRows, rows(restored.getBean(JdbcTemplate.class)));
+        }
+        assertTrue(older.snapshot().path().toFile().exists());
+    }
+
+    @Test
+    void testShardedInventoryIsRefused() {
+        SpringApplicationBuilder sharded = new SpringApplicationBuilder(InventoryServiceDemoApplication.class)
+                .web(WebApplicationType.NONE);
+
+        Exception e = assertThrows(Exception.class, () -> sharded.run(
+                "--spring.datasource.url=jdbc:h2:mem:snapshotsharded",
+                "--app.snapshot.enabled=true",
+                "--app.sharding.enabled=true",
+                "--app.snapshot.directory=" + directory,
+                "--logging.level.root=OFF"));
+        assertTrue(NestedExceptionUtils.getMostSpecificCause(e).getMessage().contains("app.sharding.enabled"));
+    }
+
+    private static ConfigurableApplicationContext restart(String database) {
+        return new SpringApplicationBuilder(InventoryServiceDemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database,
+                        "--app.snapshot.enabled=true",
+                        "--app.snapshot.on-shutdown=false",
+                        "--app.snapshot.directory=" + directory,
+                        "--logging.level.root=WARN");
+    }
+
+    private static Map<String, List<Map<String, Object>>> rows(JdbcTemplate jdbcTemplate) {
+        Map<String, List<Map<String, Object>>> rows = new LinkedHashMap<>();
+        for (String table : TABLES) {
+            rows.put(table, jdbcTemplate.queryForList("select * from " + table + " order by id"));
+        }
+        return rows;
+    }
+}